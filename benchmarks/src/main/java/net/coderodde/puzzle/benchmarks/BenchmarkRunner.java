@@ -0,0 +1,28 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * The entry point of the benchmark jar. Runs JMH with the given options,
+ * adding the GC profiler, which reports the allocation rate, unless a
+ * profiler is given with <tt>-prof</tt>.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(final String... args) throws Exception {
+        if (Arrays.asList(args).contains("-prof")) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        final String[] options = Arrays.copyOf(args, args.length + 2);
+        options[args.length] = "-prof";
+        options[args.length + 1] = "gc";
+        org.openjdk.jmh.Main.main(options);
+    }
+}
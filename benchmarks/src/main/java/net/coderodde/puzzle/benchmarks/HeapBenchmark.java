@@ -0,0 +1,55 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.puzzle.util.support.HeapTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the priority queues on synthetic operation mixes: see
+ * {@link Workloads}. Each invocation replays a whole trace on a new queue.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeapBenchmark {
+
+    @Param
+    public HeapType heap;
+
+    @Param
+    public PriorityDistribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"16", "4096"})
+    public int range;
+
+    private HeapTrace trace;
+
+    @Setup
+    public void setUp() {
+        trace = Workloads.create(distribution, size, range);
+    }
+
+    @Benchmark
+    public long replay() {
+        return trace.replay(heap.<Integer>create());
+    }
+}
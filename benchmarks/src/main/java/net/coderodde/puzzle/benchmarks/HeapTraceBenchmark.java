@@ -0,0 +1,59 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.puzzle.util.support.HeapTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the priority queues by replaying the heap operations of real
+ * searches. By default, the trace is recorded at the setup from
+ * <code>finder</code> solving the 4x4 instance set of 50 moves; with
+ * <tt>-p traceFile=FILE</tt>, a trace written by {@link TraceRecorder} is
+ * replayed instead.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeapTraceBenchmark {
+
+    @Param
+    public HeapType heap;
+
+    @Param({"HEURISTIC_BFS", "NBA", "ARA_STAR"})
+    public InformedFinderBenchmark.FinderType finder;
+
+    @Param({""})
+    public String traceFile;
+
+    private HeapTrace trace;
+
+    @Setup
+    public void setUp() throws IOException {
+        trace = traceFile.isEmpty() ?
+                TraceRecorder.record(finder, 4, 50) :
+                HeapTrace.read(new File(traceFile));
+    }
+
+    @Benchmark
+    public long replay() {
+        return trace.replay(heap.<Integer>create());
+    }
+}
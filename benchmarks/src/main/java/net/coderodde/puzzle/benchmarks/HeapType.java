@@ -0,0 +1,50 @@
+package net.coderodde.puzzle.benchmarks;
+
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.DialHeap;
+
+/**
+ * The priority queues the benchmarks are parameterized with.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public enum HeapType {
+
+    DIAL {
+        @Override
+        <E> IntegerPriorityQueue<?, E> create() {
+            return new DialHeap<>();
+        }
+    },
+
+    DARY_2 {
+        @Override
+        <E> IntegerPriorityQueue<?, E> create() {
+            return new DaryHeap<>(2);
+        }
+    },
+
+    DARY_3 {
+        @Override
+        <E> IntegerPriorityQueue<?, E> create() {
+            return new DaryHeap<>(3);
+        }
+    },
+
+    DARY_4 {
+        @Override
+        <E> IntegerPriorityQueue<?, E> create() {
+            return new DaryHeap<>(4);
+        }
+    };
+
+    /**
+     * Creates an empty queue of this type.
+     *
+     * @param  <E> the element type.
+     * @return a new queue.
+     */
+    abstract <E> IntegerPriorityQueue<?, E> create();
+}
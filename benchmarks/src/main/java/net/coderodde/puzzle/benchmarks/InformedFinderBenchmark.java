@@ -0,0 +1,135 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.support.ARAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.BidirectionalHeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.HDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.HeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.support.NBAFinder;
+import net.coderodde.puzzle.graph.finders.support.ParallelNBAFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the finders ordering their search by a priority queue, over
+ * each queue type, solving a fixed instance set per degree and scramble
+ * length. The heuristic function is the Manhattan distance throughout.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InformedFinderBenchmark {
+
+    public enum FinderType {
+
+        HEURISTIC_BFS {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new HeuristicBFSFinder<>(h, queue);
+            }
+        },
+
+        BIDIRECTIONAL_HEURISTIC_BFS {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new BidirectionalHeuristicBFSFinder<>(h, queue);
+            }
+        },
+
+        NBA {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new NBAFinder<>(h, queue);
+            }
+        },
+
+        PARALLEL_NBA {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new ParallelNBAFinder<>(h, queue);
+            }
+        },
+
+        HDA_STAR {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new HDAStarFinder<>(
+                        h,
+                        queue,
+                        Runtime.getRuntime().availableProcessors());
+            }
+        },
+
+        ARA_STAR {
+            @Override
+            AbstractPathFinder<PuzzleGraphNode> create(
+                    final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                    final IntegerPriorityQueue<?, PuzzleGraphNode> queue) {
+                return new ARAStarFinder<>(h, queue, 3.0, 0.5);
+            }
+        };
+
+        abstract AbstractPathFinder<PuzzleGraphNode> create(
+                final AbstractHeuristicFunction<PuzzleGraphNode> h,
+                final IntegerPriorityQueue<?, PuzzleGraphNode> queue);
+    }
+
+    @Param
+    public FinderType finder;
+
+    @Param
+    public HeapType heap;
+
+    @Param({"3", "4"})
+    public int degree;
+
+    @Param({"10", "30", "50"})
+    public int steps;
+
+    private AbstractPathFinder<PuzzleGraphNode> pathFinder;
+    private PuzzleGraphNode[] sources;
+    private PuzzleGraphNode target;
+
+    @Setup
+    public void setUp() {
+        target = new PuzzleGraphNode(degree);
+        sources = Instances.getSources(degree, steps);
+        pathFinder = finder.create(new ManhattanHeuristicFunction(target),
+                                   heap.<PuzzleGraphNode>create());
+    }
+
+    @Benchmark
+    public int solve() {
+        return Instances.solve(pathFinder, sources, target);
+    }
+}
@@ -0,0 +1,74 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.App;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class produces the instance sets of the benchmarks. An instance set
+ * depends only on the degree and the scramble length, so that all the
+ * benchmarks, and all the runs of a benchmark, solve the same instances.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+final class Instances {
+
+    /**
+     * The amount of instances in a set.
+     */
+    static final int COUNT = 8;
+
+    private static final long SEED = 13L;
+
+    private Instances() {}
+
+    /**
+     * Returns the sources of the instance set: the solved node of degree
+     * <code>degree</code> scrambled by <code>steps</code> random moves. The
+     * target of each instance is the solved node.
+     *
+     * @param  degree the degree of the puzzle.
+     * @param  steps  the amount of random moves.
+     * @return the source nodes.
+     */
+    static PuzzleGraphNode[] getSources(final int degree, final int steps) {
+        final Random rnd = new Random(SEED + 1000L * degree + steps);
+        final PuzzleGraphNode[] sources = new PuzzleGraphNode[COUNT];
+
+        for (int i = 0; i < COUNT; ++i) {
+            sources[i] = App.getSource(steps, degree, rnd);
+        }
+
+        return sources;
+    }
+
+    /**
+     * Solves all the instances with <code>finder</code>.
+     *
+     * @param  finder  the finder.
+     * @param  sources the source nodes.
+     * @param  target  the target node.
+     * @return the total length of the paths found, so that the work may not
+     *         be optimized away.
+     */
+    static <T extends AbstractGraphNode<T>>
+        int solve(final AbstractPathFinder<T> finder,
+                  final T[] sources,
+                  final T target) {
+        int total = 0;
+
+        for (final T source : sources) {
+            final List<T> path = finder.search(source, target);
+
+            if (path != null) {
+                total += path.size();
+            }
+        }
+
+        return total;
+    }
+}
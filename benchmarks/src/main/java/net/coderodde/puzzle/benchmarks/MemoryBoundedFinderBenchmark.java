@@ -0,0 +1,100 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.support.BeamSearchFinder;
+import net.coderodde.puzzle.graph.finders.support.IDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.support.ParallelIDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.SMAStarFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the heuristic finders keeping no priority queue, whose memory
+ * use is bounded: IDA*, parallel IDA*, SMA* and beam search. The heuristic
+ * function is the Manhattan distance throughout.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryBoundedFinderBenchmark {
+
+    /**
+     * The node budget of SMA*.
+     */
+    private static final int SMA_STAR_NODES = 100000;
+
+    /**
+     * The beam width of beam search.
+     */
+    private static final int BEAM_WIDTH = 1000;
+
+    public enum FinderType {
+        IDA_STAR,
+        PARALLEL_IDA_STAR,
+        SMA_STAR,
+        BEAM
+    }
+
+    @Param
+    public FinderType finder;
+
+    @Param({"3", "4"})
+    public int degree;
+
+    @Param({"10", "30", "50"})
+    public int steps;
+
+    private AbstractPathFinder<PuzzleGraphNode> pathFinder;
+    private PuzzleGraphNode[] sources;
+    private PuzzleGraphNode target;
+
+    @Setup
+    public void setUp() {
+        target = new PuzzleGraphNode(degree);
+        sources = Instances.getSources(degree, steps);
+
+        final ManhattanHeuristicFunction h =
+                new ManhattanHeuristicFunction(target);
+
+        switch (finder) {
+            case IDA_STAR:
+                pathFinder = new IDAStarFinder(h);
+                break;
+
+            case PARALLEL_IDA_STAR:
+                pathFinder = new ParallelIDAStarFinder(h);
+                break;
+
+            case SMA_STAR:
+                pathFinder = new SMAStarFinder<>(h, SMA_STAR_NODES);
+                break;
+
+            case BEAM:
+                pathFinder = new BeamSearchFinder<>(h, BEAM_WIDTH);
+                break;
+        }
+    }
+
+    @Benchmark
+    public int solve() {
+        return Instances.solve(pathFinder, sources, target);
+    }
+}
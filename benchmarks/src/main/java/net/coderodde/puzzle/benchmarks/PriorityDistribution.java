@@ -0,0 +1,30 @@
+package net.coderodde.puzzle.benchmarks;
+
+/**
+ * The priorities of the elements inserted by the synthetic heap traces of
+ * {@link Workloads}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public enum PriorityDistribution {
+
+    /**
+     * The priority of an inserted element is the current minimum plus
+     * a uniform amount below the range, as under a consistent heuristic.
+     */
+    MONOTONE,
+
+    /**
+     * The priority is uniform over the range, regardless of the
+     * current minimum.
+     */
+    RANDOM,
+
+    /**
+     * As {@link #MONOTONE}, and each step also decreases the priorities
+     * of some random elements in the queue, no lower than the current
+     * minimum.
+     */
+    DECREASE_KEY
+}
@@ -0,0 +1,71 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.HeapTrace;
+import net.coderodde.puzzle.util.support.RecordingPriorityQueue;
+
+/**
+ * Records the heap operations of a finder solving an instance set of the
+ * benchmarks. Run as
+ * <pre>
+ * java -cp benchmarks.jar net.coderodde.puzzle.benchmarks.TraceRecorder \
+ *     FILE FINDER DEGREE STEPS
+ * </pre>
+ * where <tt>FINDER</tt> is one of {@link InformedFinderBenchmark.FinderType},
+ * to write the trace into <tt>FILE</tt> for {@link HeapTraceBenchmark}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class TraceRecorder {
+
+    private TraceRecorder() {}
+
+    /**
+     * Records the operations of <code>finder</code> on a binary heap while
+     * solving the instance set of <code>degree</code> and
+     * <code>steps</code>.
+     *
+     * @param  finder the finder type.
+     * @param  degree the degree of the puzzle.
+     * @param  steps  the scramble length.
+     * @return the trace.
+     */
+    static HeapTrace record(final InformedFinderBenchmark.FinderType finder,
+                            final int degree,
+                            final int steps) {
+        final PuzzleGraphNode target = new PuzzleGraphNode(degree);
+        final HeapTrace trace = new HeapTrace();
+        final AbstractPathFinder<PuzzleGraphNode> pathFinder =
+                finder.create(new ManhattanHeuristicFunction(target),
+                              new RecordingPriorityQueue<>(
+                                      new DaryHeap<PuzzleGraphNode>(2),
+                                      trace));
+
+        Instances.solve(pathFinder,
+                        Instances.getSources(degree, steps),
+                        target);
+        return trace;
+    }
+
+    public static void main(final String... args) throws IOException {
+        if (args.length != 4) {
+            System.err.println(
+                    "Usage: TraceRecorder FILE FINDER DEGREE STEPS");
+            System.exit(1);
+        }
+
+        final HeapTrace trace =
+                record(InformedFinderBenchmark.FinderType.valueOf(args[1]),
+                       Integer.parseInt(args[2]),
+                       Integer.parseInt(args[3]));
+        trace.write(new File(args[0]));
+        System.out.println("Recorded " + trace.size() + " operations on " +
+                           trace.getQueueCount() + " queues.");
+    }
+}
@@ -0,0 +1,104 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.support.BFSFinder;
+import net.coderodde.puzzle.graph.finders.support.BidirectionalBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.ExternalBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.LookupFinder;
+import net.coderodde.puzzle.graph.support.PackedPuzzleState;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the finders using no heuristic function and no priority queue.
+ * These exhaust the 4x4 puzzle already at moderate depths, and the lookup
+ * finder supports at most the 3x3 puzzle, so only the 3x3 puzzle is used.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UninformedFinderBenchmark {
+
+    public enum FinderType {
+        BFS,
+        BIDIRECTIONAL_BFS,
+        EXTERNAL_BFS,
+        LOOKUP
+    }
+
+    @Param
+    public FinderType finder;
+
+    @Param({"10", "30", "50"})
+    public int steps;
+
+    private AbstractPathFinder<PuzzleGraphNode> pathFinder;
+    private PuzzleGraphNode[] sources;
+    private PuzzleGraphNode target;
+
+    /**
+     * The external BFS searches over packed states instead.
+     */
+    private ExternalBFSFinder packedFinder;
+    private PackedPuzzleState[] packedSources;
+    private PackedPuzzleState packedTarget;
+
+    @Setup
+    public void setUp() {
+        target = new PuzzleGraphNode(3);
+        sources = Instances.getSources(3, steps);
+
+        switch (finder) {
+            case BFS:
+                pathFinder = new BFSFinder<>();
+                break;
+
+            case BIDIRECTIONAL_BFS:
+                pathFinder = new BidirectionalBFSFinder<>();
+                break;
+
+            case LOOKUP:
+                pathFinder = new LookupFinder();
+                // Builds the table outside of the measurements.
+                pathFinder.search(sources[0], target);
+                break;
+
+            case EXTERNAL_BFS:
+                packedFinder = new ExternalBFSFinder();
+                packedTarget = PackedPuzzleState.valueOf(target);
+                packedSources = new PackedPuzzleState[sources.length];
+
+                for (int i = 0; i < sources.length; ++i) {
+                    packedSources[i] = PackedPuzzleState.valueOf(sources[i]);
+                }
+
+                break;
+        }
+    }
+
+    @Benchmark
+    public int solve() {
+        if (packedFinder != null) {
+            return Instances.solve(packedFinder, packedSources, packedTarget);
+        }
+
+        return Instances.solve(pathFinder, sources, target);
+    }
+}
@@ -0,0 +1,85 @@
+package net.coderodde.puzzle.benchmarks;
+
+import java.util.Random;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.HeapTrace;
+import net.coderodde.puzzle.util.support.RecordingPriorityQueue;
+
+/**
+ * This class generates synthetic heap traces resembling the ones A*
+ * produces. A trace first fills a queue with <code>size</code> elements, and
+ * then runs <code>2 * size</code> steps, each extracting the minimum element
+ * and inserting a new one, so that the size of the queue stays the same.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+final class Workloads {
+
+    /**
+     * The amount of priority decreases per step under
+     * {@link PriorityDistribution#DECREASE_KEY}.
+     */
+    private static final int DECREASES_PER_STEP = 4;
+
+    private static final long SEED = 17L;
+
+    private Workloads() {}
+
+    /**
+     * Generates a trace.
+     *
+     * @param  distribution the priority distribution.
+     * @param  size         the size of the queue.
+     * @param  range        the range of the priorities.
+     * @return the trace.
+     */
+    static HeapTrace create(final PriorityDistribution distribution,
+                            final int size,
+                            final int range) {
+        final Random rnd = new Random(SEED);
+        final HeapTrace trace = new HeapTrace();
+        final RecordingPriorityQueue<Integer> heap =
+                new RecordingPriorityQueue<>(new DaryHeap<Integer>(), trace);
+        final int elements = 3 * size;
+        final int[] priorities = new int[elements];
+        final boolean[] present = new boolean[elements];
+        int next = 0;
+
+        for (; next < size; ++next) {
+            priorities[next] = rnd.nextInt(range);
+            present[next] = true;
+            heap.insert(next, priorities[next]);
+        }
+
+        for (int step = 0; step < 2 * size; ++step) {
+            final int min = heap.extractMinimum();
+            final int minPriority = priorities[min];
+            present[min] = false;
+
+            priorities[next] = distribution == PriorityDistribution.RANDOM ?
+                               rnd.nextInt(range) :
+                               minPriority + rnd.nextInt(range);
+            present[next] = true;
+            heap.insert(next, priorities[next]);
+            ++next;
+
+            if (distribution != PriorityDistribution.DECREASE_KEY) {
+                continue;
+            }
+
+            for (int i = 0; i < DECREASES_PER_STEP; ++i) {
+                final int element = rnd.nextInt(next);
+
+                if (present[element] && priorities[element] > minPriority) {
+                    priorities[element] =
+                            minPriority +
+                            rnd.nextInt(priorities[element] - minPriority);
+                    heap.decreasePriority(element, priorities[element]);
+                }
+            }
+        }
+
+        return trace;
+    }
+}
@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Random;
 import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.SearchLimits;
+import net.coderodde.puzzle.graph.finders.SearchResult;
+import net.coderodde.puzzle.graph.finders.SearchStatistics;
 import net.coderodde.puzzle.graph.finders.support.BFSFinder;
 import net.coderodde.puzzle.graph.finders.support.BidirectionalBFSFinder;
 import net.coderodde.puzzle.graph.finders.support.BidirectionalHeuristicBFSFinder;
@@ -19,6 +22,11 @@ public class App {
     private static final int DEGREE = 70;
     private static final int STEPS = 100;
     
+    /**
+     * The time given to each of the uninformed finders, in milliseconds.
+     */
+    private static final long UNINFORMED_TIME_LIMIT = 5000L;
+    
     public static void main(final String... args) {
         final long seed = System.currentTimeMillis();
         final Random rnd = new Random(seed);
@@ -36,8 +44,9 @@ public class App {
         profileBidirectionalHeuristicBFSFinder(source, target, false);
         System.out.println("Warming up done!");
         
-//        profileBFSFinder(source, target);
-//        profileBidirectionalBFSFinder(source, target); // These take forever.
+        // These take forever, so they get a time limit.
+        profileBFSFinder(source, target);
+        profileBidirectionalBFSFinder(source, target);
         List<PuzzleGraphNode> path1 = profileNBAFinder(source, target, true);
         List<PuzzleGraphNode> path2 = profileHeuristicBFSFinder(source, target, true);
         List<PuzzleGraphNode> path3 = 
@@ -198,11 +207,10 @@ public class App {
             final PuzzleGraphNode target) {
         final String s = BFSFinder.class.getSimpleName();
         
-        profile(new BFSFinder(), 
-                source, 
-                target, 
-                s,
-                false);
+        profileWithTimeLimit(new BFSFinder<PuzzleGraphNode>(), 
+                             source, 
+                             target, 
+                             s);
     }
     
     public static void profileBidirectionalBFSFinder(
@@ -210,11 +218,43 @@ public class App {
             final PuzzleGraphNode target) {
         final String s = BidirectionalBFSFinder.class.getSimpleName();
         
-        profile(new BidirectionalBFSFinder(),
-                source, 
-                target, 
-                s,
-                false);
+        profileWithTimeLimit(new BidirectionalBFSFinder<PuzzleGraphNode>(),
+                             source, 
+                             target, 
+                             s);
+    }
+    
+    public static void profileWithTimeLimit(
+            final AbstractPathFinder<PuzzleGraphNode> finder,
+            final PuzzleGraphNode source,
+            final PuzzleGraphNode target,
+            final String title) {
+        title(title);
+        
+        final long ta = System.currentTimeMillis();
+        final SearchLimits limits = 
+                SearchLimits.NONE.withTimeLimit(UNINFORMED_TIME_LIMIT);
+        final SearchResult<PuzzleGraphNode> result = 
+                finder.search(source, target, limits);
+        final long tb = System.currentTimeMillis();
+        
+        if (result.getStatus() != SearchResult.Status.FOUND) {
+            // Stopped by a limit, or no path exists.
+            System.out.println("Time: " + (tb - ta) + " ms. Status: " + 
+                               result.getStatus() + ". Lower bound: " +
+                               result.getLowerBound());
+            printStatistics(result.getStatistics(), 0);
+            return;
+        }
+        
+        System.out.println("Time: " + (tb - ta) + " ms. Path length: " +
+                           result.getPath().size());
+        printStatistics(result.getStatistics(), result.getPath().size() - 1);
+        
+        if (!source.isValidPath(source, target, result.getPath())) {
+            System.out.println("Invalid path!");
+            System.exit(-1);
+        }
     }
     
     public static List<PuzzleGraphNode> profile(
@@ -234,6 +274,7 @@ public class App {
         if (doPrint) {
             System.out.println("Time: " + (tb - ta) + " ms. Path length: " +
                                path.size());
+            printStatistics(finder.getStatistics(), path.size() - 1);
         }
         
         if (!source.isValidPath(source, target, path)) {
@@ -244,6 +285,14 @@ public class App {
         return path;
     }
     
+    private static void printStatistics(final SearchStatistics statistics,
+                                        final int depth) {
+        System.out.println(statistics);
+        System.out.printf("Nodes/s: %.0f, effective branching factor: %.3f\n",
+                          statistics.getNodesPerSecond(),
+                          statistics.getEffectiveBranchingFactor(depth));
+    }
+    
     public static PuzzleGraphNode getSource(int steps,
                                             int degree, 
                                             final Random rnd) {
@@ -26,6 +26,18 @@ implements Iterable<T> {
      */
     public abstract int hashCode();
     
+    /**
+     * Returns a 64-bit hash code of this node. Must be consistent with 
+     * {@link #equals(java.lang.Object)}. Implementations that can afford a 
+     * wider hash should override this; the default widens 
+     * {@link #hashCode()}.
+     * 
+     * @return the 64-bit hash code.
+     */
+    public long longHashCode() {
+        return hashCode();
+    }
+    
     /**
      * Checks whether there is an edge from this node to <code>other</code>.
      * 
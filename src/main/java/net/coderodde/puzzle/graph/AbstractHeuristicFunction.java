@@ -21,6 +21,62 @@ implements Spawnable<AbstractHeuristicFunction<T>>{
      */
     public abstract int estimate(final T source);
     
+    /**
+     * Returns the estimate for <code>node</code>, given that its neighbor 
+     * <code>parent</code> has the estimate <code>parentEstimate</code>. 
+     * Heuristic functions that can derive the estimate of a node from the 
+     * estimate of a neighbor faster than from scratch should override this; 
+     * by default, the estimate is computed from scratch.
+     * 
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the estimate.
+     */
+    public int estimate(final T node, 
+                        final T parent, 
+                        final int parentEstimate) {
+        return estimate(node);
+    }
+
+    /**
+     * Returns the estimate for <code>source</code> if it is below
+     * <code>bound</code>, and otherwise any value at least <code>bound</code>
+     * that does not exceed the estimate. Callers that only need to know
+     * whether the estimate reaches a bound, such as a search pruning nodes
+     * against the length of the best path found so far, pass the bound so
+     * that expensive heuristic functions may stop early. By default, the
+     * estimate is computed exactly.
+     *
+     * @param  source the source node.
+     * @param  bound  the bound.
+     * @return the estimate, or a lower bound for it not below
+     *         <code>bound</code>.
+     */
+    public int estimate(final T source, final int bound) {
+        return estimate(source);
+    }
+
+    /**
+     * The bounded variant of {@link #estimate(Object, Object, int)}. A value
+     * at least <code>bound</code> may be inexact, so it must not be passed
+     * later as the estimate of a parent node; a caller pruning the nodes
+     * reaching the bound never does that.
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @param  bound          the bound.
+     * @return the estimate, or a lower bound for it not below
+     *         <code>bound</code>.
+     */
+    public int estimate(final T node,
+                        final T parent,
+                        final int parentEstimate,
+                        final int bound) {
+        return estimate(node, parent, parentEstimate);
+    }
+
     /**
      * Sets the target node.
      * 
@@ -5,16 +5,40 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.util.Spawnable;
 
 /**
  * This abstract class defines the common API for path finders and implements 
  * some functionality shared by the actual finders.
+ * <p>
+ * A finder is not safe to use by concurrent threads, since it holds its
+ * heuristic function and priority queue. Instead, each thread should search
+ * with its own finder obtained by {@link #spawn()}.
+ * <p>
+ * A search may be run under {@link SearchLimits}. The finders report their
+ * progress through {@link #nodeExpanded()} and {@link #nodeGenerated()},
+ * which stop the search once a limit is reached. A finder searching in
+ * several threads does not count its work; instead, its workers poll
+ * {@link #isLimitReached()}, so it honors the cancellation token, the time
+ * limit and the memory limit, but not the node limits.
  * 
  * @author Rodion Efremov
  * @version 1.6
  * @param <T> the actual node type.
  */
-public abstract class AbstractPathFinder<T extends AbstractGraphNode<T>> {
+public abstract class AbstractPathFinder<T extends AbstractGraphNode<T>> 
+implements Spawnable<AbstractPathFinder<T>> {
+    
+    /**
+     * The monitor of the current search. Outside of the searches run under
+     * limits, it has no limits.
+     */
+    private SearchMonitor monitor = new SearchMonitor(SearchLimits.NONE);
+    
+    /**
+     * The statistics of the last search.
+     */
+    private SearchStatistics statistics = monitor.statistics;
     
     /**
      * The entry point into a shortest path algorithm.
@@ -25,7 +49,198 @@ public abstract class AbstractPathFinder<T extends AbstractGraphNode<T>> {
      *         <code>target</code>, or <code>null</code> if <code>target</code>
      *         is unreachable from <code>source</code>.
      */
-    public abstract List<T> search(final T source, final T target);
+    public final List<T> search(final T source, final T target) {
+        monitor = new SearchMonitor(SearchLimits.NONE);
+        
+        try {
+            return doSearch(source, target);
+        } finally {
+            finishSearch();
+        }
+    }
+    
+    /**
+     * Searches for a path under <code>limits</code>. Once a limit is reached,
+     * the search stops and the result tells which limit it was, along with
+     * the best lower bound established for the length of a shortest path.
+     * 
+     * @param  source the source node.
+     * @param  target the target node.
+     * @param  limits the limits of the search.
+     * @return the result of the search.
+     */
+    public final SearchResult<T> search(final T source, 
+                                        final T target,
+                                        final SearchLimits limits) {
+        // The monitor is reset once the search finishes.
+        final SearchMonitor searchMonitor = new SearchMonitor(limits);
+        monitor = searchMonitor;
+        
+        try {
+            searchMonitor.checkSlowLimits();
+            final List<T> path = doSearch(source, target);
+            finishSearch();
+            return new SearchResult<>(path != null ? 
+                                      SearchResult.Status.FOUND :
+                                      SearchResult.Status.NOT_FOUND,
+                                      path,
+                                      searchMonitor.lowerBound,
+                                      statistics);
+        } catch (final SearchMonitor.LimitReachedException ex) {
+            finishSearch();
+            return new SearchResult<>(ex.status, 
+                                      getBestPathSoFar(), 
+                                      searchMonitor.lowerBound,
+                                      statistics);
+        } catch (final RuntimeException | Error ex) {
+            finishSearch();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Returns the statistics of the last completed search.
+     * 
+     * @return the search statistics.
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Implements the actual search; see {@link #search(AbstractGraphNode, 
+     * AbstractGraphNode)}.
+     * 
+     * @param  source the source node.
+     * @param  target the target node.
+     * @return the list of nodes on a path from <code>source</code> to 
+     *         <code>target</code>, or <code>null</code> if none is found.
+     */
+    protected abstract List<T> doSearch(final T source, final T target);
+    
+    /**
+     * Spawns a finder configured as this one, with its own heuristic function
+     * and priority queue spawned from the ones of this finder, so that the 
+     * two may search concurrently. The precomputed tables of the heuristic
+     * functions are shared, not copied.
+     * 
+     * @return a new finder.
+     */
+    @Override
+    public abstract AbstractPathFinder<T> spawn();
+    
+    /**
+     * Counts a node expansion of the current search, and stops the search if
+     * a limit is reached. The finders should call this once before expanding
+     * each node.
+     */
+    protected final void nodeExpanded() {
+        monitor.nodeExpanded();
+    }
+    
+    /**
+     * Counts a node generated by the current search, and stops the search if
+     * the limit of generated nodes is reached.
+     */
+    protected final void nodeGenerated() {
+        monitor.nodeGenerated();
+    }
+    
+    /**
+     * Counts a node generated again by the current search.
+     */
+    protected final void duplicateGenerated() {
+        ++monitor.statistics.duplicateNodes;
+    }
+    
+    /**
+     * Counts a node moved back from CLOSED to OPEN by the current search.
+     */
+    protected final void nodeReopened() {
+        ++monitor.statistics.reopenedNodes;
+    }
+    
+    /**
+     * Counts an insertion, extraction or priority decrease on an OPEN list 
+     * of the current search.
+     */
+    protected final void queueOperation() {
+        ++monitor.statistics.queueOperations;
+    }
+    
+    /**
+     * Records the current sizes of OPEN and CLOSED, keeping the largest ones
+     * seen by the current search. Bidirectional finders pass the total sizes
+     * of both directions.
+     * 
+     * @param openSize   the amount of nodes in OPEN.
+     * @param closedSize the amount of nodes in CLOSED.
+     */
+    protected final void updatePeakSizes(final int openSize, 
+                                         final int closedSize) {
+        final SearchStatistics s = monitor.statistics;
+        
+        if (s.peakOpenSize < openSize) {
+            s.peakOpenSize = openSize;
+        }
+        
+        if (s.peakClosedSize < closedSize) {
+            s.peakClosedSize = closedSize;
+        }
+    }
+    
+    /**
+     * Records that no path from the source to the target is shorter than
+     * <code>bound</code> edges. Lower values than the ones recorded earlier
+     * are ignored.
+     * 
+     * @param bound the lower bound.
+     */
+    protected final void updateLowerBound(final int bound) {
+        monitor.updateLowerBound(bound);
+    }
+    
+    /**
+     * Checks the cancellation token, the time limit and the memory limit of
+     * the current search without stopping it. Once a limit is found reached,
+     * this keeps returning <code>true</code>. Safe to call from any thread, so
+     * the workers of a finder searching in several threads poll this and give
+     * up once it returns <code>true</code>; the finder then calls
+     * {@link #checkLimits()} from the thread running the search.
+     * 
+     * @return <code>true</code> if a limit is reached.
+     */
+    protected final boolean isLimitReached() {
+        return monitor.pollSlowLimits();
+    }
+    
+    /**
+     * Stops the current search if {@link #isLimitReached()} found a limit
+     * reached. Must be called from the thread running the search.
+     */
+    protected final void checkLimits() {
+        monitor.checkPolledLimits();
+    }
+    
+    /**
+     * Returns the best path found by the current search so far. Called when
+     * the search is stopped by a limit; finders producing intermediate paths
+     * should override this.
+     * 
+     * @return the best path, or <code>null</code> if none.
+     */
+    protected List<T> getBestPathSoFar() {
+        return null;
+    }
+    
+    /**
+     * Stops the clock of the current search and publishes its statistics.
+     */
+    private void finishSearch() {
+        monitor.stop();
+        statistics = monitor.statistics;
+        monitor = new SearchMonitor(SearchLimits.NONE);
+    }
     
     /**
      * Constructs a path using a representative node one or two parent maps.
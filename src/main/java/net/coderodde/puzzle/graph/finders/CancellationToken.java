@@ -0,0 +1,31 @@
+package net.coderodde.puzzle.graph.finders;
+
+/**
+ * This class implements a flag through which a search may be asked to stop
+ * from another thread. A search polls the flag while expanding nodes, so it
+ * stops shortly after, not immediately. A token may be shared by any amount
+ * of searches; once cancelled, it stays cancelled.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Asks every search polling this token to stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether this token is cancelled.
+     *
+     * @return <code>true</code> if {@link #cancel()} has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
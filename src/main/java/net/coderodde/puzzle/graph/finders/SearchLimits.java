@@ -0,0 +1,164 @@
+package net.coderodde.puzzle.graph.finders;
+
+/**
+ * This class holds the limits of a single search: the maximum amount of
+ * expanded and generated nodes, the maximum running time, the maximum amount
+ * of heap memory in use, and a {@link CancellationToken}. An instance is
+ * immutable; each <code>with</code> method returns a copy with one limit
+ * changed, starting from {@link #NONE}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class SearchLimits {
+
+    /**
+     * No limits at all.
+     */
+    public static final SearchLimits NONE =
+            new SearchLimits(Long.MAX_VALUE,
+                             Long.MAX_VALUE,
+                             Long.MAX_VALUE,
+                             Long.MAX_VALUE,
+                             null);
+
+    private final long maximumExpandedNodes;
+    private final long maximumGeneratedNodes;
+    private final long timeLimit;
+    private final long maximumMemory;
+    private final CancellationToken cancellationToken;
+
+    private SearchLimits(final long maximumExpandedNodes,
+                         final long maximumGeneratedNodes,
+                         final long timeLimit,
+                         final long maximumMemory,
+                         final CancellationToken cancellationToken) {
+        this.maximumExpandedNodes = maximumExpandedNodes;
+        this.maximumGeneratedNodes = maximumGeneratedNodes;
+        this.timeLimit = timeLimit;
+        this.maximumMemory = maximumMemory;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Returns a copy of these limits allowing at most
+     * <code>maximumExpandedNodes</code> node expansions.
+     *
+     * @param  maximumExpandedNodes the maximum amount of expansions.
+     * @return the new limits.
+     * @throws java.lang.IllegalArgumentException if the amount is negative.
+     */
+    public SearchLimits withMaximumExpandedNodes(
+            final long maximumExpandedNodes) {
+        checkNotNegative(maximumExpandedNodes, "amount of expanded nodes");
+        return new SearchLimits(maximumExpandedNodes,
+                                maximumGeneratedNodes,
+                                timeLimit,
+                                maximumMemory,
+                                cancellationToken);
+    }
+
+    /**
+     * Returns a copy of these limits allowing at most
+     * <code>maximumGeneratedNodes</code> nodes to be generated.
+     *
+     * @param  maximumGeneratedNodes the maximum amount of generated nodes.
+     * @return the new limits.
+     * @throws java.lang.IllegalArgumentException if the amount is negative.
+     */
+    public SearchLimits withMaximumGeneratedNodes(
+            final long maximumGeneratedNodes) {
+        checkNotNegative(maximumGeneratedNodes, "amount of generated nodes");
+        return new SearchLimits(maximumExpandedNodes,
+                                maximumGeneratedNodes,
+                                timeLimit,
+                                maximumMemory,
+                                cancellationToken);
+    }
+
+    /**
+     * Returns a copy of these limits allowing the search to run at most
+     * <code>milliseconds</code> milliseconds of wall-clock time.
+     *
+     * @param  milliseconds the time limit.
+     * @return the new limits.
+     * @throws java.lang.IllegalArgumentException if the time is negative.
+     */
+    public SearchLimits withTimeLimit(final long milliseconds) {
+        checkNotNegative(milliseconds, "time");
+        return new SearchLimits(maximumExpandedNodes,
+                                maximumGeneratedNodes,
+                                milliseconds,
+                                maximumMemory,
+                                cancellationToken);
+    }
+
+    /**
+     * Returns a copy of these limits stopping the search once the heap
+     * memory in use exceeds <code>bytes</code>. The memory is that of the
+     * whole virtual machine, not only of the search.
+     *
+     * @param  bytes the maximum amount of memory in use.
+     * @return the new limits.
+     * @throws java.lang.IllegalArgumentException if the amount is negative.
+     */
+    public SearchLimits withMaximumMemory(final long bytes) {
+        checkNotNegative(bytes, "amount of memory");
+        return new SearchLimits(maximumExpandedNodes,
+                                maximumGeneratedNodes,
+                                timeLimit,
+                                bytes,
+                                cancellationToken);
+    }
+
+    /**
+     * Returns a copy of these limits stopping the search once
+     * <code>cancellationToken</code> is cancelled.
+     *
+     * @param  cancellationToken the token, or <code>null</code> for none.
+     * @return the new limits.
+     */
+    public SearchLimits withCancellationToken(
+            final CancellationToken cancellationToken) {
+        return new SearchLimits(maximumExpandedNodes,
+                                maximumGeneratedNodes,
+                                timeLimit,
+                                maximumMemory,
+                                cancellationToken);
+    }
+
+    public long getMaximumExpandedNodes() {
+        return maximumExpandedNodes;
+    }
+
+    public long getMaximumGeneratedNodes() {
+        return maximumGeneratedNodes;
+    }
+
+    /**
+     * Returns the time limit in milliseconds, or {@link Long#MAX_VALUE} for
+     * none.
+     *
+     * @return the time limit.
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public long getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    private static void checkNotNegative(final long value,
+                                         final String what) {
+        if (value < 0L) {
+            throw new IllegalArgumentException(
+                    "The " + what + " must not be negative, is " + value +
+                    ".");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package net.coderodde.puzzle.graph.finders;
+
+/**
+ * This class counts the work of a single search and stops the search by
+ * throwing a {@link LimitReachedException} once a limit is reached. The
+ * counters are checked on every call, while the clock, the memory and the
+ * cancellation token, which are slower to read, only on every
+ * {@link #CHECK_INTERVAL}th expansion.
+ * <p>
+ * The worker threads of a finder searching in several threads do not count
+ * their work, but poll the slow limits through {@link #pollSlowLimits()},
+ * which may be called from any thread.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+final class SearchMonitor {
+
+    /**
+     * The amount of expansions between two checks of the slow limits. Must
+     * be a power of two.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    /**
+     * Unwinds a search that reached a limit. It carries no stack trace,
+     * since it never escapes the finder.
+     */
+    static final class LimitReachedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        final SearchResult.Status status;
+
+        LimitReachedException(final SearchResult.Status status) {
+            super(status.toString(), null, false, false);
+            this.status = status;
+        }
+    }
+
+    private final SearchLimits limits;
+
+    /**
+     * Whether the time is limited. A limit too large to represent in
+     * nanoseconds counts as none.
+     */
+    private final boolean timed;
+
+    /**
+     * The value of {@link System#nanoTime()} at which the time runs out.
+     * Meaningful only if <code>timed</code> is set.
+     */
+    private final long deadline;
+
+    final SearchStatistics statistics = new SearchStatistics();
+    int lowerBound;
+
+    /**
+     * The value of {@link System#nanoTime()} at the start of the search.
+     */
+    private final long start;
+
+    /**
+     * The slow limit found reached by {@link #pollSlowLimits()}, if any.
+     */
+    private volatile SearchResult.Status reachedLimit;
+
+    SearchMonitor(final SearchLimits limits) {
+        this.limits = limits;
+        this.start = System.nanoTime();
+        this.timed = limits.getTimeLimit() < Long.MAX_VALUE / 2000000L;
+        this.deadline =
+                timed ? start + limits.getTimeLimit() * 1000000L :
+                        0L;
+    }
+
+    void nodeExpanded() {
+        if (statistics.expandedNodes == limits.getMaximumExpandedNodes()) {
+            throw new LimitReachedException(
+                    SearchResult.Status.EXPANDED_NODES_LIMIT);
+        }
+
+        if ((++statistics.expandedNodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkSlowLimits();
+        }
+    }
+
+    void nodeGenerated() {
+        if (statistics.generatedNodes == limits.getMaximumGeneratedNodes()) {
+            throw new LimitReachedException(
+                    SearchResult.Status.GENERATED_NODES_LIMIT);
+        }
+
+        ++statistics.generatedNodes;
+    }
+
+    /**
+     * Records the time elapsed since the start of the search.
+     */
+    void stop() {
+        statistics.elapsedNanos = System.nanoTime() - start;
+    }
+
+    void updateLowerBound(final int bound) {
+        if (lowerBound < bound) {
+            lowerBound = bound;
+        }
+    }
+
+    /**
+     * Checks the limits that are slow to read.
+     */
+    void checkSlowLimits() {
+        final SearchResult.Status status = getReachedSlowLimit();
+
+        if (status != null) {
+            throw new LimitReachedException(status);
+        }
+    }
+
+    /**
+     * Checks the limits that are slow to read without stopping the search.
+     * Once a limit is found reached, this keeps returning <code>true</code>.
+     * Safe to call from any thread.
+     *
+     * @return <code>true</code> if a limit is reached.
+     */
+    boolean pollSlowLimits() {
+        if (reachedLimit == null) {
+            reachedLimit = getReachedSlowLimit();
+        }
+
+        return reachedLimit != null;
+    }
+
+    /**
+     * Stops the search if {@link #pollSlowLimits()} found a limit reached.
+     */
+    void checkPolledLimits() {
+        final SearchResult.Status status = reachedLimit;
+
+        if (status != null) {
+            throw new LimitReachedException(status);
+        }
+    }
+
+    private SearchResult.Status getReachedSlowLimit() {
+        final CancellationToken token = limits.getCancellationToken();
+
+        if (token != null && token.isCancelled()) {
+            return SearchResult.Status.CANCELLED;
+        }
+
+        if (timed && System.nanoTime() - deadline >= 0L) {
+            return SearchResult.Status.TIME_LIMIT;
+        }
+
+        if (limits.getMaximumMemory() != Long.MAX_VALUE) {
+            final Runtime runtime = Runtime.getRuntime();
+
+            if (runtime.totalMemory() - runtime.freeMemory()
+                    > limits.getMaximumMemory()) {
+                return SearchResult.Status.MEMORY_LIMIT;
+            }
+        }
+
+        return null;
+    }
+}
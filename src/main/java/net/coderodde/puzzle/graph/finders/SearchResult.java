@@ -0,0 +1,114 @@
+package net.coderodde.puzzle.graph.finders;
+
+import java.util.List;
+
+/**
+ * This class holds the outcome of a search run under {@link SearchLimits}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public final class SearchResult<T> {
+
+    /**
+     * The ways a search may end.
+     */
+    public enum Status {
+
+        /**
+         * A path was found.
+         */
+        FOUND,
+
+        /**
+         * The search completed without finding a path.
+         */
+        NOT_FOUND,
+
+        /**
+         * The maximum amount of expanded nodes was reached.
+         */
+        EXPANDED_NODES_LIMIT,
+
+        /**
+         * The maximum amount of generated nodes was reached.
+         */
+        GENERATED_NODES_LIMIT,
+
+        /**
+         * The time limit was reached.
+         */
+        TIME_LIMIT,
+
+        /**
+         * The maximum amount of memory in use was exceeded.
+         */
+        MEMORY_LIMIT,
+
+        /**
+         * The cancellation token was cancelled.
+         */
+        CANCELLED;
+
+        /**
+         * Checks whether this status means that the search was stopped
+         * before completing.
+         *
+         * @return <code>true</code> if the search was stopped.
+         */
+        public boolean isLimitReached() {
+            return this != FOUND && this != NOT_FOUND;
+        }
+    }
+
+    private final Status status;
+    private final List<T> path;
+    private final int lowerBound;
+    private final SearchStatistics statistics;
+
+    public SearchResult(final Status status,
+                        final List<T> path,
+                        final int lowerBound,
+                        final SearchStatistics statistics) {
+        this.status = status;
+        this.path = path;
+        this.lowerBound = lowerBound;
+        this.statistics = statistics;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the path found. If the search was stopped, this is the best
+     * path found so far by the finders producing intermediate paths, and
+     * <code>null</code> for the others.
+     *
+     * @return the path, or <code>null</code>.
+     */
+    public List<T> getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the best lower bound established by the search for the length
+     * of a shortest path, in edges. The bound is zero if the finder
+     * established none, and relies on the heuristic function being
+     * admissible.
+     *
+     * @return the lower bound.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    public boolean isLimitReached() {
+        return status.isLimitReached();
+    }
+}
@@ -0,0 +1,148 @@
+package net.coderodde.puzzle.graph.finders;
+
+/**
+ * This class holds the statistics of a single search. The counters are
+ * plain fields, written only by the thread running the search; a finder
+ * searching in several threads reports no counters, only the time.
+ * <p>
+ * A node is <em>generated</em> the first time the search reaches it, and a
+ * <em>duplicate</em> each later time; a node is <em>reopened</em> when it
+ * returns from CLOSED to OPEN. The queue operations are the insertions,
+ * extractions and priority decreases on the OPEN lists.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class SearchStatistics {
+
+    long expandedNodes;
+    long generatedNodes;
+    long duplicateNodes;
+    long reopenedNodes;
+    long queueOperations;
+    int peakOpenSize;
+    int peakClosedSize;
+    long elapsedNanos;
+
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    public long getGeneratedNodes() {
+        return generatedNodes;
+    }
+
+    public long getDuplicateNodes() {
+        return duplicateNodes;
+    }
+
+    public long getReopenedNodes() {
+        return reopenedNodes;
+    }
+
+    public long getQueueOperations() {
+        return queueOperations;
+    }
+
+    /**
+     * Returns the largest amount of nodes in the OPEN lists at the same
+     * time.
+     *
+     * @return the peak OPEN size.
+     */
+    public int getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    /**
+     * Returns the largest amount of nodes in the CLOSED sets at the same
+     * time.
+     *
+     * @return the peak CLOSED size.
+     */
+    public int getPeakClosedSize() {
+        return peakClosedSize;
+    }
+
+    /**
+     * Returns the wall-clock time of the search in nanoseconds.
+     *
+     * @return the elapsed time.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the amount of nodes expanded per second.
+     *
+     * @return the expansion rate, or zero if no time elapsed.
+     */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0L ?
+               0.0 :
+               expandedNodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the effective branching factor: the branching factor
+     * <tt>b</tt> of a uniform tree of depth <code>depth</code> having as
+     * many nodes as the search generated, that is, the solution of
+     * <tt>N + 1 = 1 + b + b^2 + ... + b^depth</tt>, where <tt>N</tt> is the
+     * amount of generated nodes.
+     *
+     * @param  depth the length of the path found, in edges.
+     * @return the effective branching factor, or zero if
+     *         <code>depth</code> is not positive.
+     */
+    public double getEffectiveBranchingFactor(final int depth) {
+        if (depth < 1) {
+            return 0.0;
+        }
+
+        // The node count of the tree grows with b, so bisect over
+        // [0, max(1, N)], where the count at the upper end is at least N.
+        final double nodes = generatedNodes;
+        double low = 0.0;
+        double high = Math.max(1.0, nodes);
+
+        for (int i = 0; i != 100; ++i) {
+            final double b = (low + high) / 2.0;
+
+            if (treeSize(b, depth) < nodes) {
+                low = b;
+            } else {
+                high = b;
+            }
+        }
+
+        return (low + high) / 2.0;
+    }
+
+    @Override
+    public String toString() {
+        return "expanded: " + expandedNodes +
+               ", generated: " + generatedNodes +
+               ", duplicates: " + duplicateNodes +
+               ", reopened: " + reopenedNodes +
+               ", queue operations: " + queueOperations +
+               ", peak OPEN: " + peakOpenSize +
+               ", peak CLOSED: " + peakClosedSize +
+               ", time: " + (elapsedNanos / 1000000L) + " ms";
+    }
+
+    /**
+     * Returns <tt>b + b^2 + ... + b^depth</tt>.
+     */
+    private static double treeSize(final double b, final int depth) {
+        double sum = 0.0;
+        double power = 1.0;
+
+        for (int i = 0; i < depth; ++i) {
+            power *= b;
+            sum += power;
+        }
+
+        return sum;
+    }
+}
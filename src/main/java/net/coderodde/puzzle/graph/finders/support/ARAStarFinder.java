@@ -0,0 +1,362 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.ObjectIntHashMap;
+
+/**
+ * This class implements ARA*, the anytime repairing A*. The search runs a
+ * series of weighted A* iterations, ordering the nodes by
+ * <tt>g + w * h</tt> for a decreasing weight <tt>w</tt>, down to one. Each
+ * solution found is at most <tt>w</tt> times longer than a shortest path, and
+ * the last one is a shortest path.
+ * <p>
+ * Instead of restarting, each iteration reuses the distances of the previous
+ * ones. A closed node reached by a shorter path is not reopened within an
+ * iteration, but is put into the INCONS list; at the start of the next
+ * iteration, the INCONS nodes are moved back into OPEN and OPEN is
+ * reordered under the new weight.
+ * <p>
+ * The best path found so far and its suboptimality bound may be read at any
+ * time by another thread, which may also stop the search; the search then
+ * returns the best path found so far.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class ARAStarFinder<T extends AbstractGraphNode<T>>
+extends AbstractPathFinder<T> {
+
+    /**
+     * The weights are handled as integer multiples of <tt>1 / SCALE</tt>, and
+     * the priorities as <tt>SCALE * g + SCALE * w * h</tt>.
+     */
+    private static final int SCALE = 100;
+
+    /**
+     * The distance and estimate lookups return this for the nodes not
+     * reached yet, and the CLOSED lookups for the nodes not closed.
+     */
+    private static final int UNREACHED = -1;
+
+    private static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+    private static final double DEFAULT_WEIGHT_DECREMENT = 0.5;
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+    private final IntegerPriorityQueue<?, T> queue;
+    private final int initialWeight;
+    private final int weightDecrement;
+
+    private volatile List<T> bestPath;
+    private volatile double suboptimalityBound = Double.POSITIVE_INFINITY;
+    private volatile boolean stopped;
+
+    /**
+     * Constructs an ARA* finder.
+     *
+     * @param heuristicFunction the heuristic function.
+     * @param queue             the priority queue to spawn OPEN from.
+     * @param initialWeight     the weight of the first iteration.
+     * @param weightDecrement   the amount the weight is decreased by after
+     *                          each iteration.
+     * @throws java.lang.IllegalArgumentException if the initial weight is
+     *                                            less than one, or the
+     *                                            decrement is not positive.
+     */
+    public ARAStarFinder(final AbstractHeuristicFunction<T> heuristicFunction,
+                         final IntegerPriorityQueue<?, T> queue,
+                         final double initialWeight,
+                         final double weightDecrement) {
+        if (!(initialWeight >= 1.0)) {
+            throw new IllegalArgumentException(
+                    "The initial weight must be at least 1, is " +
+                    initialWeight + ".");
+        }
+
+        if (!(weightDecrement * SCALE >= 1.0)) {
+            throw new IllegalArgumentException(
+                    "The weight decrement must be at least " +
+                    (1.0 / SCALE) + ", is " + weightDecrement + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.queue = queue;
+        this.initialWeight = (int) Math.round(initialWeight * SCALE);
+        this.weightDecrement = (int) Math.round(weightDecrement * SCALE);
+    }
+
+    public ARAStarFinder(
+            final AbstractHeuristicFunction<T> heuristicFunction) {
+        this(heuristicFunction,
+             new DaryHeap<T>(),
+             DEFAULT_INITIAL_WEIGHT,
+             DEFAULT_WEIGHT_DECREMENT);
+    }
+
+    /**
+     * Returns the best path found so far by the current or the last search.
+     *
+     * @return the best path, or <code>null</code> if none found yet.
+     */
+    public List<T> getBestPath() {
+        return bestPath;
+    }
+
+    /**
+     * Returns the factor by which the best path found so far may be longer
+     * than a shortest path.
+     *
+     * @return the suboptimality bound, or
+     *         {@link Double#POSITIVE_INFINITY} if no path is found yet.
+     */
+    public double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    /**
+     * Asks the current search to return the best path found so far.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public ARAStarFinder<T> spawn() {
+        return new ARAStarFinder<>(heuristicFunction.spawn(),
+                                   queue.spawn(),
+                                   (double) initialWeight / SCALE,
+                                   (double) weightDecrement / SCALE);
+    }
+
+    @Override
+    protected List<T> getBestPathSoFar() {
+        return bestPath;
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        bestPath = null;
+        suboptimalityBound = Double.POSITIVE_INFINITY;
+        stopped = false;
+        heuristicFunction.setTarget(target);
+
+        final Search search = new Search(target);
+        final int sourceEstimate = heuristicFunction.estimate(source);
+        search.DISTANCE.put(source, 0);
+        search.ESTIMATES.put(source, sourceEstimate);
+        search.PARENTS.put(source, null);
+        search.OPEN.insert(source, sourceEstimate * initialWeight);
+
+        int weight = initialWeight;
+        search.improvePath(weight);
+
+        while (weight > SCALE && bestPath != null && !stopped) {
+            weight = Math.max(SCALE, weight - weightDecrement);
+            search.reorder(weight);
+            search.improvePath(weight);
+        }
+
+        return bestPath;
+    }
+
+    /**
+     * The state of a single search.
+     */
+    private final class Search {
+
+        final T target;
+        IntegerPriorityQueue<?, T> OPEN = queue.spawn();
+        /**
+         * Maps each closed node to the iteration that closed it, and each
+         * reopened one to {@link #UNREACHED}. A node closed by an earlier
+         * iteration is in neither OPEN nor INCONS.
+         */
+        final ObjectIntHashMap<T> CLOSED = new ObjectIntHashMap<>();
+
+        final Set<T> INCONS = new HashSet<>();
+        final Map<T, T> PARENTS = new HashMap<>();
+        final ObjectIntHashMap<T> DISTANCE = new ObjectIntHashMap<>();
+        final ObjectIntHashMap<T> ESTIMATES = new ObjectIntHashMap<>();
+
+        /**
+         * The amount of nodes in CLOSED.
+         */
+        int closedSize;
+
+        int iteration;
+
+        /**
+         * The length of the best path, in edges.
+         */
+        int bestPathLength = Integer.MAX_VALUE;
+
+        Search(final T target) {
+            this.target = target;
+        }
+
+        /**
+         * Runs weighted A* under <code>weight</code> until no node in OPEN
+         * may improve the path to the target.
+         */
+        void improvePath(final int weight) {
+            while (!OPEN.isEmpty() && !stopped) {
+                final int targetDistance = DISTANCE.get(target, UNREACHED);
+
+                if (targetDistance != UNREACHED
+                        && OPEN.minPriority() >= SCALE * targetDistance) {
+                    break;
+                }
+
+                final T current = OPEN.extractMinimum();
+                nodeExpanded();
+                queueOperation();
+                close(current);
+                updatePeakSizes(OPEN.size(), closedSize);
+
+                final int g = DISTANCE.get(current, UNREACHED) + 1;
+                final int currentEstimate =
+                        ESTIMATES.get(current, UNREACHED);
+
+                for (final T child : current) {
+                    final int childDistance = DISTANCE.get(child, UNREACHED);
+
+                    if (childDistance != UNREACHED && childDistance <= g) {
+                        duplicateGenerated();
+                        continue;
+                    }
+
+                    DISTANCE.put(child, g);
+                    PARENTS.put(child, current);
+                    int childEstimate = ESTIMATES.get(child, UNREACHED);
+
+                    if (childEstimate == UNREACHED) {
+                        childEstimate =
+                                heuristicFunction.estimate(child,
+                                                           current,
+                                                           currentEstimate);
+                        ESTIMATES.put(child, childEstimate);
+                    }
+
+                    final int priority = SCALE * g + weight * childEstimate;
+
+                    final int closedIn = CLOSED.get(child, UNREACHED);
+
+                    if (closedIn == iteration) {
+                        INCONS.add(child);
+                    } else if (closedIn != UNREACHED) {
+                        // Closed by an earlier iteration.
+                        nodeReopened();
+                        reopen(child);
+                        OPEN.insert(child, priority);
+                        queueOperation();
+                    } else if (childDistance == UNREACHED) {
+                        nodeGenerated();
+                        OPEN.insert(child, priority);
+                        queueOperation();
+                    } else {
+                        OPEN.decreasePriority(child, priority);
+                        queueOperation();
+                    }
+                }
+            }
+
+            final int targetDistance = DISTANCE.get(target, UNREACHED);
+
+            if (targetDistance == UNREACHED) {
+                return;
+            }
+
+            if (targetDistance < bestPathLength) {
+                bestPathLength = targetDistance;
+                bestPath = tracebackPath(target, PARENTS);
+            }
+
+            // The weight bounds the path only once the iteration completes;
+            // a path found by a stopped iteration is still no longer than
+            // the previous one.
+            if (!stopped) {
+                suboptimalityBound = Math.min(suboptimalityBound,
+                                              (double) weight / SCALE);
+            }
+        }
+
+        /**
+         * Moves the INCONS nodes into OPEN, reorders OPEN under
+         * <code>weight</code> and starts a new iteration. The least <tt>g + h</tt>
+         * over OPEN bounds the length of a shortest path from below, which
+         * may tighten the suboptimality bound of the best path.
+         */
+        void reorder(final int weight) {
+            final List<T> nodes = new ArrayList<>(OPEN.size() + INCONS.size());
+
+            while (!OPEN.isEmpty()) {
+                nodes.add(OPEN.extractMinimum());
+            }
+
+            for (final T node : INCONS) {
+                nodeReopened();
+                reopen(node);
+                nodes.add(node);
+            }
+
+            INCONS.clear();
+            ++iteration;
+            OPEN = queue.spawn();
+            int minimumF = Integer.MAX_VALUE;
+
+            for (final T node : nodes) {
+                final int g = DISTANCE.get(node, UNREACHED);
+                final int h = ESTIMATES.get(node, UNREACHED);
+                minimumF = Math.min(minimumF, g + h);
+                OPEN.insert(node, SCALE * g + weight * h);
+            }
+
+            final int targetDistance = DISTANCE.get(target, UNREACHED);
+
+            if (minimumF < Integer.MAX_VALUE) {
+                updateLowerBound(Math.min(minimumF, targetDistance));
+            } else {
+                updateLowerBound(targetDistance);
+            }
+
+            if (minimumF > 0 && minimumF < Integer.MAX_VALUE) {
+                suboptimalityBound =
+                        Math.min(suboptimalityBound,
+                                 Math.max(1.0,
+                                          (double) targetDistance / minimumF));
+            } else if (minimumF == Integer.MAX_VALUE) {
+                // Nothing left that may lead to a shorter path.
+                suboptimalityBound = 1.0;
+            }
+        }
+
+        /**
+         * Closes <code>node</code> in the current iteration.
+         */
+        void close(final T node) {
+            if (CLOSED.get(node, UNREACHED) == UNREACHED) {
+                ++closedSize;
+            }
+
+            CLOSED.put(node, iteration);
+        }
+
+        /**
+         * Removes the closed <code>node</code> from CLOSED.
+         */
+        void reopen(final T node) {
+            --closedSize;
+            CLOSED.put(node, UNREACHED);
+        }
+    }
+}
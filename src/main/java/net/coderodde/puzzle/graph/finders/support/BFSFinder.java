@@ -1,9 +1,7 @@
 package net.coderodde.puzzle.graph.finders.support;
 
 import java.util.ArrayDeque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
@@ -19,24 +17,58 @@ public class BFSFinder<T extends AbstractGraphNode<T>>
 extends AbstractPathFinder<T> {
 
     @Override
-    public List<T> search(final T source, final T target) {
-        final Queue<T> queue = new ArrayDeque<>();
-        final Map<T, T> parentMap = new HashMap<>();
+    public BFSFinder<T> spawn() {
+        return new BFSFinder<>();
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        final Queue<SearchNode<T>> queue = new ArrayDeque<>();
+        final SearchNodeTable<T> table = new SearchNodeTable<>();
+        
+        final SearchNode<T> sourceRecord = table.get(source);
+        sourceRecord.distanceA = 0;
+        queue.add(sourceRecord);
         
-        queue.add(source);
-        parentMap.put(source, null);
+        // The queue holds the rest of the layer at 'depth' followed by the
+        // part of the next layer generated so far.
+        int depth = 0;
+        int layerRemaining = 1;
+        int nextLayerSize = 0;
         
         while (!queue.isEmpty()) {
-            final T current = queue.poll();
+            final SearchNode<T> current = queue.poll();
             
-            if (current.equals(target)) {
-                return tracebackPath(current, parentMap);
+            if (layerRemaining == 0) {
+                // All the nodes closer to the source are checked.
+                updateLowerBound(++depth);
+                layerRemaining = nextLayerSize;
+                nextLayerSize = 0;
             }
             
-            for (final T child : current) {
-                if (!parentMap.containsKey(child)) {
-                    parentMap.put(child, current);
-                    queue.add(child);
+            --layerRemaining;
+            
+            if (current.node.equals(target)) {
+                return SearchNode.tracebackPath(current);
+            }
+            
+            nodeExpanded();
+            queueOperation();
+            // The reached nodes not in the queue are closed.
+            updatePeakSizes(queue.size(), table.size() - queue.size());
+            
+            for (final T child : current.node) {
+                final SearchNode<T> record = table.get(child);
+                
+                if (record.distanceA == SearchNode.UNREACHED) {
+                    nodeGenerated();
+                    record.distanceA = current.distanceA + 1;
+                    record.parentA = current;
+                    queue.add(record);
+                    queueOperation();
+                    ++nextLayerSize;
+                } else {
+                    duplicateGenerated();
                 }
             }
         }
@@ -0,0 +1,315 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.finders.CancellationToken;
+import net.coderodde.puzzle.graph.finders.SearchLimits;
+import net.coderodde.puzzle.graph.finders.SearchResult;
+
+/**
+ * This class solves batches of independent instances concurrently. The
+ * instances are handed out to a fixed amount of workers running on an
+ * executor; each worker searches with its own finder spawned from the given
+ * one (see {@link AbstractPathFinder#spawn()}), so the precomputed tables of
+ * the heuristic functions are shared while the rest of the search state is
+ * not.
+ * <p>
+ * The instances are pulled from the input one at a time, so the input may be
+ * produced lazily. The paths are either returned in the input order, or
+ * reported to a {@link Listener} as they are found.
+ * <p>
+ * The workers search under a cancellation token of the batch. Once a worker
+ * fails, the token is cancelled, so the searches still running on the other
+ * workers stop as well; the finders do not respond to interrupts.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class BatchSolver<T extends AbstractGraphNode<T>> {
+
+    /**
+     * A single instance: a source node and a target node.
+     *
+     * @param <T> the node type.
+     */
+    public static final class Instance<T> {
+
+        private final T source;
+        private final T target;
+
+        public Instance(final T source, final T target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public T getSource() {
+            return source;
+        }
+
+        public T getTarget() {
+            return target;
+        }
+    }
+
+    /**
+     * Receives the paths as they are found. The methods are called by the
+     * worker threads, so implementations must be thread-safe.
+     *
+     * @param <T> the node type.
+     */
+    public interface Listener<T> {
+
+        /**
+         * Called once an instance is solved.
+         *
+         * @param index    the index of the instance in the input.
+         * @param instance the instance.
+         * @param path     the path found, or <code>null</code> if the finder
+         *                 found none.
+         */
+        public void solved(final int index,
+                           final Instance<T> instance,
+                           final List<T> path);
+    }
+
+    private final AbstractPathFinder<T> finder;
+    private final ExecutorService executor;
+    private final int workers;
+
+    /**
+     * Constructs a solver.
+     *
+     * @param finder   the finder to spawn the finders of the workers from.
+     *                 It is never used for searching itself.
+     * @param executor the executor to run the workers on.
+     * @param workers  the amount of workers.
+     * @throws java.lang.IllegalArgumentException if <code>workers</code> is
+     *                                            not positive.
+     */
+    public BatchSolver(final AbstractPathFinder<T> finder,
+                       final ExecutorService executor,
+                       final int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of workers must be positive, is " + workers +
+                    ".");
+        }
+
+        this.finder = finder;
+        this.executor = executor;
+        this.workers = workers;
+    }
+
+    /**
+     * Constructs a solver running a worker per available processor.
+     *
+     * @param finder   the finder to spawn the finders of the workers from.
+     * @param executor the executor to run the workers on.
+     */
+    public BatchSolver(final AbstractPathFinder<T> finder,
+                       final ExecutorService executor) {
+        this(finder, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Solves all the instances in <code>instances</code>.
+     *
+     * @param  instances the instances.
+     * @return the paths in the order of the instances; an entry is
+     *         <code>null</code> if the finder found no path.
+     */
+    public List<List<T>> solve(
+            final Iterable<? extends Instance<T>> instances) {
+        // The input is read once, so it may be a single-pass one. A slot for
+        // the path is added as each instance is handed out.
+        final List<List<T>> paths =
+                new ArrayList<>(instances instanceof Collection ?
+                                ((Collection<?>) instances).size() :
+                                16);
+
+        run(new Batch(instances.iterator(), null, paths));
+        return paths;
+    }
+
+    /**
+     * Solves all the instances produced by <code>instances</code>, reporting
+     * each path to <code>listener</code> as soon as it is found. Returns once
+     * all the instances are solved.
+     *
+     * @param instances the instances.
+     * @param listener  the listener.
+     * @throws java.lang.IllegalStateException if interrupted while waiting
+     *                                         for the workers.
+     */
+    public void solve(final Iterator<? extends Instance<T>> instances,
+                      final Listener<T> listener) {
+        run(new Batch(instances, listener, null));
+    }
+
+    private void run(final Batch batch) {
+        final List<Future<Void>> futures = new ArrayList<>(workers);
+
+        for (int i = 0; i < workers; ++i) {
+            futures.add(executor.submit(new Worker(batch, finder.spawn())));
+        }
+
+        try {
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            batch.token.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while solving a batch.", ex);
+        } catch (final ExecutionException ex) {
+            batch.token.cancel();
+            final Throwable cause = ex.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        } finally {
+            // Only the workers not started yet are stopped this way; the
+            // running ones stop on the cancelled token.
+            for (final Future<Void> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * The state shared by the workers of a single batch.
+     */
+    private final class Batch {
+
+        final Iterator<? extends Instance<T>> instances;
+
+        /**
+         * The listener to report the paths to, or <code>null</code>.
+         */
+        final Listener<T> listener;
+
+        /**
+         * The paths by the indices of their instances, or <code>null</code>.
+         * Guarded by this batch.
+         */
+        final List<List<T>> paths;
+
+        /**
+         * Cancelled once a worker fails, so that the others stop searching
+         * and taking instances.
+         */
+        final CancellationToken token = new CancellationToken();
+
+        final SearchLimits limits =
+                SearchLimits.NONE.withCancellationToken(token);
+
+        int nextIndex;
+
+        Batch(final Iterator<? extends Instance<T>> instances,
+              final Listener<T> listener,
+              final List<List<T>> paths) {
+            this.instances = instances;
+            this.listener = listener;
+            this.paths = paths;
+        }
+
+        /**
+         * Returns the next instance with its index, or <code>null</code> if
+         * there are no more.
+         */
+        synchronized Indexed<T> next() {
+            if (token.isCancelled() || !instances.hasNext()) {
+                return null;
+            }
+
+            if (paths != null) {
+                paths.add(null);
+            }
+
+            return new Indexed<T>(nextIndex++, instances.next());
+        }
+
+        void solved(final Indexed<T> solved, final List<T> path) {
+            if (paths != null) {
+                synchronized (this) {
+                    paths.set(solved.index, path);
+                }
+            }
+
+            if (listener != null) {
+                listener.solved(solved.index, solved.instance, path);
+            }
+        }
+    }
+
+    /**
+     * An instance with its index in the input.
+     */
+    private static final class Indexed<T> {
+
+        final int index;
+        final Instance<T> instance;
+
+        Indexed(final int index, final Instance<T> instance) {
+            this.index = index;
+            this.instance = instance;
+        }
+    }
+
+    /**
+     * Solves instances of a batch until there are no more.
+     */
+    private final class Worker implements Callable<Void> {
+
+        private final Batch batch;
+        private final AbstractPathFinder<T> finder;
+
+        Worker(final Batch batch, final AbstractPathFinder<T> finder) {
+            this.batch = batch;
+            this.finder = finder;
+        }
+
+        @Override
+        public Void call() {
+            try {
+                Indexed<T> next;
+
+                while ((next = batch.next()) != null) {
+                    final SearchResult<T> result =
+                            finder.search(next.instance.getSource(),
+                                          next.instance.getTarget(),
+                                          batch.limits);
+
+                    if (result.isLimitReached()) {
+                        // Another worker failed.
+                        break;
+                    }
+
+                    batch.solved(next, result.getPath());
+                }
+            } catch (final RuntimeException | Error ex) {
+                batch.token.cancel();
+                throw ex;
+            }
+
+            return null;
+        }
+    }
+}
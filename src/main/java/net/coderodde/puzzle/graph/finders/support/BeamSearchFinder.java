@@ -0,0 +1,273 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.util.support.LongHashSet;
+
+/**
+ * This class implements beam search: a breadth-first search keeping in each
+ * layer only the given amount of nodes with the least estimates, selected by
+ * a bounded heap. The nodes of the earlier layers are never revisited; they
+ * are recognized by their {@link AbstractGraphNode#longHashCode()}, so a
+ * (rare) hash collision may only prune a node.
+ * <p>
+ * The memory used is proportional to the beam width times the depth, and the
+ * work per layer to the beam width, regardless of the size of the graph. The
+ * paths returned are usually not shortest ones, and the search may fail to
+ * find a path even if there is one; <code>null</code> is returned once the
+ * beam dies out or the depth limit is reached.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class BeamSearchFinder<T extends AbstractGraphNode<T>>
+extends AbstractPathFinder<T> {
+
+    /**
+     * The default maximum depth of the search.
+     */
+    private static final int DEFAULT_MAXIMUM_DEPTH = 10000;
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+    private final int beamWidth;
+    private final int maximumDepth;
+
+    /**
+     * A node in the beam.
+     */
+    private static final class Entry<T> {
+
+        final T node;
+        final Entry<T> parent;
+        final int estimate;
+
+        Entry(final T node, final Entry<T> parent, final int estimate) {
+            this.node = node;
+            this.parent = parent;
+            this.estimate = estimate;
+        }
+    }
+
+    /**
+     * A max-heap keeping the entries of the least estimates offered to it,
+     * up to the beam width.
+     */
+    private static final class SelectionHeap<T> {
+
+        private final Entry<T>[] heap;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        SelectionHeap(final int capacity) {
+            this.heap = (Entry<T>[]) new Entry<?>[capacity];
+        }
+
+        boolean isFull() {
+            return size == heap.length;
+        }
+
+        /**
+         * Returns the largest estimate kept. Valid only if not empty.
+         */
+        int maximumEstimate() {
+            return heap[0].estimate;
+        }
+
+        void offer(final Entry<T> entry) {
+            if (size < heap.length) {
+                heap[size] = entry;
+                siftUp(size++);
+            } else if (entry.estimate < heap[0].estimate) {
+                heap[0] = entry;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Moves the kept entries into <code>list</code> and empties this
+         * heap.
+         */
+        void drainTo(final List<Entry<T>> list) {
+            for (int i = 0; i < size; ++i) {
+                list.add(heap[i]);
+                heap[i] = null;
+            }
+
+            size = 0;
+        }
+
+        private void siftUp(int index) {
+            final Entry<T> entry = heap[index];
+
+            while (index > 0) {
+                final int parentIndex = (index - 1) >>> 1;
+
+                if (heap[parentIndex].estimate >= entry.estimate) {
+                    break;
+                }
+
+                heap[index] = heap[parentIndex];
+                index = parentIndex;
+            }
+
+            heap[index] = entry;
+        }
+
+        private void siftDown(int index) {
+            final Entry<T> entry = heap[index];
+
+            for (;;) {
+                int childIndex = 2 * index + 1;
+
+                if (childIndex >= size) {
+                    break;
+                }
+
+                if (childIndex + 1 < size
+                        && heap[childIndex + 1].estimate
+                           > heap[childIndex].estimate) {
+                    ++childIndex;
+                }
+
+                if (heap[childIndex].estimate <= entry.estimate) {
+                    break;
+                }
+
+                heap[index] = heap[childIndex];
+                index = childIndex;
+            }
+
+            heap[index] = entry;
+        }
+    }
+
+    /**
+     * Constructs a beam search finder.
+     *
+     * @param heuristicFunction the heuristic function scoring the nodes.
+     * @param beamWidth         the maximum amount of nodes per layer.
+     * @param maximumDepth      the maximum amount of layers.
+     * @throws java.lang.IllegalArgumentException if <code>beamWidth</code> or
+     *                                            <code>maximumDepth</code> is
+     *                                            not positive.
+     */
+    public BeamSearchFinder(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final int beamWidth,
+            final int maximumDepth) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException(
+                    "The beam width must be positive, is " + beamWidth + ".");
+        }
+
+        if (maximumDepth < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum depth must be positive, is " +
+                    maximumDepth + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.beamWidth = beamWidth;
+        this.maximumDepth = maximumDepth;
+    }
+
+    public BeamSearchFinder(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final int beamWidth) {
+        this(heuristicFunction, beamWidth, DEFAULT_MAXIMUM_DEPTH);
+    }
+
+    @Override
+    public BeamSearchFinder<T> spawn() {
+        return new BeamSearchFinder<>(heuristicFunction.spawn(),
+                                      beamWidth,
+                                      maximumDepth);
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        heuristicFunction.setTarget(target);
+
+        final LongHashSet VISITED = new LongHashSet(beamWidth);
+        final LongHashSet LAYER = new LongHashSet(4 * beamWidth);
+        final SelectionHeap<T> selection = new SelectionHeap<>(beamWidth);
+        List<Entry<T>> beam = new ArrayList<>(beamWidth);
+        List<Entry<T>> nextBeam = new ArrayList<>(beamWidth);
+
+        beam.add(new Entry<>(source, null, heuristicFunction.estimate(source)));
+        VISITED.add(source.longHashCode());
+
+        for (int depth = 0; depth <= maximumDepth && !beam.isEmpty(); ++depth) {
+            for (final Entry<T> entry : beam) {
+                if (entry.node.equals(target)) {
+                    return tracebackPath(entry);
+                }
+            }
+
+            if (depth == maximumDepth) {
+                break;
+            }
+
+            LAYER.clear();
+
+            for (final Entry<T> entry : beam) {
+                nodeExpanded();
+
+                for (final T child : entry.node) {
+                    final long hash = child.longHashCode();
+
+                    if (VISITED.contains(hash) || !LAYER.add(hash)) {
+                        continue;
+                    }
+
+                    nodeGenerated();
+
+                    // Once the beam is full, an estimate reaching the
+                    // largest one kept is rejected, so it need not be exact.
+                    final int bound = selection.isFull() ?
+                                      selection.maximumEstimate() :
+                                      Integer.MAX_VALUE;
+                    final int estimate =
+                            heuristicFunction.estimate(child,
+                                                       entry.node,
+                                                       entry.estimate,
+                                                       bound);
+
+                    if (estimate < bound) {
+                        selection.offer(new Entry<>(child, entry, estimate));
+                    }
+                }
+            }
+
+            nextBeam.clear();
+            selection.drainTo(nextBeam);
+
+            for (final Entry<T> entry : nextBeam) {
+                VISITED.add(entry.node.longHashCode());
+            }
+
+            final List<Entry<T>> tmp = beam;
+            beam = nextBeam;
+            nextBeam = tmp;
+        }
+
+        return null;
+    }
+
+    private List<T> tracebackPath(Entry<T> entry) {
+        final List<T> path = new ArrayList<>();
+
+        while (entry != null) {
+            path.add(entry.node);
+            entry = entry.parent;
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -2,9 +2,7 @@ package net.coderodde.puzzle.graph.finders.support;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
@@ -19,77 +17,100 @@ public class BidirectionalBFSFinder<T extends AbstractGraphNode<T>>
 extends AbstractPathFinder<T> {
 
     @Override
-    public List<T> search(final T source, final T target) {
+    public BidirectionalBFSFinder<T> spawn() {
+        return new BidirectionalBFSFinder<>();
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
         if (source.equals(target)) {
             List<T> path = new ArrayList<>(1);
             path.add(target);
             return path;
         }
                 
-        final Queue<T> queueA = new ArrayDeque<>();
-        final Queue<T> queueB = new ArrayDeque<>();
+        final Queue<SearchNode<T>> queueA = new ArrayDeque<>();
+        final Queue<SearchNode<T>> queueB = new ArrayDeque<>();
         
-        final Map<T, T> parentMapA = new HashMap<>();
-        final Map<T, T> parentMapB = new HashMap<>();
+        // Holds the distances and parents of both searches.
+        final SearchNodeTable<T> table = new SearchNodeTable<>();
         
-        final Map<T, Integer> distanceMapA = new HashMap<>();
-        final Map<T, Integer> distanceMapB = new HashMap<>();
+        final SearchNode<T> sourceRecord = table.get(source);
+        final SearchNode<T> targetRecord = table.get(target);
         
-        queueA.add(source);
-        queueB.add(target);
+        sourceRecord.distanceA = 0;
+        targetRecord.distanceB = 0;
         
-        parentMapA.put(source, null);
-        parentMapB.put(target, null);
-        
-        distanceMapA.put(source, 0);
-        distanceMapB.put(target, 0);
+        queueA.add(sourceRecord);
+        queueB.add(targetRecord);
         
         int bestCost = Integer.MAX_VALUE;
-        T touchNode = null;
+        SearchNode<T> touchNode = null;
         
         while (!queueA.isEmpty() && !queueB.isEmpty()) {
-            final int distanceA = distanceMapA.get(queueA.peek());
-            final int distanceB = distanceMapB.get(queueB.peek());
+            final int distanceA = queueA.peek().distanceA;
+            final int distanceB = queueB.peek().distanceB;
             
             if (touchNode != null && bestCost < distanceA + distanceB) {
-                return tracebackPath(touchNode, parentMapA, parentMapB);
+                return SearchNode.tracebackPath(touchNode);
             }
             
+            // Every node closer than 'distanceA' to the source and 
+            // 'distanceB' to the target is expanded, so a shorter path would
+            // have been found.
+            updateLowerBound(Math.min(bestCost, distanceA + distanceB - 1));
+            nodeExpanded();
+            queueOperation();
+            
+            // A node reached by both searches counts once.
+            final int openSize = queueA.size() + queueB.size();
+            updatePeakSizes(openSize, table.size() - openSize);
+            
             if (distanceA < distanceB) {
                 // Trivial load balancing.
-                final T current = queueA.poll();
+                final SearchNode<T> current = queueA.poll();
                 
-                if (distanceMapB.containsKey(current) 
-                        && bestCost > distanceMapA.get(current) +
-                                      distanceMapB.get(current)) {
-                    bestCost = distanceMapA.get(current) + 
-                               distanceMapB.get(current);
+                if (current.distanceB != SearchNode.UNREACHED 
+                        && bestCost > current.distanceA + 
+                                      current.distanceB) {
+                    bestCost = current.distanceA + current.distanceB;
                     touchNode = current;
                 }
                 
-                for (final T child : current) {
-                    if (!distanceMapA.containsKey(child)) {
-                        distanceMapA.put(child, distanceMapA.get(current) + 1);
-                        parentMapA.put(child, current);
-                        queueA.add(child);
+                for (final T child : current.node) {
+                    final SearchNode<T> record = table.get(child);
+                    
+                    if (record.distanceA == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        record.distanceA = current.distanceA + 1;
+                        record.parentA = current;
+                        queueA.add(record);
+                        queueOperation();
+                    } else {
+                        duplicateGenerated();
                     }
                 }
             } else {
-                final T current = queueB.poll();
+                final SearchNode<T> current = queueB.poll();
                 
-                if (distanceMapA.containsKey(current) 
-                        && bestCost > distanceMapA.get(current) +
-                                      distanceMapB.get(current)) {
-                    bestCost = distanceMapA.get(current) + 
-                               distanceMapB.get(current);
+                if (current.distanceA != SearchNode.UNREACHED 
+                        && bestCost > current.distanceA + 
+                                      current.distanceB) {
+                    bestCost = current.distanceA + current.distanceB;
                     touchNode = current;
                 }
                 
-                for (final T parent : current.parents()) {
-                    if (!distanceMapB.containsKey(parent)) {
-                        distanceMapB.put(parent, distanceMapB.get(current) + 1);
-                        parentMapB.put(parent, current);
-                        queueB.add(parent);
+                for (final T parent : current.node.parents()) {
+                    final SearchNode<T> record = table.get(parent);
+                    
+                    if (record.distanceB == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        record.distanceB = current.distanceB + 1;
+                        record.parentB = current;
+                        queueB.add(record);
+                        queueOperation();
+                    } else {
+                        duplicateGenerated();
                     }
                 }
             }
@@ -1,11 +1,7 @@
 package net.coderodde.puzzle.graph.finders.support;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
@@ -38,8 +34,15 @@ extends AbstractPathFinder<T> {
         final AbstractHeuristicFunction<T> heuristicFunction) {
         this(heuristicFunction, new DaryHeap<T>());
     }
+    
     @Override
-    public List<T> search(final T source, final T target) {
+    public BidirectionalHeuristicBFSFinder<T> spawn() {
+        return new BidirectionalHeuristicBFSFinder<>(
+                heuristicFunction.spawn(), queue.spawn());
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
         if (source.equals(target)) {
             final List<T> path = new ArrayList<>(1);
             path.add(source);
@@ -50,129 +53,170 @@ extends AbstractPathFinder<T> {
         final IntegerPriorityQueue<?, T> OPENA = queue.spawn();
         final IntegerPriorityQueue<?, T> OPENB = queue.spawn();
         
-        final Set<T> CLOSEDA = new HashSet<>();
-        final Set<T> CLOSEDB = new HashSet<>();
-        
-        final Map<T, T> PARENTSA = new HashMap<>();
-        final Map<T, T> PARENTSB = new HashMap<>();
-        
-        final Map<T, Integer> DISTANCEA = new HashMap<>();
-        final Map<T, Integer> DISTANCEB = new HashMap<>();
+        // Holds the distances, parents and CLOSED flags of both searches.
+        final SearchNodeTable<T> table = new SearchNodeTable<>();
+        int closedSize = 0;
         
         int bestCost = Integer.MAX_VALUE;
-        T touchNode = null;
+        SearchNode<T> touchNode = null;
         
         // Initialization
         heuristicFunction.setTarget(target);
         heuristicFunctionRev.setTarget(source);
         
-        OPENA.insert(source, 0);
-        OPENB.insert(target, 0);
-        
-        PARENTSA.put(source, null);
-        PARENTSB.put(target, null);
+        // The priority of each node in an OPEN list is its g plus its 
+        // estimate, which allows recovering the estimate of a node for free.
+        OPENA.insert(source, heuristicFunction.estimate(source));
+        OPENB.insert(target, heuristicFunctionRev.estimate(target));
         
-        DISTANCEA.put(source, 0);
-        DISTANCEB.put(target, 0);
+        table.get(source).distanceA = 0;
+        table.get(target).distanceB = 0;
         
         while (!OPENA.isEmpty() && !OPENB.isEmpty()) {
-            final T minA = OPENA.min();
-            final T minB = OPENB.min();
+            final SearchNode<T> minA = table.get(OPENA.min());
+            final SearchNode<T> minB = table.get(OPENB.min());
             
-            final int distA = DISTANCEA.get(minA);
-            final int distB = DISTANCEB.get(minB);
+            final int distA = minA.distanceA;
+            final int distB = minB.distanceB;
+            
+            final int fA = OPENA.minPriority();
+            final int fB = OPENB.minPriority();
             
             if (touchNode != null) {
-                final int fA = distA + heuristicFunction.estimate(minA);
-                final int fB = distB + heuristicFunctionRev.estimate(minB);
-                
                 if (Math.max(fA, fB) >= bestCost) {
-                    return tracebackPath(touchNode, PARENTSA, PARENTSB);
+                    return SearchNode.tracebackPath(touchNode);
                 }
             }
             
+            // Neither search has a path shorter than its least f left.
+            updateLowerBound(Math.min(bestCost, Math.max(fA, fB)));
+            nodeExpanded();
+            queueOperation();
+            updatePeakSizes(OPENA.size() + OPENB.size(), closedSize);
+            
             if (distA < distB) {
                 // Expand the forward search frontier.
-                final T current = OPENA.extractMinimum();
+                OPENA.extractMinimum();
+                final SearchNode<T> current = minA;
+                final int currentEstimate = fA - distA;
                 
-                CLOSEDA.add(current);
+                current.closedA = true;
+                ++closedSize;
                 
-                for (final T child : current) {
-                    if (CLOSEDA.contains(child)) {
+                for (final T child : current.node) {
+                    final SearchNode<T> record = table.get(child);
+                    
+                    if (record.closedA) {
+                        duplicateGenerated();
                         continue;
                     }
                     
-                    final int g = DISTANCEA.get(current) + 1;
+                    final int g = distA + 1;
+                    final int distance = record.distanceA;
                     
-                    if (!PARENTSA.containsKey(child)) {
-                        PARENTSA.put(child, current);
-                        DISTANCEA.put(child, g);
+                    if (distance == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        record.parentA = current;
+                        record.distanceA = g;
                         OPENA.insert(child, 
-                                     g + heuristicFunction.estimate(child));
+                                     g + heuristicFunction.estimate(
+                                             child,
+                                             current.node,
+                                             currentEstimate));
+                        queueOperation();
                         
-                        if (CLOSEDB.contains(child)) {
-                            final int cost = g + DISTANCEB.get(child);
+                        if (record.closedB) {
+                            final int cost = g + record.distanceB;
                             
                             if (bestCost > cost) {
                                 bestCost = cost;
-                                touchNode = child;
+                                touchNode = record;
                             }
                         }
-                    } else if (DISTANCEA.get(child) > g) {
-                        DISTANCEA.put(child, g);
-                        PARENTSA.put(child, current);
-                        OPENA.decreasePriority(child,
-                                               g + heuristicFunction
-                                                   .estimate(child));
+                    } else {
+                        duplicateGenerated();
                         
-                        if (CLOSEDB.contains(child)) {
-                            final int cost = g + DISTANCEB.get(child);
+                        if (distance > g) {
+                            record.distanceA = g;
+                            record.parentA = current;
+                            OPENA.decreasePriority(
+                                    child,
+                                    g + heuristicFunction.estimate(
+                                            child,
+                                            current.node,
+                                            currentEstimate));
+                            queueOperation();
                             
-                            if (bestCost > cost) {
-                                bestCost = cost;
-                                touchNode = child;
+                            if (record.closedB) {
+                                final int cost = g + record.distanceB;
+                                
+                                if (bestCost > cost) {
+                                    bestCost = cost;
+                                    touchNode = record;
+                                }
                             }
                         }
                     }
                 }
             } else {
                 // Expand the backward search frontier.
-                final T current = OPENB.extractMinimum();
+                OPENB.extractMinimum();
+                final SearchNode<T> current = minB;
+                final int currentEstimate = fB - distB;
                 
-                CLOSEDB.add(current);
+                current.closedB = true;
+                ++closedSize;
                 
-                for (final T parent : current.parents()) {
-                    if (CLOSEDB.contains(parent)) {
+                for (final T parent : current.node.parents()) {
+                    final SearchNode<T> record = table.get(parent);
+                    
+                    if (record.closedB) {
+                        duplicateGenerated();
                         continue;
                     }
                     
-                    final int g = DISTANCEB.get(current) + 1;
+                    final int g = distB + 1;
+                    final int distance = record.distanceB;
                     
-                    if (!PARENTSB.containsKey(parent)) {
-                        PARENTSB.put(parent, current);
-                        DISTANCEB.put(parent, g);
-                        OPENB.insert(parent, g + heuristicFunctionRev
-                                                 .estimate(parent));
+                    if (distance == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        record.parentB = current;
+                        record.distanceB = g;
+                        OPENB.insert(parent, g + heuristicFunctionRev.estimate(
+                                                     parent,
+                                                     current.node,
+                                                     currentEstimate));
+                        queueOperation();
                         
-                        if (CLOSEDA.contains(parent)) {
-                            final int cost = g + DISTANCEA.get(parent);
+                        if (record.closedA) {
+                            final int cost = g + record.distanceA;
                             
                             if (bestCost > cost) {
                                 bestCost = cost;
-                                touchNode = parent;
+                                touchNode = record;
                             }
                         }
-                    } else if (DISTANCEB.get(parent) > g) {
-                        DISTANCEB.put(parent, g);
-                        PARENTSB.put(parent, current);
-                        OPENB.decreasePriority(parent, g + heuristicFunctionRev
-                                                           .estimate(parent));
-                        if (CLOSEDA.contains(parent)) {
-                            final int cost = g + DISTANCEA.get(parent);
+                    } else {
+                        duplicateGenerated();
+                        
+                        if (distance > g) {
+                            record.distanceB = g;
+                            record.parentB = current;
+                            OPENB.decreasePriority(
+                                    parent,
+                                    g + heuristicFunctionRev.estimate(
+                                            parent,
+                                            current.node,
+                                            currentEstimate));
+                            queueOperation();
                             
-                            if (bestCost > cost) {
-                                bestCost = cost;
-                                touchNode = parent;
+                            if (record.closedA) {
+                                final int cost = g + record.distanceA;
+                                
+                                if (bestCost > cost) {
+                                    bestCost = cost;
+                                    touchNode = record;
+                                }
                             }
                         }
                     }
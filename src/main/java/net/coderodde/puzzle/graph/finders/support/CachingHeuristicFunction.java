@@ -0,0 +1,371 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+
+/**
+ * This class implements a heuristic function decorator remembering the
+ * estimates of the wrapped function in a bounded cache, which outlives the
+ * searches, so that the states recurring across searches towards the same
+ * target are estimated only once.
+ * <p>
+ * The cache keeps a table per target, each holding at most
+ * <code>capacity</code> estimates and evicting the least recently used ones,
+ * and at most <code>maximumTargets</code> tables, evicting the least recently
+ * used target. A table is split into independently locked segments, so the
+ * decorators spawned from the same decorator share the cache and may be used
+ * by concurrent searches, one decorator per thread.
+ * <p>
+ * The nodes and the targets are identified by
+ * {@link AbstractGraphNode#longHashCode()}. This is exact for
+ * {@link net.coderodde.puzzle.graph.support.PackedPuzzleState}, and the
+ * Zobrist hashes of
+ * {@link net.coderodde.puzzle.graph.support.PuzzleGraphNode} collide with
+ * negligible probability; do not use the cache with node types relying on
+ * the default 32-bit hash.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class CachingHeuristicFunction<T extends AbstractGraphNode<T>>
+extends AbstractHeuristicFunction<T> {
+
+    /**
+     * The default amount of targets whose tables are kept.
+     */
+    private static final int DEFAULT_MAXIMUM_TARGETS = 4;
+
+    /**
+     * The amount of segments in a table.
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The state shared by the spawned decorators.
+     */
+    private static final class Cache {
+
+        final int capacity;
+        final int maximumTargets;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final Map<Long, Segment[]> tables;
+
+        Cache(final int capacity, final int maximumTargets) {
+            this.capacity = capacity;
+            this.maximumTargets = maximumTargets;
+            this.tables = new LinkedHashMap<Long, Segment[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<Long, Segment[]> eldest) {
+                    return size() > Cache.this.maximumTargets;
+                }
+            };
+        }
+
+        synchronized Segment[] getTable(final long target) {
+            Segment[] table = tables.get(target);
+
+            if (table == null) {
+                table = new Segment[SEGMENTS];
+
+                for (int i = 0; i < SEGMENTS; ++i) {
+                    // Round up, so that the table holds at least 'capacity'.
+                    table[i] = new Segment((capacity + SEGMENTS - 1) /
+                                           SEGMENTS);
+                }
+
+                tables.put(target, table);
+            }
+
+            return table;
+        }
+
+        synchronized void clear() {
+            // Empty the tables rather than dropping them, since the
+            // decorators keep referring to the table of their target.
+            for (final Segment[] table : tables.values()) {
+                for (final Segment segment : table) {
+                    synchronized (segment) {
+                        segment.clear();
+                    }
+                }
+            }
+
+            hits.set(0L);
+            misses.set(0L);
+        }
+    }
+
+    /**
+     * A segment of a table, with least recently used eviction.
+     */
+    private static final class Segment extends LinkedHashMap<Long, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                final Map.Entry<Long, Integer> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+
+    private final Cache cache;
+
+    /**
+     * The table of the current target.
+     */
+    private Segment[] table;
+
+    /**
+     * Constructs a decorator with a new cache.
+     *
+     * @param heuristicFunction the heuristic function to wrap.
+     * @param capacity          the maximum amount of estimates kept per
+     *                          target.
+     * @param maximumTargets    the maximum amount of targets kept.
+     * @throws java.lang.IllegalArgumentException if a bound is not positive.
+     */
+    public CachingHeuristicFunction(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final int capacity,
+            final int maximumTargets) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                    "The capacity must be positive, is " + capacity + ".");
+        }
+
+        if (maximumTargets < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum amount of targets must be positive, is " +
+                    maximumTargets + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.cache = new Cache(capacity, maximumTargets);
+    }
+
+    /**
+     * Constructs a decorator with a new cache keeping the tables of at most
+     * {@value #DEFAULT_MAXIMUM_TARGETS} targets.
+     *
+     * @param heuristicFunction the heuristic function to wrap.
+     * @param capacity          the maximum amount of estimates kept per
+     *                          target.
+     */
+    public CachingHeuristicFunction(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final int capacity) {
+        this(heuristicFunction, capacity, DEFAULT_MAXIMUM_TARGETS);
+    }
+
+    private CachingHeuristicFunction(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final Cache cache) {
+        this.heuristicFunction = heuristicFunction;
+        this.cache = cache;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the estimate.
+     */
+    @Override
+    public int estimate(final T source) {
+        final long key = source.longHashCode();
+        final Integer cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int estimate = heuristicFunction.estimate(source);
+        put(key, estimate);
+        return estimate;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @param  bound  the bound.
+     * @return the estimate, or a lower bound for it not below
+     *         <code>bound</code>.
+     */
+    @Override
+    public int estimate(final T source, final int bound) {
+        final long key = source.longHashCode();
+        final Integer cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int estimate = heuristicFunction.estimate(source, bound);
+
+        if (estimate < bound) {
+            // Only the estimates below the bound are exact.
+            put(key, estimate);
+        }
+
+        return estimate;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the estimate.
+     */
+    @Override
+    public int estimate(final T node,
+                        final T parent,
+                        final int parentEstimate) {
+        final long key = node.longHashCode();
+        final Integer cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int estimate = heuristicFunction.estimate(node,
+                                                        parent,
+                                                        parentEstimate);
+        put(key, estimate);
+        return estimate;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @param  bound          the bound.
+     * @return the estimate, or a lower bound for it not below
+     *         <code>bound</code>.
+     */
+    @Override
+    public int estimate(final T node,
+                        final T parent,
+                        final int parentEstimate,
+                        final int bound) {
+        final long key = node.longHashCode();
+        final Integer cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int estimate = heuristicFunction.estimate(node,
+                                                        parent,
+                                                        parentEstimate,
+                                                        bound);
+
+        if (estimate < bound) {
+            put(key, estimate);
+        }
+
+        return estimate;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final T target) {
+        heuristicFunction.setTarget(target);
+        table = cache.getTable(target.longHashCode());
+    }
+
+    /**
+     * Returns a decorator of a spawned copy of the wrapped function sharing
+     * the cache of this decorator.
+     *
+     * @return the spawned decorator.
+     */
+    @Override
+    public AbstractHeuristicFunction<T> spawn() {
+        return new CachingHeuristicFunction<>(heuristicFunction.spawn(), cache);
+    }
+
+    /**
+     * Returns the amount of estimates found in the cache.
+     *
+     * @return the amount of cache hits.
+     */
+    public long getHits() {
+        return cache.hits.get();
+    }
+
+    /**
+     * Returns the amount of estimates not found in the cache.
+     *
+     * @return the amount of cache misses.
+     */
+    public long getMisses() {
+        return cache.misses.get();
+    }
+
+    /**
+     * Drops all the cached estimates and resets the counters.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private Integer get(final long key) {
+        if (table == null) {
+            throw new IllegalStateException("The target is not set.");
+        }
+
+        final Segment segment = segmentOf(key);
+        final Integer estimate;
+
+        synchronized (segment) {
+            estimate = segment.get(key);
+        }
+
+        if (estimate == null) {
+            cache.misses.incrementAndGet();
+        } else {
+            cache.hits.incrementAndGet();
+        }
+
+        return estimate;
+    }
+
+    private void put(final long key, final int estimate) {
+        final Segment segment = segmentOf(key);
+
+        synchronized (segment) {
+            segment.put(key, estimate);
+        }
+    }
+
+    private Segment segmentOf(final long key) {
+        // The low bits of a packed state are its first cells, so mix them.
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return table[(int)(mixed >>> 60) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,534 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PackedPuzzleState;
+
+/**
+ * This class implements an external-memory breadth-first search with delayed
+ * duplicate detection. Only the states of a single run ever reside in memory:
+ * each layer is stored in a file as a sorted sequence of packed states.
+ * <p>
+ * The successors of a layer are collected into runs of at most a given
+ * amount of states, each sorted and written into its own file. The runs are
+ * then merged into the next layer, dropping the duplicates and the states
+ * present in the current or the previous layer; the neighbors of a layer lie
+ * within those three layers, so nothing is visited twice. Once the target
+ * appears in a layer, a shortest path is traced back by looking up, in each
+ * preceding layer, a neighbor of the current node by binary search over the
+ * layer file.
+ * <p>
+ * The files are created in a fresh subdirectory of the given directory,
+ * which is deleted once the search is over.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class ExternalBFSFinder extends AbstractPathFinder<PackedPuzzleState> {
+
+    /**
+     * The default maximum amount of states in a run.
+     */
+    private static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    /**
+     * The size of the I/O buffer of each open file, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The size of a packed state in a file, in bytes.
+     */
+    private static final int STATE_SIZE = 8;
+
+    private final File directory;
+    private final int runSize;
+
+    /**
+     * Constructs a finder.
+     *
+     * @param directory the directory to create the working files in.
+     * @param runSize   the maximum amount of states held in memory.
+     * @throws java.lang.IllegalArgumentException if <code>runSize</code> is
+     *                                            not positive.
+     */
+    public ExternalBFSFinder(final File directory, final int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException(
+                    "The run size must be positive, is " + runSize + ".");
+        }
+
+        this.directory = directory;
+        this.runSize = runSize;
+    }
+
+    /**
+     * Constructs a finder working in the temporary-file directory.
+     */
+    public ExternalBFSFinder() {
+        this(new File(System.getProperty("java.io.tmpdir")),
+             DEFAULT_RUN_SIZE);
+    }
+
+    @Override
+    public ExternalBFSFinder spawn() {
+        return new ExternalBFSFinder(directory, runSize);
+    }
+
+    @Override
+    protected List<PackedPuzzleState> doSearch(final PackedPuzzleState source,
+                                               final PackedPuzzleState target) {
+        if (source.equals(target)) {
+            final List<PackedPuzzleState> path = new ArrayList<>(1);
+            path.add(source);
+            return path;
+        }
+
+        if (source.getDegree() != target.getDegree()) {
+            return null;
+        }
+
+        try (final Search search = new Search(source)) {
+            // The length of the paths to the next layer.
+            int distance = 1;
+            updateLowerBound(distance);
+
+            while (search.expand(target.getState(), true) > 0L) {
+                if (search.found) {
+                    return search.tracebackPath(target);
+                }
+
+                updateLowerBound(++distance);
+            }
+
+            return null;
+        } catch (final IOException ex) {
+            throw new IllegalStateException("The external search failed.",
+                                            ex);
+        }
+    }
+
+    /**
+     * Enumerates all the states reachable from <code>source</code>, keeping
+     * on disk only the last three layers.
+     *
+     * @param  source the source node.
+     * @return the list of layer sizes; the <code>i</code>th entry is the
+     *         amount of states at distance <code>i</code> from
+     *         <code>source</code>.
+     */
+    public List<Long> enumerate(final PackedPuzzleState source) {
+        final List<Long> sizes = new ArrayList<>();
+        sizes.add(1L);
+
+        try (final Search search = new Search(source)) {
+            long size;
+
+            while ((size = search.expand(-1L, false)) > 0L) {
+                sizes.add(size);
+            }
+
+            return sizes;
+        } catch (final IOException ex) {
+            throw new IllegalStateException("The external search failed.",
+                                            ex);
+        }
+    }
+
+    /**
+     * The state of a single search.
+     */
+    private final class Search implements Closeable {
+
+        final int degree;
+        final Path workDirectory;
+
+        /**
+         * <code>layers.get(i)</code> is the file of the states at distance
+         * <code>i</code>, or <code>null</code> if already deleted.
+         */
+        final List<Path> layers = new ArrayList<>();
+
+        final long[] run;
+
+        boolean found;
+
+        Search(final PackedPuzzleState source) throws IOException {
+            this.degree = source.getDegree();
+            Files.createDirectories(directory.toPath());
+            this.workDirectory = Files.createTempDirectory(directory.toPath(),
+                                                           "bfs");
+            this.run = new long[runSize];
+
+            final Path layer = workDirectory.resolve("layer-0");
+
+            try (final LongWriter writer = new LongWriter(layer)) {
+                writer.write(source.getState());
+            }
+
+            layers.add(layer);
+        }
+
+        /**
+         * Generates the next layer. If <code>keepLayers</code> is
+         * <code>false</code>, the layers no longer needed are deleted.
+         *
+         * @param  target the packed target state, or <tt>-1</tt>.
+         * @return the size of the new layer.
+         */
+        long expand(final long target, final boolean keepLayers)
+        throws IOException {
+            final int depth = layers.size() - 1;
+            final Path current = layers.get(depth);
+            final Path previous = depth > 0 ? layers.get(depth - 1) : null;
+            final List<Path> runs = new ArrayList<>();
+            int size = 0;
+
+            try (final LongReader reader = new LongReader(current)) {
+                while (reader.hasNext()) {
+                    final PackedPuzzleState node =
+                            PackedPuzzleState.valueOf(degree, reader.next());
+                    nodeExpanded();
+
+                    for (final PackedPuzzleState child : node) {
+                        nodeGenerated();
+
+                        if (size == run.length) {
+                            runs.add(writeRun(runs.size(), size));
+                            size = 0;
+                        }
+
+                        run[size++] = child.getState();
+                    }
+                }
+            }
+
+            if (size > 0) {
+                runs.add(writeRun(runs.size(), size));
+            }
+
+            final Path next = workDirectory.resolve("layer-" + (depth + 1));
+            final long count = merge(runs, current, previous, next, target);
+
+            for (final Path path : runs) {
+                Files.delete(path);
+            }
+
+            layers.add(next);
+
+            if (!keepLayers && previous != null) {
+                Files.delete(previous);
+                layers.set(depth - 1, null);
+            }
+
+            return count;
+        }
+
+        /**
+         * Sorts the first <code>size</code> states of the run buffer and
+         * writes them without duplicates into a new run file.
+         */
+        private Path writeRun(final int index, final int size)
+        throws IOException {
+            Arrays.sort(run, 0, size);
+            final Path path = workDirectory.resolve("run-" + index);
+
+            try (final LongWriter writer = new LongWriter(path)) {
+                for (int i = 0; i < size; ++i) {
+                    if (i == 0 || run[i] != run[i - 1]) {
+                        writer.write(run[i]);
+                    }
+                }
+            }
+
+            return path;
+        }
+
+        /**
+         * Merges the runs into <code>next</code>, leaving out the duplicates
+         * and the states in <code>current</code> and <code>previous</code>.
+         *
+         * @return the amount of states written.
+         */
+        private long merge(final List<Path> runs,
+                           final Path current,
+                           final Path previous,
+                           final Path next,
+                           final long target) throws IOException {
+            final PriorityQueue<LongReader> heap =
+                    new PriorityQueue<>(Math.max(1, runs.size()),
+                                        new Comparator<LongReader>() {
+                @Override
+                public int compare(final LongReader a, final LongReader b) {
+                    return Long.compare(a.peek(), b.peek());
+                }
+            });
+
+            final List<LongReader> readers = new ArrayList<>(runs.size() + 2);
+
+            try {
+                for (final Path path : runs) {
+                    final LongReader reader = new LongReader(path);
+                    readers.add(reader);
+
+                    if (reader.hasNext()) {
+                        heap.add(reader);
+                    }
+                }
+
+                final LongReader currentReader = new LongReader(current);
+                readers.add(currentReader);
+                final LongReader previousReader =
+                        previous != null ? new LongReader(previous) : null;
+
+                if (previousReader != null) {
+                    readers.add(previousReader);
+                }
+
+                long count = 0L;
+                boolean hasLast = false;
+                long last = 0L;
+
+                try (final LongWriter writer = new LongWriter(next)) {
+                    while (!heap.isEmpty()) {
+                        final LongReader reader = heap.poll();
+                        final long state = reader.next();
+
+                        if (reader.hasNext()) {
+                            heap.add(reader);
+                        }
+
+                        if (hasLast && state == last) {
+                            continue;
+                        }
+
+                        hasLast = true;
+                        last = state;
+
+                        if (contains(currentReader, state)
+                                || contains(previousReader, state)) {
+                            continue;
+                        }
+
+                        writer.write(state);
+                        ++count;
+
+                        if (state == target) {
+                            found = true;
+                        }
+                    }
+                }
+
+                return count;
+            } finally {
+                for (final LongReader reader : readers) {
+                    reader.close();
+                }
+            }
+        }
+
+        /**
+         * Traces back a shortest path from the target found in the last
+         * layer.
+         */
+        List<PackedPuzzleState> tracebackPath(final PackedPuzzleState target)
+        throws IOException {
+            final List<PackedPuzzleState> path = new ArrayList<>(layers.size());
+            PackedPuzzleState current = target;
+            path.add(current);
+
+            for (int depth = layers.size() - 2; depth >= 0; --depth) {
+                try (final FileChannel channel =
+                        FileChannel.open(layers.get(depth),
+                                         StandardOpenOption.READ)) {
+                    for (final PackedPuzzleState parent : current.parents()) {
+                        if (binarySearch(channel, parent.getState())) {
+                            current = parent;
+                            break;
+                        }
+                    }
+                }
+
+                path.add(current);
+            }
+
+            Collections.reverse(path);
+            return path;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (final Path path : layers) {
+                if (path != null) {
+                    Files.deleteIfExists(path);
+                }
+            }
+
+            Files.deleteIfExists(workDirectory);
+        }
+    }
+
+    /**
+     * Advances <code>reader</code> past the states below <code>state</code>
+     * and checks whether the next state equals <code>state</code>.
+     */
+    private static boolean contains(final LongReader reader, final long state)
+    throws IOException {
+        if (reader == null) {
+            return false;
+        }
+
+        while (reader.hasNext() && reader.peek() < state) {
+            reader.next();
+        }
+
+        return reader.hasNext() && reader.peek() == state;
+    }
+
+    /**
+     * Checks whether the sorted file behind <code>channel</code> contains
+     * <code>state</code>.
+     */
+    private static boolean binarySearch(final FileChannel channel,
+                                        final long state) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(STATE_SIZE);
+        long low = 0L;
+        long high = channel.size() / STATE_SIZE - 1;
+
+        while (low <= high) {
+            final long middle = (low + high) >>> 1;
+            buffer.clear();
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer,
+                                 middle * STATE_SIZE + buffer.position())
+                        < 0) {
+                    throw new IOException("Unexpected end of file.");
+                }
+            }
+
+            final long value = buffer.getLong(0);
+
+            if (value < state) {
+                low = middle + 1;
+            } else if (value > state) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the packed states of a file sequentially.
+     */
+    private static final class LongReader implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer =
+                ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        LongReader(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        boolean hasNext() throws IOException {
+            if (buffer.remaining() >= STATE_SIZE) {
+                return true;
+            }
+
+            buffer.compact();
+
+            while (buffer.position() < STATE_SIZE) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+
+            buffer.flip();
+            return buffer.remaining() >= STATE_SIZE;
+        }
+
+        /**
+         * Returns the next state without consuming it. Valid only after
+         * {@link #hasNext()} returned <code>true</code>.
+         */
+        long peek() {
+            return buffer.getLong(buffer.position());
+        }
+
+        long next() throws IOException {
+            if (!hasNext()) {
+                throw new IOException("Unexpected end of file.");
+            }
+
+            return buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes packed states into a file sequentially.
+     */
+    private static final class LongWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer =
+                ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        LongWriter(final Path path) throws IOException {
+            this.channel =
+                    FileChannel.open(path,
+                                     StandardOpenOption.CREATE,
+                                     StandardOpenOption.WRITE,
+                                     StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(final long state) throws IOException {
+            if (buffer.remaining() < STATE_SIZE) {
+                flush();
+            }
+
+            buffer.putLong(state);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.ObjectIntHashMap;
+
+/**
+ * This class implements HDA*, the hash distributed A*. Each node is owned by
+ * the worker thread chosen by its {@link AbstractGraphNode#longHashCode()},
+ * and only the owner keeps its distance, its parent and its place in an OPEN
+ * list. A worker expands the nodes of its own OPEN list and sends each
+ * generated node, in batches, to the lock-free mailbox of its owner, which
+ * keeps it if it was reached by a shorter path than before; a closed node
+ * reached by a shorter path is reopened.
+ * <p>
+ * The length of the best path found so far prunes the nodes whose
+ * <tt>g + h</tt> is not below it. The search ends when every worker has run
+ * out of the nodes below that bound and no batch is in flight, which is
+ * detected by counting the active workers and the batches in flight in a
+ * single atomic counter. At that point every node on a shorter path would
+ * have been expanded, so the best path is a shortest one.
+ * <p>
+ * An idle worker parks for a while, twice as long each time up to
+ * {@link #MAXIMUM_IDLE_PARK_NANOS}, so it leaves the processors to the
+ * workers that have nodes to expand.
+ * <p>
+ * The workers check the cancellation token, the time limit and the memory
+ * limit every {@link #ROUNDS_PER_LIMIT_CHECK} rounds of expansions or idle
+ * parks, and all give up once one of them is reached.
+ * <p>
+ * For an unreachable target, the search goes through every node reachable
+ * from the source, which for the larger puzzles runs out of memory. Since the
+ * reachability of a {@link PuzzleGraphNode} is cheap to check, the search
+ * returns <code>null</code> right away for those.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class HDAStarFinder<T extends AbstractGraphNode<T>>
+extends AbstractPathFinder<T> {
+
+    /**
+     * The amount of generated nodes a worker buffers for an owner before
+     * sending them.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The amount of nodes a worker expands between checking its mailbox.
+     */
+    private static final int EXPANSIONS_PER_ROUND = 64;
+
+    /**
+     * The amount of rounds, or of idle parks, of a worker between two checks
+     * of the limits. Must be a power of two.
+     */
+    private static final int ROUNDS_PER_LIMIT_CHECK = 16;
+
+    /**
+     * The first park of an idle worker, in nanoseconds.
+     */
+    private static final long MINIMUM_IDLE_PARK_NANOS = 10000L;
+
+    /**
+     * The longest park of an idle worker, in nanoseconds.
+     */
+    private static final long MAXIMUM_IDLE_PARK_NANOS = 1000000L;
+
+    /**
+     * The distance lookups return this for the nodes not reached yet.
+     */
+    private static final int UNREACHED = -1;
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+    private final IntegerPriorityQueue<?, T> queue;
+    private final int threads;
+
+    /**
+     * A generated node on its way to its owner.
+     */
+    private static final class Message<T> {
+
+        final T node;
+        final T parent;
+        final int distance;
+        final int estimate;
+
+        Message(final T node,
+                final T parent,
+                final int distance,
+                final int estimate) {
+            this.node = node;
+            this.parent = parent;
+            this.distance = distance;
+            this.estimate = estimate;
+        }
+    }
+
+    /**
+     * The state of a single search.
+     */
+    private final class Search {
+
+        final T target;
+        final List<Worker> workers = new ArrayList<>();
+
+        /**
+         * The amount of active workers plus the amount of batches in flight.
+         * Once it drops to zero, it never rises again.
+         */
+        final AtomicLong activity = new AtomicLong();
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        /**
+         * The length of the best path found so far. Written only by the
+         * owner of the target.
+         */
+        volatile int bestPathLength = Integer.MAX_VALUE;
+
+        Search(final T target) {
+            this.target = target;
+        }
+
+        int ownerIndexOf(final T node) {
+            final long hash = node.longHashCode() * 0x9E3779B97F4A7C15L;
+            return (int)((hash >>> 33) % workers.size());
+        }
+
+        Worker ownerOf(final T node) {
+            return workers.get(ownerIndexOf(node));
+        }
+    }
+
+    /**
+     * A worker owning a partition of the nodes.
+     */
+    private final class Worker implements Runnable {
+
+        final Search search;
+        final int index;
+        final AbstractHeuristicFunction<T> heuristicFunction;
+        final IntegerPriorityQueue<?, T> OPEN;
+        final Set<T> CLOSED = new HashSet<>();
+        final Map<T, T> PARENTS = new HashMap<>();
+        final ObjectIntHashMap<T> DISTANCE = new ObjectIntHashMap<>();
+        final ConcurrentLinkedQueue<List<Message<T>>> mailbox =
+                new ConcurrentLinkedQueue<>();
+
+        /**
+         * <code>outbox.get(i)</code> buffers the messages for the
+         * <code>i</code>th worker.
+         */
+        final List<List<Message<T>>> outbox = new ArrayList<>();
+
+        Worker(final Search search,
+               final int index,
+               final AbstractHeuristicFunction<T> heuristicFunction,
+               final IntegerPriorityQueue<?, T> OPEN) {
+            this.search = search;
+            this.index = index;
+            this.heuristicFunction = heuristicFunction;
+            this.OPEN = OPEN;
+        }
+
+        @Override
+        public void run() {
+            try {
+                work();
+            } catch (final Throwable t) {
+                search.failure.compareAndSet(null, t);
+            }
+        }
+
+        private void work() {
+            for (int i = 0; i < search.workers.size(); ++i) {
+                outbox.add(new ArrayList<Message<T>>(BATCH_SIZE));
+            }
+
+            int rounds = 0;
+
+            while (search.failure.get() == null) {
+                if ((++rounds & (ROUNDS_PER_LIMIT_CHECK - 1)) == 0
+                        && isLimitReached()) {
+                    return;
+                }
+
+                receiveAll();
+
+                for (int i = 0; i < EXPANSIONS_PER_ROUND && canExpand(); ++i) {
+                    expand();
+                }
+
+                flush();
+
+                if (canExpand() || !mailbox.isEmpty()) {
+                    continue;
+                }
+
+                // Go idle until a batch arrives or the search is over.
+                search.activity.decrementAndGet();
+                long parkNanos = MINIMUM_IDLE_PARK_NANOS;
+
+                while (mailbox.isEmpty()) {
+                    if (search.activity.get() == 0L
+                            || search.failure.get() != null) {
+                        return;
+                    }
+
+                    if ((++rounds & (ROUNDS_PER_LIMIT_CHECK - 1)) == 0
+                            && isLimitReached()) {
+                        return;
+                    }
+
+                    LockSupport.parkNanos(parkNanos);
+                    parkNanos = Math.min(2 * parkNanos,
+                                         MAXIMUM_IDLE_PARK_NANOS);
+                }
+
+                search.activity.incrementAndGet();
+            }
+        }
+
+        private boolean canExpand() {
+            return !OPEN.isEmpty()
+                    && OPEN.minPriority() < search.bestPathLength;
+        }
+
+        private void expand() {
+            // The priority of each node in OPEN is its g plus its estimate.
+            final int f = OPEN.minPriority();
+            final T current = OPEN.extractMinimum();
+            CLOSED.add(current);
+
+            final int currentDistance = DISTANCE.get(current, UNREACHED);
+            final int currentEstimate = f - currentDistance;
+            final int distance = currentDistance + 1;
+
+            for (final T child : current) {
+                // A child estimate reaching the bound gets it pruned.
+                final int estimate = heuristicFunction.estimate(
+                        child,
+                        current,
+                        currentEstimate,
+                        search.bestPathLength - distance);
+                final Message<T> message = new Message<>(child,
+                                                         current,
+                                                         distance,
+                                                         estimate);
+                final int owner = search.ownerIndexOf(child);
+
+                if (owner == index) {
+                    receive(message);
+                } else {
+                    final List<Message<T>> batch = outbox.get(owner);
+                    batch.add(message);
+
+                    if (batch.size() == BATCH_SIZE) {
+                        send(search.workers.get(owner), batch);
+                    }
+                }
+            }
+        }
+
+        private void receiveAll() {
+            List<Message<T>> batch;
+
+            while ((batch = mailbox.poll()) != null) {
+                for (final Message<T> message : batch) {
+                    receive(message);
+                }
+
+                search.activity.decrementAndGet();
+            }
+        }
+
+        private void receive(final Message<T> message) {
+            final T node = message.node;
+            final int distance = message.distance;
+            final int oldDistance = DISTANCE.get(node, UNREACHED);
+
+            if (oldDistance != UNREACHED && oldDistance <= distance) {
+                return;
+            }
+
+            DISTANCE.put(node, distance);
+            PARENTS.put(node, message.parent);
+
+            if (node.equals(search.target)) {
+                // Only this worker writes the bound.
+                search.bestPathLength = distance;
+                return;
+            }
+
+            final int priority = distance + message.estimate;
+
+            if (CLOSED.remove(node)) {
+                // Reopen.
+                OPEN.insert(node, priority);
+            } else if (oldDistance == UNREACHED) {
+                OPEN.insert(node, priority);
+            } else {
+                OPEN.decreasePriority(node, priority);
+            }
+        }
+
+        private void flush() {
+            for (int i = 0; i < outbox.size(); ++i) {
+                if (!outbox.get(i).isEmpty()) {
+                    send(search.workers.get(i), outbox.get(i));
+                }
+            }
+        }
+
+        private void send(final Worker owner, final List<Message<T>> batch) {
+            // Count the batch before it becomes visible.
+            search.activity.incrementAndGet();
+            owner.mailbox.offer(new ArrayList<>(batch));
+            batch.clear();
+        }
+    }
+
+    /**
+     * Constructs a finder running <code>threads</code> worker threads.
+     *
+     * @param heuristicFunction the heuristic function.
+     * @param queue             the priority queue to spawn the OPEN lists
+     *                          from.
+     * @param threads           the amount of worker threads.
+     * @throws java.lang.IllegalArgumentException if <code>threads</code> is
+     *                                            not positive.
+     */
+    public HDAStarFinder(final AbstractHeuristicFunction<T> heuristicFunction,
+                         final IntegerPriorityQueue<?, T> queue,
+                         final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive, is " + threads +
+                    ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.queue = queue;
+        this.threads = threads;
+    }
+
+    /**
+     * Constructs a finder running a worker thread per available processor.
+     *
+     * @param heuristicFunction the heuristic function.
+     */
+    public HDAStarFinder(final AbstractHeuristicFunction<T> heuristicFunction) {
+        this(heuristicFunction,
+             new DaryHeap<T>(),
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public HDAStarFinder<T> spawn() {
+        return new HDAStarFinder<>(heuristicFunction.spawn(),
+                                   queue.spawn(),
+                                   threads);
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        if (source.equals(target)) {
+            final List<T> path = new ArrayList<>(1);
+            path.add(source);
+            return path;
+        }
+
+        if (source instanceof PuzzleGraphNode
+                && !((PuzzleGraphNode) source)
+                        .isReachable((PuzzleGraphNode) target)) {
+            // Otherwise, the search would run until memory runs out.
+            return null;
+        }
+
+        final Search search = new Search(target);
+
+        for (int i = 0; i < threads; ++i) {
+            final AbstractHeuristicFunction<T> spawned =
+                    heuristicFunction.spawn();
+            spawned.setTarget(target);
+            search.workers.add(new Worker(search, i, spawned, queue.spawn()));
+        }
+
+        heuristicFunction.setTarget(target);
+
+        final List<Message<T>> batch = new ArrayList<>(1);
+        batch.add(new Message<T>(source,
+                                 null,
+                                 0,
+                                 heuristicFunction.estimate(source)));
+
+        // Every worker starts active, and the source is in flight.
+        search.activity.set(threads + 1);
+        search.ownerOf(source).mailbox.offer(batch);
+
+        final List<Thread> workerThreads = new ArrayList<>(threads);
+
+        for (final Worker worker : search.workers) {
+            final Thread thread = new Thread(worker);
+            thread.start();
+            workerThreads.add(thread);
+        }
+
+        for (final Thread thread : workerThreads) {
+            try {
+                thread.join();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                search.failure.compareAndSet(null, ex);
+            }
+        }
+
+        final Throwable failure = search.failure.get();
+
+        if (failure != null) {
+            throw new IllegalStateException("A worker failed.", failure);
+        }
+
+        checkLimits();
+
+        if (search.bestPathLength == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        final List<T> path = new ArrayList<>();
+        T current = target;
+
+        while (current != null) {
+            path.add(current);
+            current = search.ownerOf(current).PARENTS.get(current);
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+}
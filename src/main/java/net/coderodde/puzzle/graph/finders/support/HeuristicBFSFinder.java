@@ -1,10 +1,6 @@
 package net.coderodde.puzzle.graph.finders.support;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
@@ -37,45 +33,73 @@ extends AbstractPathFinder<T> {
     }
     
     @Override
-    public List<T> search(final T source, final T target) {
+    public HeuristicBFSFinder<T> spawn() {
+        return new HeuristicBFSFinder<>(heuristicFunction.spawn(),
+                                        queue.spawn());
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
         heuristicFunction.setTarget(target);
         
         final IntegerPriorityQueue<?, T> OPEN = queue.spawn();
-        final Set<T> CLOSED = new HashSet<>();
-        
-        final Map<T, T> parentMap = new HashMap<>();
-        final Map<T, Integer> distanceMap = new HashMap<>();
+        final SearchNodeTable<T> table = new SearchNodeTable<>();
+        int closedSize = 0;
         
-        OPEN.insert(source, 0);
-        parentMap.put(source, null);
-        distanceMap.put(source, 0);
+        table.get(source).distanceA = 0;
+        OPEN.insert(source, heuristicFunction.estimate(source));
         
         while (!OPEN.isEmpty()) {
-            final T current = OPEN.extractMinimum();
+            // The priority of each node in OPEN is its g plus its estimate, 
+            // which allows recovering the estimate of 'current' for free.
+            final int f = OPEN.minPriority();
+            final SearchNode<T> current = table.get(OPEN.extractMinimum());
             
-            if (current.equals(target)) {
-                return tracebackPath(target, parentMap);
+            if (current.node.equals(target)) {
+                return SearchNode.tracebackPath(current);
             }
             
-            CLOSED.add(current);
+            // No node in OPEN, so no path, is shorter than the least f.
+            updateLowerBound(f);
+            nodeExpanded();
+            queueOperation();
+            current.closedA = true;
+            updatePeakSizes(OPEN.size(), ++closedSize);
             
-            for (final T child : current) {
-                if (CLOSED.contains(child)) {
+            final int currentEstimate = f - current.distanceA;
+            final int g = current.distanceA + 1;
+            
+            for (final T child : current.node) {
+                final SearchNode<T> record = table.get(child);
+                
+                if (record.closedA) {
+                    duplicateGenerated();
                     continue;
                 }
                 
-                final int g = distanceMap.get(current) + 1;
-                
-                if (!parentMap.containsKey(child)) {
-                    parentMap.put(child, current);
-                    distanceMap.put(child, g);
-                    OPEN.insert(child, g + heuristicFunction.estimate(child));
-                } else if (distanceMap.get(child) > g) {
-                    distanceMap.put(child, g);
-                    parentMap.put(child, current);
-                    OPEN.decreasePriority(child, 
-                                          g + heuristicFunction.
-                                              estimate(child));
+                if (record.distanceA == SearchNode.UNREACHED) {
+                    nodeGenerated();
+                    record.distanceA = g;
+                    record.parentA = current;
+                    OPEN.insert(child, 
+                                g + heuristicFunction.estimate(
+                                        child,
+                                        current.node,
+                                        currentEstimate));
+                    queueOperation();
+                } else {
+                    duplicateGenerated();
+                    
+                    if (record.distanceA > g) {
+                        record.distanceA = g;
+                        record.parentA = current;
+                        OPEN.decreasePriority(child, 
+                                              g + heuristicFunction.estimate(
+                                                      child,
+                                                      current.node,
+                                                      currentEstimate));
+                        queueOperation();
+                    }
                 }
             }
         }
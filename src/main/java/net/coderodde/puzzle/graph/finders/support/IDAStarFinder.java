@@ -0,0 +1,68 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.List;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements IDA*, the iterative deepening A*. Each iteration is a
+ * depth-first search pruning the nodes whose <tt>g + h</tt> exceeds the
+ * current bound, and the next bound is the least pruned value. The
+ * iterations run over a single mutable node without allocating; see
+ * {@link IDAStarSearch}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class IDAStarFinder extends AbstractPathFinder<PuzzleGraphNode> {
+
+    private final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction;
+
+    public IDAStarFinder(
+            final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction) {
+        this.heuristicFunction = heuristicFunction;
+    }
+
+    @Override
+    public IDAStarFinder spawn() {
+        return new IDAStarFinder(heuristicFunction.spawn());
+    }
+
+    @Override
+    protected List<PuzzleGraphNode> doSearch(final PuzzleGraphNode source,
+                                             final PuzzleGraphNode target) {
+        if (!source.isReachable(target)) {
+            // Otherwise, the iterations would never end.
+            return null;
+        }
+
+        heuristicFunction.setTarget(target);
+
+        final IDAStarSearch search = new IDAStarSearch(heuristicFunction,
+                                                       target,
+                                                       source,
+                                                       new int[0],
+                                                       null) {
+            @Override
+            void nodeExpanded() {
+                IDAStarFinder.this.nodeExpanded();
+            }
+
+            @Override
+            void nodeGenerated() {
+                IDAStarFinder.this.nodeGenerated();
+            }
+        };
+        final int estimate = heuristicFunction.estimate(source);
+        int bound = estimate;
+
+        while (!search.isFound()) {
+            // The previous iterations found no path shorter than 'bound'.
+            updateLowerBound(bound);
+            bound = search.search(0, estimate, bound, -1);
+        }
+
+        return IDAStarSearch.buildPath(source, search.getMoves(), bound);
+    }
+}
@@ -0,0 +1,229 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements a single bounded depth-first iteration of IDA* below
+ * a node, shared by {@link IDAStarFinder} and {@link ParallelIDAStarFinder}.
+ * <p>
+ * The search moves the empty cell of a single working node in place and
+ * moves it back when backtracking, so it allocates nothing per node and its
+ * memory is linear in the length of the path. A second working node trails
+ * the first one by one move, so that the heuristic function can derive the
+ * estimate of each child from the estimate of its parent. The inverse of the
+ * previous move is never tried.
+ * <p>
+ * A subclass may count the work through {@link #nodeExpanded()} and
+ * {@link #nodeGenerated()}, which may also stop the search by throwing.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+class IDAStarSearch {
+
+    /**
+     * The amount of move directions.
+     */
+    static final int DIRECTIONS = 4;
+
+    private final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction;
+
+    private final PuzzleGraphNode target;
+
+    /**
+     * The working node.
+     */
+    private final PuzzleGraphNode node;
+
+    /**
+     * The parent of {@link #node} while its children are being estimated,
+     * and equal to it otherwise.
+     */
+    private final PuzzleGraphNode parent;
+
+    /**
+     * When set, the search gives up. May be <code>null</code>.
+     */
+    private final AtomicBoolean stop;
+
+    /**
+     * <code>moves[i]</code> is the direction of the <code>i</code>th move on
+     * the current path from the source node.
+     */
+    private int[] moves;
+
+    /**
+     * Set once the target is reached.
+     */
+    private boolean found;
+
+    /**
+     * Constructs a search below <code>node</code>.
+     *
+     * @param heuristicFunction the heuristic function with the target set.
+     * @param target            the target node.
+     * @param node              the root node of the search; not modified.
+     * @param prefix            the moves leading from the source node to
+     *                          <code>node</code>.
+     * @param stop              the flag stopping the search, or
+     *                          <code>null</code>.
+     */
+    IDAStarSearch(
+            final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction,
+            final PuzzleGraphNode target,
+            final PuzzleGraphNode node,
+            final int[] prefix,
+            final AtomicBoolean stop) {
+        this.heuristicFunction = heuristicFunction;
+        this.target = target;
+        this.node = node.copy();
+        this.parent = node.copy();
+        this.stop = stop;
+        this.moves = new int[Math.max(16, 2 * prefix.length)];
+        System.arraycopy(prefix, 0, moves, 0, prefix.length);
+    }
+
+    /**
+     * Searches depth-first below the working node.
+     *
+     * @param  g        the length of the path to the working node.
+     * @param  h        the estimate of the working node.
+     * @param  bound    the bound of the current iteration.
+     * @param  previous the direction of the last move, or -1.
+     * @return the length of the path if the target is found, and otherwise
+     *         the least <tt>g + h</tt> exceeding <code>bound</code>, or
+     *         {@link Integer#MAX_VALUE} if stopped.
+     */
+    int search(final int g,
+               final int h,
+               final int bound,
+               final int previous) {
+        if (h == 0 && node.equals(target)) {
+            found = true;
+            return g;
+        }
+
+        if (stop != null && stop.get()) {
+            return Integer.MAX_VALUE;
+        }
+
+        nodeExpanded();
+
+        if (g == moves.length) {
+            final int[] newMoves = new int[2 * moves.length];
+            System.arraycopy(moves, 0, newMoves, 0, moves.length);
+            moves = newMoves;
+        }
+
+        int next = Integer.MAX_VALUE;
+
+        for (int direction = 0; direction < DIRECTIONS; ++direction) {
+            if (previous >= 0 && direction == inverse(previous)) {
+                continue;
+            }
+
+            if (!node.moveInPlace(direction)) {
+                continue;
+            }
+
+            nodeGenerated();
+
+            // A child estimate reaching 'bound - g' gets it pruned.
+            final int childH = heuristicFunction.estimate(node,
+                                                          parent,
+                                                          h,
+                                                          bound - g);
+            final int f = g + 1 + childH;
+
+            if (f > bound) {
+                next = Math.min(next, f);
+                node.moveInPlace(inverse(direction));
+                continue;
+            }
+
+            parent.moveInPlace(direction);
+            moves[g] = direction;
+            final int result = search(g + 1, childH, bound, direction);
+
+            if (found) {
+                return result;
+            }
+
+            next = Math.min(next, result);
+            node.moveInPlace(inverse(direction));
+            parent.moveInPlace(inverse(direction));
+        }
+
+        return next;
+    }
+
+    /**
+     * Called before expanding each node. Does nothing by default.
+     */
+    void nodeExpanded() {
+    }
+
+    /**
+     * Called on generating each node. Does nothing by default.
+     */
+    void nodeGenerated() {
+    }
+
+    /**
+     * Returns <code>true</code> if the last search reached the target.
+     *
+     * @return <code>true</code> if the target is found.
+     */
+    boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Returns the moves of the path found by the last search, followed by
+     * garbage.
+     *
+     * @return the moves.
+     */
+    int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the inverse of <code>direction</code>.
+     *
+     * @param  direction the direction.
+     * @return the inverse direction.
+     */
+    static int inverse(final int direction) {
+        return (direction + DIRECTIONS / 2) % DIRECTIONS;
+    }
+
+    /**
+     * Replays the first <code>length</code> moves of <code>moves</code>
+     * starting from <code>source</code>.
+     *
+     * @param  source the source node.
+     * @param  moves  the moves.
+     * @param  length the amount of moves.
+     * @return the path.
+     */
+    static List<PuzzleGraphNode> buildPath(final PuzzleGraphNode source,
+                                           final int[] moves,
+                                           final int length) {
+        final List<PuzzleGraphNode> path = new ArrayList<>(length + 1);
+        PuzzleGraphNode current = source.copy();
+        path.add(current);
+
+        for (int i = 0; i < length; ++i) {
+            current = current.copy();
+            current.moveInPlace(moves[i]);
+            path.add(current);
+        }
+
+        return path;
+    }
+}
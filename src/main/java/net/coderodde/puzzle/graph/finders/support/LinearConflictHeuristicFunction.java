@@ -0,0 +1,248 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements the Manhattan heuristic function augmented with
+ * linear conflicts. Two cells are in linear conflict if they reside in their
+ * target row (column) but in the wrong order; resolving it requires at least
+ * two moves on top of the Manhattan distance. For each row (column), the
+ * penalty is two moves per cell that has to leave the line, which is the
+ * amount of cells in their target line minus the length of the longest
+ * subsequence of them already in the correct order.
+ * <p>
+ * A move of a cell along a row changes only the two columns it leaves and
+ * enters, and a move along a column only the two rows, so the estimate of a
+ * node is derived from the estimate of its neighbor by recomputing the
+ * conflicts in those two lines only.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class LinearConflictHeuristicFunction
+extends AbstractHeuristicFunction<PuzzleGraphNode> {
+
+    /**
+     * Maps a cell number to its x-coordinate in the target node.
+     */
+    private final int[] xArray;
+
+    /**
+     * Maps a cell number to its y-coordinate in the target node.
+     */
+    private final int[] yArray;
+
+    /**
+     * Holds the target positions of the cells of the line being processed.
+     */
+    private final int[] line;
+
+    /**
+     * <code>tails[i]</code> is the smallest possible last element of an
+     * increasing subsequence of length <code>i + 1</code>.
+     */
+    private final int[] tails;
+
+    private final PuzzleGraphNode source;
+
+    /**
+     * Caches the target node.
+     */
+    private PuzzleGraphNode target;
+
+    public LinearConflictHeuristicFunction(final PuzzleGraphNode sourceNode) {
+        final int degree = sourceNode.getDegree();
+        this.source = sourceNode;
+        this.xArray = new int[degree * degree];
+        this.yArray = new int[degree * degree];
+        this.line = new int[degree];
+        this.tails = new int[degree];
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>source</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode source) {
+        final int degree = source.getDegree();
+        int distance = 0;
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = source.get(x, y);
+
+                if (currentCell != 0) {
+                    distance += Math.abs(x - xArray[currentCell]) +
+                                Math.abs(y - yArray[currentCell]);
+                }
+            }
+        }
+
+        int conflicts = 0;
+
+        for (int i = 0; i < degree; ++i) {
+            conflicts += rowConflicts(source, i) + columnConflicts(source, i);
+        }
+
+        return distance + 2 * conflicts;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>node</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode node,
+                        final PuzzleGraphNode parent,
+                        final int parentEstimate) {
+        final int toX = parent.getEmptySlotX();
+        final int toY = parent.getEmptySlotY();
+        final int fromX = node.getEmptySlotX();
+        final int fromY = node.getEmptySlotY();
+        final int cell = node.get(toX, toY);
+
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) != 1
+                || parent.get(fromX, fromY) != cell) {
+            // Not neighbors.
+            return estimate(node);
+        }
+
+        int delta = Math.abs(toX - xArray[cell])
+                  + Math.abs(toY - yArray[cell])
+                  - Math.abs(fromX - xArray[cell])
+                  - Math.abs(fromY - yArray[cell]);
+
+        if (fromX == toX) {
+            // The cell moved to another row; the order within its column is
+            // intact.
+            delta += 2 * (rowConflicts(node, fromY)
+                        + rowConflicts(node, toY)
+                        - rowConflicts(parent, fromY)
+                        - rowConflicts(parent, toY));
+        } else {
+            delta += 2 * (columnConflicts(node, fromX)
+                        + columnConflicts(node, toX)
+                        - columnConflicts(parent, fromX)
+                        - columnConflicts(parent, toX));
+        }
+
+        return parentEstimate + delta;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final PuzzleGraphNode target) {
+        final int degree = target.getDegree();
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = target.get(x, y);
+                xArray[currentCell] = x;
+                yArray[currentCell] = y;
+            }
+        }
+
+        this.target = target;
+    }
+
+    @Override
+    public AbstractHeuristicFunction<PuzzleGraphNode> spawn() {
+        return new LinearConflictHeuristicFunction(source);
+    }
+
+    /**
+     * Computes the amount of cells that must leave the row <code>y</code> of
+     * <code>node</code> in order to resolve its linear conflicts.
+     *
+     * @param  node the node.
+     * @param  y    the row index.
+     * @return the amount of cells in conflict.
+     */
+    private int rowConflicts(final PuzzleGraphNode node, final int y) {
+        final int degree = node.getDegree();
+        int length = 0;
+
+        for (int x = 0; x < degree; ++x) {
+            final int cell = node.get(x, y);
+
+            if (cell != 0 && yArray[cell] == y) {
+                line[length++] = xArray[cell];
+            }
+        }
+
+        return length - longestIncreasingSubsequence(length);
+    }
+
+    /**
+     * Computes the amount of cells that must leave the column <code>x</code>
+     * of <code>node</code> in order to resolve its linear conflicts.
+     *
+     * @param  node the node.
+     * @param  x    the column index.
+     * @return the amount of cells in conflict.
+     */
+    private int columnConflicts(final PuzzleGraphNode node, final int x) {
+        final int degree = node.getDegree();
+        int length = 0;
+
+        for (int y = 0; y < degree; ++y) {
+            final int cell = node.get(x, y);
+
+            if (cell != 0 && xArray[cell] == x) {
+                line[length++] = yArray[cell];
+            }
+        }
+
+        return length - longestIncreasingSubsequence(length);
+    }
+
+    /**
+     * Computes the length of the longest increasing subsequence of the first
+     * <code>length</code> entries of {@link #line} in
+     * <tt>O(n log n)</tt> time.
+     *
+     * @param  length the length of the sequence.
+     * @return the length of the longest increasing subsequence.
+     */
+    private int longestIncreasingSubsequence(final int length) {
+        int size = 0;
+
+        for (int i = 0; i < length; ++i) {
+            final int value = line[i];
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+
+                if (tails[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            tails[low] = value;
+
+            if (low == size) {
+                ++size;
+            }
+        }
+
+        return size;
+    }
+}
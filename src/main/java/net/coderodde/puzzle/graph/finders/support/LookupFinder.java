@@ -0,0 +1,189 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements a path finder that does not search at all: it
+ * descends from the source to the target through a {@link RetrogradeTable},
+ * moving at each step to the neighbor one move closer to the target. The
+ * tiles are relabeled so that the target becomes the goal state of the table,
+ * which requires the empty cell of the target to be in the bottom right
+ * corner.
+ * <p>
+ * The table is built on the first search on a board of a given size, which
+ * makes sense only for small boards; the largest square board supported is
+ * 3x3.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class LookupFinder extends AbstractPathFinder<PuzzleGraphNode> {
+
+    /**
+     * The default directory for the table files.
+     */
+    private static final File DEFAULT_DIRECTORY =
+            new File(System.getProperty("java.io.tmpdir"), "puzzle-retrograde");
+
+    private final File directory;
+    private final int threads;
+
+    /**
+     * Constructs a finder.
+     *
+     * @param directory the directory holding the table files.
+     * @param threads   the amount of threads building a missing table.
+     */
+    public LookupFinder(final File directory, final int threads) {
+        this.directory = directory;
+        this.threads = threads;
+    }
+
+    /**
+     * Constructs a finder keeping its tables in the temporary-file directory,
+     * building them with a thread per available processor.
+     */
+    public LookupFinder() {
+        this(DEFAULT_DIRECTORY, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public LookupFinder spawn() {
+        return new LookupFinder(directory, threads);
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @throws java.lang.IllegalArgumentException if the empty cell of
+     *                                            <code>target</code> is not
+     *                                            in the bottom right corner,
+     *                                            or the board is too large.
+     */
+    @Override
+    protected List<PuzzleGraphNode> doSearch(final PuzzleGraphNode source,
+                                             final PuzzleGraphNode target) {
+        final int degree = target.getDegree();
+
+        if (target.getEmptySlotX() != degree - 1
+                || target.getEmptySlotY() != degree - 1) {
+            throw new IllegalArgumentException(
+                    "The empty cell of the target must be in the bottom " +
+                    "right corner.");
+        }
+
+        if (!source.isReachable(target)) {
+            return null;
+        }
+
+        final RetrogradeTable table =
+                RetrogradeTable.get(directory, degree, degree, threads);
+        final int cells = degree * degree;
+
+        // targetIndex[t] is the index of the cell of the tile t in the target.
+        final int[] targetIndex = new int[cells];
+
+        for (int index = 0; index < cells; ++index) {
+            targetIndex[target.get(index)] = index;
+        }
+
+        // The tile belonging to the target cell k is relabeled k + 1.
+        final int[] positions = new int[cells];
+
+        for (int index = 0; index < cells; ++index) {
+            final int tile = source.get(index);
+            positions[tile == 0 ? cells - 1 : targetIndex[tile]] = index;
+        }
+
+        final List<PuzzleGraphNode> path = new ArrayList<>();
+        PuzzleGraphNode current = source;
+        int depth = table.getDepthMod3(positions);
+        path.add(current);
+
+        while (!current.equals(target)) {
+            // The neighbor one move closer has the distance less by one.
+            final int previousDepth = (depth + 2) % 3;
+            final int empty = positions[cells - 1];
+            boolean moved = false;
+
+            for (int direction = PuzzleGraphNode.UP;
+                    direction <= PuzzleGraphNode.LEFT;
+                    ++direction) {
+                final int cell = neighborCell(empty, degree, direction);
+
+                if (cell < 0) {
+                    continue;
+                }
+
+                final int entry = entryAt(positions, cell);
+                positions[entry] = empty;
+                positions[cells - 1] = cell;
+
+                if (table.getDepthMod3(positions) == previousDepth) {
+                    current = current.copy();
+                    current.moveInPlace(direction);
+                    path.add(current);
+                    depth = previousDepth;
+                    moved = true;
+                    break;
+                }
+
+                // Undo the move.
+                positions[entry] = cell;
+                positions[cells - 1] = empty;
+            }
+
+            if (!moved) {
+                throw new IllegalStateException(
+                        "The retrograde table is inconsistent.");
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns the index of the cell next to <code>cell</code> towards
+     * <code>direction</code>, or <tt>-1</tt> if there is no such cell.
+     */
+    private static int neighborCell(final int cell,
+                                    final int degree,
+                                    final int direction) {
+        final int x = cell % degree;
+        final int y = cell / degree;
+
+        switch (direction) {
+            case PuzzleGraphNode.UP:
+                return y > 0 ? cell - degree : -1;
+
+            case PuzzleGraphNode.RIGHT:
+                return x < degree - 1 ? cell + 1 : -1;
+
+            case PuzzleGraphNode.DOWN:
+                return y < degree - 1 ? cell + degree : -1;
+
+            case PuzzleGraphNode.LEFT:
+                return x > 0 ? cell - 1 : -1;
+        }
+
+        throw new IllegalStateException("Should not get here.");
+    }
+
+    /**
+     * Returns the index of the entry of <code>positions</code> equal to
+     * <code>cell</code>.
+     */
+    private static int entryAt(final int[] positions, final int cell) {
+        for (int i = 0; i < positions.length; ++i) {
+            if (positions[i] == cell) {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("Should not get here.");
+    }
+}
@@ -4,7 +4,10 @@ import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
 import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
 
 /**
- * This class implements the Manhattan heuristic function.
+ * This class implements the Manhattan heuristic function. Since a move
+ * displaces exactly one cell by exactly one position, the estimate of a node
+ * can be derived in constant time from the estimate of its neighbor; see
+ * {@link #estimate(PuzzleGraphNode, PuzzleGraphNode, int)}.
  * 
  * @author Rodion Efremov
  * @version 1.6
@@ -13,12 +16,14 @@ public class ManhattanHeuristicFunction
 extends AbstractHeuristicFunction<PuzzleGraphNode> {
 
     /**
-     * Implements a simple map from a cell number to its x-coordinate.
+     * Implements a simple map from a cell number to its x-coordinate in the
+     * target node.
      */
     private final int[] xArray;
     
     /**
-     * Implements a simple map from a cell number to its y-coordinate.
+     * Implements a simple map from a cell number to its y-coordinate in the
+     * target node.
      */
     private final int[] yArray;
     
@@ -53,31 +58,51 @@ extends AbstractHeuristicFunction<PuzzleGraphNode> {
             for (int x = 0; x < degree; ++x) {
                 final int currentCell = source.get(x, y);
                 
-                if (currentCell < 0) {
-                    break;
+                if (currentCell != 0) {
+                    distance += Math.abs(x - xArray[currentCell]) +
+                                Math.abs(y - yArray[currentCell]);
                 }
-                
-                xArray[currentCell] = x;
-                yArray[currentCell] = y;
             }
         }
         
-        for (int y = 0; y < degree; ++y) {
-            for (int x = 0; x < degree; ++x) {
-                final int currentCell = target.get(x, y);
+        return distance;
+    }
                 
-                distance += Math.abs(x - xArray[currentCell]) +
-                            Math.abs(y - yArray[currentCell]);
-            }
+    /**
+     * {@inheritDoc }
+     * <p>
+     * Moving from <code>parent</code> to <code>node</code> moves the cell at
+     * the empty slot of <code>node</code> to the empty slot of
+     * <code>parent</code>, so only the distance of that cell changes, by
+     * exactly one.
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>node</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode node,
+                        final PuzzleGraphNode parent,
+                        final int parentEstimate) {
+        final int toX = parent.getEmptySlotX();
+        final int toY = parent.getEmptySlotY();
+        final int fromX = node.getEmptySlotX();
+        final int fromY = node.getEmptySlotY();
+        final int cell = node.get(toX, toY);
+
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) != 1
+                || parent.get(fromX, fromY) != cell) {
+            // Not neighbors.
+            return estimate(node);
         }
         
-        final int targetX = target.getEmptySlotX();
-        final int targetY = target.getEmptySlotY();
-        
-        distance -= Math.abs(xArray[0] - targetX) +
-                    Math.abs(yArray[0] - targetY);
-        
-        return distance;
+        return parentEstimate
+                - Math.abs(fromX - xArray[cell])
+                - Math.abs(fromY - yArray[cell])
+                + Math.abs(toX - xArray[cell])
+                + Math.abs(toY - yArray[cell]);
     }
 
     /**
@@ -87,6 +112,16 @@ extends AbstractHeuristicFunction<PuzzleGraphNode> {
      */
     @Override
     public void setTarget(PuzzleGraphNode target) {
+        final int degree = target.getDegree();
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = target.get(x, y);
+                xArray[currentCell] = x;
+                yArray[currentCell] = y;
+            }
+        }
+
         this.target = target;
     }
     
@@ -0,0 +1,201 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Arrays;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+
+/**
+ * This class implements a heuristic function returning the maximum of the
+ * estimates of several admissible heuristic functions, which is admissible as
+ * well. The functions are evaluated in the order given, so the cheap ones
+ * should come first: when the caller passes a bound, the evaluation stops as
+ * soon as the maximum so far reaches it, and the expensive functions run only
+ * for the nodes they could still keep from being pruned.
+ * <p>
+ * The estimate of a node derived from a neighbor needs the estimates of the
+ * neighbor by each function, which the finders do not keep. They are computed
+ * lazily and cached for the last neighbor seen, identified by reference and
+ * {@link AbstractGraphNode#longHashCode()}; since the finders generate all
+ * the neighbors of a node in a row, each function still derives the estimates
+ * incrementally.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class MaxHeuristicFunction<T extends AbstractGraphNode<T>>
+extends AbstractHeuristicFunction<T> {
+
+    private final AbstractHeuristicFunction<T>[] heuristicFunctions;
+
+    /**
+     * The last parent node seen.
+     */
+    private T parent;
+
+    /**
+     * The 64-bit hash of {@link #parent} at the time it was seen.
+     */
+    private long parentHash;
+
+    /**
+     * <code>parentEstimates[i]</code> is the estimate of {@link #parent} by
+     * the <code>i</code>th function, if <code>parentKnown[i]</code> is set.
+     */
+    private final int[] parentEstimates;
+
+    private final boolean[] parentKnown;
+
+    /**
+     * Constructs the maximum of the input heuristic functions.
+     *
+     * @param heuristicFunctions the heuristic functions, cheapest first.
+     * @throws java.lang.IllegalArgumentException if no function is given.
+     */
+    @SafeVarargs
+    public MaxHeuristicFunction(
+            final AbstractHeuristicFunction<T>... heuristicFunctions) {
+        if (heuristicFunctions.length == 0) {
+            throw new IllegalArgumentException(
+                    "At least one heuristic function is required.");
+        }
+
+        this.heuristicFunctions = newArray(heuristicFunctions.length);
+
+        for (int i = 0; i < heuristicFunctions.length; ++i) {
+            this.heuristicFunctions[i] = heuristicFunctions[i];
+        }
+
+        this.parentEstimates = new int[heuristicFunctions.length];
+        this.parentKnown = new boolean[heuristicFunctions.length];
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the maximum of the estimates.
+     */
+    @Override
+    public int estimate(final T source) {
+        return estimate(source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @param  bound  the bound.
+     * @return the maximum of the estimates computed before reaching
+     *         <code>bound</code>.
+     */
+    @Override
+    public int estimate(final T source, final int bound) {
+        int max = 0;
+
+        for (final AbstractHeuristicFunction<T> heuristicFunction :
+                heuristicFunctions) {
+            max = Math.max(max, heuristicFunction.estimate(source));
+
+            if (max >= bound) {
+                break;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the maximum of the estimates.
+     */
+    @Override
+    public int estimate(final T node,
+                        final T parent,
+                        final int parentEstimate) {
+        return estimate(node, parent, parentEstimate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @param  bound          the bound.
+     * @return the maximum of the estimates computed before reaching
+     *         <code>bound</code>.
+     */
+    @Override
+    public int estimate(final T node,
+                        final T parent,
+                        final int parentEstimate,
+                        final int bound) {
+        final long hash = parent.longHashCode();
+
+        if (parent != this.parent || hash != parentHash) {
+            this.parent = parent;
+            this.parentHash = hash;
+            Arrays.fill(parentKnown, false);
+        }
+
+        int max = 0;
+
+        for (int i = 0; i < heuristicFunctions.length; ++i) {
+            if (!parentKnown[i]) {
+                parentEstimates[i] = heuristicFunctions[i].estimate(parent);
+                parentKnown[i] = true;
+            }
+
+            max = Math.max(max,
+                           heuristicFunctions[i].estimate(node,
+                                                          parent,
+                                                          parentEstimates[i]));
+
+            if (max >= bound) {
+                break;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final T target) {
+        for (final AbstractHeuristicFunction<T> heuristicFunction :
+                heuristicFunctions) {
+            heuristicFunction.setTarget(target);
+        }
+
+        this.parent = null;
+        Arrays.fill(parentKnown, false);
+    }
+
+    @Override
+    public AbstractHeuristicFunction<T> spawn() {
+        final AbstractHeuristicFunction<T>[] spawned =
+                newArray(heuristicFunctions.length);
+
+        for (int i = 0; i < spawned.length; ++i) {
+            spawned[i] = heuristicFunctions[i].spawn();
+        }
+
+        return new MaxHeuristicFunction<>(spawned);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends AbstractGraphNode<T>>
+        AbstractHeuristicFunction<T>[] newArray(final int length) {
+        return (AbstractHeuristicFunction<T>[])
+                new AbstractHeuristicFunction<?>[length];
+    }
+}
@@ -1,11 +1,7 @@
 package net.coderodde.puzzle.graph.finders.support;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
 import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
@@ -28,7 +24,8 @@ extends AbstractPathFinder<T> {
     private int fA;
     private int fB;
     private int bestPathLength = Integer.MAX_VALUE;
-    private T touchNode;
+    private SearchNode<T> touchNode;
+    private int closedSize;
     
     public NBAFinder(final AbstractHeuristicFunction<T> heuristicFunction,
                      final IntegerPriorityQueue<?, T> queue) {
@@ -42,7 +39,12 @@ extends AbstractPathFinder<T> {
     }
      
     @Override
-    public List<T> search(final T source, final T target) {
+    public NBAFinder<T> spawn() {
+        return new NBAFinder<>(heuristicFunction.spawn(), queue.spawn());
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
         if (source.equals(target)) {
             final List<T> path = new ArrayList<>(1);
             path.add(source);
@@ -53,13 +55,13 @@ extends AbstractPathFinder<T> {
         final IntegerPriorityQueue<?, T> OPENA = queue.spawn();
         final IntegerPriorityQueue<?, T> OPENB = queue.spawn();
         
-        final Set<T> CLOSED = new HashSet<>();
-        
-        final Map<T, T> PARENTSA = new HashMap<>();
-        final Map<T, T> PARENTSB = new HashMap<>();
-        
-        final Map<T, Integer> DISTANCEA = new HashMap<>();
-        final Map<T, Integer> DISTANCEB = new HashMap<>();
+        // Holds the distances and parents of both searches. A node is closed
+        // once either search closes it. The priority of each node in an OPEN 
+        // list is its distance plus its estimate in the direction of that 
+        // search, which allows recovering that estimate for free. The 
+        // estimates in the opposite direction are cached in the records, so 
+        // that both can be derived from the estimates of the parent node.
+        final SearchNodeTable<T> table = new SearchNodeTable<>();
         
         heuristicFunction.setTarget(target);
         heuristicFunctionRev.setTarget(source);
@@ -68,47 +70,48 @@ extends AbstractPathFinder<T> {
         this.fA = totalDistance;
         this.fB = totalDistance;
         this.bestPathLength = Integer.MAX_VALUE;
+        this.touchNode = null;
+        this.closedSize = 0;
         
         // Initialization
         heuristicFunction.setTarget(target);
         heuristicFunctionRev.setTarget(source);
         
-        OPENA.insert(source, 0);
-        OPENB.insert(target, 0);
+        OPENA.insert(source, totalDistance);
+        OPENB.insert(target, heuristicFunctionRev.estimate(target));
         
-        PARENTSA.put(source, null);
-        PARENTSB.put(target, null);
+        final SearchNode<T> sourceRecord = table.get(source);
+        final SearchNode<T> targetRecord = table.get(target);
         
-        DISTANCEA.put(source, 0);
-        DISTANCEB.put(target, 0);
+        sourceRecord.distanceA = 0;
+        targetRecord.distanceB = 0;
+        
+        sourceRecord.estimateA = heuristicFunctionRev.estimate(source);
+        targetRecord.estimateB = totalDistance;
         
         while (!OPENA.isEmpty() && !OPENB.isEmpty()) {            
+            // A path shorter than the best one found must pass through
+            // nodes in both OPEN lists.
+            updateLowerBound(Math.min(bestPathLength, Math.max(fA, fB)));
+            updatePeakSizes(OPENA.size() + OPENB.size(), closedSize);
+            
             if (OPENA.size() < OPENB.size()) {
                 expandInForwardDirection(
                         OPENA,
-                        CLOSED,
-                        DISTANCEA,
-                        DISTANCEB, 
-                        PARENTSA,
+                        table,
                         heuristicFunction, 
                         heuristicFunctionRev);
             } else {
                 expandInBackwardDirection(
                         OPENB,
-                        CLOSED, 
-                        DISTANCEA, 
-                        DISTANCEB, 
-                        PARENTSB, 
+                        table,
                         heuristicFunction, 
                         heuristicFunctionRev);
             }
         }
         
         if (touchNode != null) {
-            return tracebackPath(
-                    touchNode,
-                    PARENTSA,
-                    PARENTSB);
+            return SearchNode.tracebackPath(touchNode);
         }
         
         return null;
@@ -116,57 +119,93 @@ extends AbstractPathFinder<T> {
     
     private void expandInForwardDirection(
             final IntegerPriorityQueue<?, T> OPENA,
-            final Set<T> CLOSED,
-            final Map<T, Integer> DISTANCEA,
-            final Map<T, Integer> DISTANCEB,
-            final Map<T, T> PARENTSA,
+            final SearchNodeTable<T> table,
             final AbstractHeuristicFunction<T> heuristicFunction,
             final AbstractHeuristicFunction<T> heuristicFunctionRev) {
-        T currentNode = OPENA.extractMinimum();
+        final int f = OPENA.minPriority();
+        final SearchNode<T> current = table.get(OPENA.extractMinimum());
+        final T currentNode = current.node;
+        queueOperation();
         
-        if (CLOSED.contains(currentNode)) {
+        if (current.closedA || current.closedB) {
             return;
         }
         
-        CLOSED.add(currentNode);
+        nodeExpanded();
+        current.closedA = true;
+        ++closedSize;
+        
+        final int currentDistance = current.distanceA;
+        final int currentEstimate = f - currentDistance;
+        final int currentEstimateRev = current.estimateA;
         
-        if (DISTANCEA.get(currentNode)
-                + heuristicFunction.estimate(currentNode)
+        if (currentDistance
+                + currentEstimate
                 >= bestPathLength
                 ||
-                DISTANCEA.get(currentNode)
+                currentDistance
                 + fB 
-                - heuristicFunctionRev.estimate(currentNode) 
+                - currentEstimateRev
                 >= bestPathLength) {
             // Reject the 'currentNode'.
         } else {
             // Stabilize the 'currentNode'.
             for (T childNode : currentNode) {
-                if (CLOSED.contains(childNode)) {
+                final SearchNode<T> record = table.get(childNode);
+                
+                if (record.closedA || record.closedB) {
+                    duplicateGenerated();
                     continue;
                 }
                 
-                int tentativeDistance = DISTANCEA.get(currentNode) + 1;
+                int tentativeDistance = currentDistance + 1;
+                final int childDistance = record.distanceA;
+                
+                if (childDistance != SearchNode.UNREACHED) {
+                    duplicateGenerated();
+                }
                 
-                if (!DISTANCEA.containsKey(childNode) 
-                        || DISTANCEA.get(childNode) 
-                        > tentativeDistance) {
-                    DISTANCEA.put(childNode, tentativeDistance);
-                    PARENTSA.put(childNode, currentNode);
+                if (childDistance == SearchNode.UNREACHED 
+                        || childDistance > tentativeDistance) {
+                    record.distanceA = tentativeDistance;
+                    record.parentA = current;
                     
-                    OPENA.insert(
-                            childNode,
+                    // A priority reaching 'bestPathLength' gets the node 
+                    // rejected anyway, so the heuristic function may stop 
+                    // there.
+                    final int priority = 
                             tentativeDistance 
-                                    + heuristicFunction.estimate(
-                                            childNode));
+                            + heuristicFunction.estimate(
+                                    childNode,
+                                    currentNode,
+                                    currentEstimate,
+                                    bestPathLength - tentativeDistance);
                     
-                    if (DISTANCEB.containsKey(childNode)) {
+                    if (childDistance == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        OPENA.insert(childNode, priority);
+                        queueOperation();
+                        record.estimateA =
+                                heuristicFunctionRev.estimate(
+                                        childNode,
+                                        currentNode,
+                                        currentEstimateRev);
+                    } else if (priority < bestPathLength) {
+                        // Otherwise, the node is rejected anyway, and a 
+                        // bounded estimate may exceed the earlier one.
+                        OPENA.decreasePriority(childNode, priority);
+                        queueOperation();
+                    }
+                    
+                    final int otherDistance = record.distanceB;
+                    
+                    if (otherDistance != SearchNode.UNREACHED) {
                         final int pathLength = tentativeDistance 
-                                             + DISTANCEB.get(childNode);
+                                             + otherDistance;
 
                         if (bestPathLength > pathLength) {
                             bestPathLength = pathLength;
-                            touchNode = childNode;
+                            touchNode = record;
                         }
                     }
                 }
@@ -180,57 +219,89 @@ extends AbstractPathFinder<T> {
     
     private void expandInBackwardDirection(
             final IntegerPriorityQueue<?, T> OPENB,
-            final Set<T> CLOSED,
-            final Map<T, Integer> DISTANCEA,
-            final Map<T, Integer> DISTANCEB,
-            final Map<T, T> PARENTSB,
+            final SearchNodeTable<T> table,
             final AbstractHeuristicFunction<T> heuristicFunction,
             final AbstractHeuristicFunction<T> heuristicFunctionRev) {
-        T currentNode = OPENB.extractMinimum();
+        final int f = OPENB.minPriority();
+        final SearchNode<T> current = table.get(OPENB.extractMinimum());
+        final T currentNode = current.node;
+        queueOperation();
         
-        if (CLOSED.contains(currentNode)) {
+        if (current.closedA || current.closedB) {
             return;
         }
         
-        CLOSED.add(currentNode);
+        nodeExpanded();
+        current.closedB = true;
+        ++closedSize;
         
-        if (DISTANCEB.get(currentNode)
-                + heuristicFunctionRev.estimate(currentNode)
+        final int currentDistance = current.distanceB;
+        final int currentEstimateRev = f - currentDistance;
+        final int currentEstimate = current.estimateB;
+        
+        if (currentDistance
+                + currentEstimateRev
                 >= bestPathLength
                 ||
-                DISTANCEB.get(currentNode)
+                currentDistance
                 + fA 
-                - heuristicFunction.estimate(currentNode) 
+                - currentEstimate
                 >= bestPathLength) {
             // Reject the 'currentNode'.
         } else {
             // Stabilize the 'currentNode'.
             for (T parentNode : currentNode.parents()) {
-                if (CLOSED.contains(parentNode)) {
+                final SearchNode<T> record = table.get(parentNode);
+                
+                if (record.closedA || record.closedB) {
+                    duplicateGenerated();
                     continue;
                 }
                 
-                int tentativeDistance = DISTANCEB.get(currentNode) + 1;
+                int tentativeDistance = currentDistance + 1;
+                final int parentDistance = record.distanceB;
                 
-                if (!DISTANCEB.containsKey(parentNode) 
-                        || DISTANCEB.get(parentNode) 
-                        > tentativeDistance) {
-                    DISTANCEB.put(parentNode, tentativeDistance);
-                    PARENTSB.put(parentNode, currentNode);
+                if (parentDistance != SearchNode.UNREACHED) {
+                    duplicateGenerated();
+                }
+                
+                if (parentDistance == SearchNode.UNREACHED 
+                        || parentDistance > tentativeDistance) {
+                    record.distanceB = tentativeDistance;
+                    record.parentB = current;
                     
-                    OPENB.insert(
-                            parentNode,
+                    final int priority = 
                             tentativeDistance 
-                                    + heuristicFunctionRev.estimate(
-                                            parentNode));
+                            + heuristicFunctionRev.estimate(
+                                    parentNode,
+                                    currentNode,
+                                    currentEstimateRev,
+                                    bestPathLength - tentativeDistance);
+                    
+                    if (parentDistance == SearchNode.UNREACHED) {
+                        nodeGenerated();
+                        OPENB.insert(parentNode, priority);
+                        queueOperation();
+                        record.estimateB =
+                                heuristicFunction.estimate(parentNode,
+                                                           currentNode,
+                                                           currentEstimate);
+                    } else if (priority < bestPathLength) {
+                        // Otherwise, the node is rejected anyway, and a 
+                        // bounded estimate may exceed the earlier one.
+                        OPENB.decreasePriority(parentNode, priority);
+                        queueOperation();
+                    }
+                    
+                    final int otherDistance = record.distanceA;
                     
-                    if (DISTANCEA.containsKey(parentNode)) {
+                    if (otherDistance != SearchNode.UNREACHED) {
                         final int pathLength = tentativeDistance 
-                                             + DISTANCEA.get(parentNode);
+                                             + otherDistance;
 
                         if (bestPathLength > pathLength) {
                             bestPathLength = pathLength;
-                            touchNode = parentNode;
+                            touchNode = record;
                         }
                     }
                 }
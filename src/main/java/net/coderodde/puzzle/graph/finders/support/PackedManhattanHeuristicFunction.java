@@ -0,0 +1,119 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PackedPuzzleState;
+
+/**
+ * This class implements the Manhattan heuristic function over packed puzzle
+ * nodes.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class PackedManhattanHeuristicFunction
+extends AbstractHeuristicFunction<PackedPuzzleState> {
+
+    /**
+     * The maximum amount of cells in a packed node.
+     */
+    private static final int MAXIMUM_CELLS = 16;
+
+    /**
+     * Maps each cell number to the index of its cell in the target node.
+     */
+    private final int[] targetIndex = new int[MAXIMUM_CELLS];
+
+    /**
+     * <code>distance[i][j]</code> is the Manhattan distance between the cells
+     * at indices <code>i</code> and <code>j</code>.
+     */
+    private int[][] distance;
+
+    /**
+     * Caches the target node.
+     */
+    private PackedPuzzleState target;
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>source</code>.
+     */
+    @Override
+    public int estimate(final PackedPuzzleState source) {
+        final int cells = source.getDegree() * source.getDegree();
+        long state = source.getState();
+        int d = 0;
+
+        for (int index = 0; index < cells; ++index, state >>>= 4) {
+            final int cell = (int)(state & 0xFL);
+
+            if (cell != 0) {
+                d += distance[index][targetIndex[cell]];
+            }
+        }
+
+        return d;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>node</code>.
+     */
+    @Override
+    public int estimate(final PackedPuzzleState node,
+                        final PackedPuzzleState parent,
+                        final int parentEstimate) {
+        final int to = parent.getEmptySlotIndex();
+        final int from = node.getEmptySlotIndex();
+        final int cell = node.get(to);
+
+        if (distance[from][to] != 1 || parent.get(from) != cell) {
+            // Not neighbors.
+            return estimate(node);
+        }
+
+        return parentEstimate - distance[from][targetIndex[cell]]
+                              + distance[to][targetIndex[cell]];
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final PackedPuzzleState target) {
+        final int degree = target.getDegree();
+        final int cells = degree * degree;
+
+        if (this.target == null || this.target.getDegree() != degree) {
+            distance = new int[cells][cells];
+
+            for (int i = 0; i < cells; ++i) {
+                for (int j = 0; j < cells; ++j) {
+                    distance[i][j] = Math.abs(i % degree - j % degree) +
+                                     Math.abs(i / degree - j / degree);
+                }
+            }
+        }
+
+        for (int index = 0; index < cells; ++index) {
+            targetIndex[target.get(index)] = index;
+        }
+
+        this.target = target;
+    }
+
+    @Override
+    public AbstractHeuristicFunction<PackedPuzzleState> spawn() {
+        return new PackedManhattanHeuristicFunction();
+    }
+}
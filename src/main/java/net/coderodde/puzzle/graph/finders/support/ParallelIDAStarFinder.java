@@ -0,0 +1,334 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements a parallel IDA*. Within each iteration, the search
+ * tree is split into a task per node down to the split depth, and the
+ * subtrees below are searched sequentially by {@link IDAStarSearch}; the
+ * tasks are run by a fork/join pool, whose idle workers steal the pending
+ * tasks of the busy ones. Once a task reaches the target, the other tasks of
+ * the iteration give up.
+ * <p>
+ * Since no path shorter than the bound of an iteration exists, any path
+ * found within the bound is a shortest one. Each worker thread uses its own
+ * copy of the heuristic function, obtained once per search by
+ * {@link AbstractHeuristicFunction#spawn()}. A task finishes its estimates
+ * before forking, so no two tasks ever use a copy at the same time.
+ * <p>
+ * The tasks check the cancellation token, the time limit and the memory limit
+ * every {@link #EXPANSIONS_PER_LIMIT_CHECK} expansions, and the iteration
+ * gives up once one of them is reached.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class ParallelIDAStarFinder extends AbstractPathFinder<PuzzleGraphNode> {
+
+    /**
+     * The default depth down to which the search tree is split into tasks.
+     */
+    private static final int DEFAULT_SPLIT_DEPTH = 8;
+
+    /**
+     * The amount of expansions of a task between two checks of the limits.
+     * Must be a power of two.
+     */
+    private static final int EXPANSIONS_PER_LIMIT_CHECK = 1024;
+
+    private final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Holds the pool shared by the finders constructed without one. Its
+     * workers are daemon threads, so it needs no shutdown.
+     */
+    private static final class DefaultPool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Hands each worker thread its own copy of the heuristic function, with
+     * the target of a search set.
+     */
+    private static final class WorkerHeuristicFunction
+    extends ThreadLocal<AbstractHeuristicFunction<PuzzleGraphNode>> {
+
+        private final AbstractHeuristicFunction<PuzzleGraphNode>
+                heuristicFunction;
+        private final PuzzleGraphNode target;
+
+        WorkerHeuristicFunction(
+                final AbstractHeuristicFunction<PuzzleGraphNode>
+                        heuristicFunction,
+                final PuzzleGraphNode target) {
+            this.heuristicFunction = heuristicFunction;
+            this.target = target;
+        }
+
+        @Override
+        protected AbstractHeuristicFunction<PuzzleGraphNode> initialValue() {
+            final AbstractHeuristicFunction<PuzzleGraphNode> spawned =
+                    heuristicFunction.spawn();
+            spawned.setTarget(target);
+            return spawned;
+        }
+    }
+
+    /**
+     * The state shared by the tasks of a single iteration.
+     */
+    private static final class Iteration {
+
+        final ParallelIDAStarFinder finder;
+        final WorkerHeuristicFunction heuristicFunction;
+        final PuzzleGraphNode target;
+        final int bound;
+        final int splitDepth;
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<int[]> solution = new AtomicReference<>();
+
+        Iteration(
+                final ParallelIDAStarFinder finder,
+                final WorkerHeuristicFunction heuristicFunction,
+                final PuzzleGraphNode target,
+                final int bound,
+                final int splitDepth) {
+            this.finder = finder;
+            this.heuristicFunction = heuristicFunction;
+            this.target = target;
+            this.bound = bound;
+            this.splitDepth = splitDepth;
+        }
+
+        /**
+         * Stops the iteration if a limit of the search is reached.
+         */
+        void checkLimits() {
+            if (finder.isLimitReached()) {
+                stop.set(true);
+            }
+        }
+    }
+
+    /**
+     * Searches the subtree below a node within the bound of an iteration.
+     * Returns the length of the path if the target is found, and otherwise
+     * the least <tt>g + h</tt> exceeding the bound.
+     */
+    private static final class SubtreeTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Iteration iteration;
+        private final PuzzleGraphNode node;
+        private final int[] moves;
+        private final int h;
+        private final int previous;
+
+        SubtreeTask(final Iteration iteration,
+                    final PuzzleGraphNode node,
+                    final int[] moves,
+                    final int h,
+                    final int previous) {
+            this.iteration = iteration;
+            this.node = node;
+            this.moves = moves;
+            this.h = h;
+            this.previous = previous;
+        }
+
+        @Override
+        protected Integer compute() {
+            iteration.checkLimits();
+
+            if (iteration.stop.get()) {
+                return Integer.MAX_VALUE;
+            }
+
+            final int g = moves.length;
+            final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction =
+                    iteration.heuristicFunction.get();
+
+            if (g >= iteration.splitDepth) {
+                final IDAStarSearch search =
+                        new IDAStarSearch(heuristicFunction,
+                                          iteration.target,
+                                          node,
+                                          moves,
+                                          iteration.stop) {
+                    private int expansions;
+
+                    @Override
+                    void nodeExpanded() {
+                        if ((++expansions & (EXPANSIONS_PER_LIMIT_CHECK - 1))
+                                == 0) {
+                            iteration.checkLimits();
+                        }
+                    }
+                };
+                final int result = search.search(g,
+                                                 h,
+                                                 iteration.bound,
+                                                 previous);
+
+                if (search.isFound()) {
+                    report(search.getMoves(), result);
+                }
+
+                return result;
+            }
+
+            if (h == 0 && node.equals(iteration.target)) {
+                report(moves, g);
+                return g;
+            }
+
+            final List<SubtreeTask> tasks = new ArrayList<>(4);
+            int next = Integer.MAX_VALUE;
+
+            for (int direction = 0;
+                    direction < IDAStarSearch.DIRECTIONS;
+                    ++direction) {
+                if (previous >= 0
+                        && direction == IDAStarSearch.inverse(previous)) {
+                    continue;
+                }
+
+                final PuzzleGraphNode child = node.copy();
+
+                if (!child.moveInPlace(direction)) {
+                    continue;
+                }
+
+                final int childH =
+                        heuristicFunction.estimate(child,
+                                                   node,
+                                                   h,
+                                                   iteration.bound - g);
+
+                if (g + 1 + childH > iteration.bound) {
+                    next = Math.min(next, g + 1 + childH);
+                    continue;
+                }
+
+                final int[] childMoves = new int[g + 1];
+                System.arraycopy(moves, 0, childMoves, 0, g);
+                childMoves[g] = direction;
+                tasks.add(new SubtreeTask(iteration,
+                                          child,
+                                          childMoves,
+                                          childH,
+                                          direction));
+            }
+
+            for (final SubtreeTask task : invokeAll(tasks)) {
+                next = Math.min(next, task.join());
+            }
+
+            return next;
+        }
+
+        private void report(final int[] moves, final int length) {
+            final int[] solution = new int[length];
+            System.arraycopy(moves, 0, solution, 0, length);
+            iteration.solution.compareAndSet(null, solution);
+            iteration.stop.set(true);
+        }
+    }
+
+    /**
+     * Constructs a finder running on <code>pool</code>.
+     *
+     * @param heuristicFunction the heuristic function.
+     * @param pool              the fork/join pool.
+     * @param splitDepth        the depth down to which the search tree is
+     *                          split into tasks.
+     * @throws java.lang.IllegalArgumentException if the depth is negative.
+     */
+    public ParallelIDAStarFinder(
+            final AbstractHeuristicFunction<PuzzleGraphNode> heuristicFunction,
+            final ForkJoinPool pool,
+            final int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException(
+                    "The split depth must be non-negative, is " +
+                    splitDepth + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Constructs a finder running on a pool, shared by all the finders so
+     * constructed, with a worker per available processor.
+     *
+     * @param heuristicFunction the heuristic function.
+     */
+    public ParallelIDAStarFinder(
+            final AbstractHeuristicFunction<PuzzleGraphNode>
+                    heuristicFunction) {
+        this(heuristicFunction, DefaultPool.POOL, DEFAULT_SPLIT_DEPTH);
+    }
+
+    @Override
+    public ParallelIDAStarFinder spawn() {
+        return new ParallelIDAStarFinder(heuristicFunction.spawn(),
+                                         pool,
+                                         splitDepth);
+    }
+
+    @Override
+    protected List<PuzzleGraphNode> doSearch(final PuzzleGraphNode source,
+                                             final PuzzleGraphNode target) {
+        if (!source.isReachable(target)) {
+            // Otherwise, the iterations would never end.
+            return null;
+        }
+
+        heuristicFunction.setTarget(target);
+
+        final int estimate = heuristicFunction.estimate(source);
+        final WorkerHeuristicFunction workerHeuristicFunction =
+                new WorkerHeuristicFunction(heuristicFunction, target);
+        int bound = estimate;
+
+        for (;;) {
+            // The previous iterations found no path shorter than 'bound'.
+            updateLowerBound(bound);
+            final Iteration iteration = new Iteration(this,
+                                                      workerHeuristicFunction,
+                                                      target,
+                                                      bound,
+                                                      splitDepth);
+            final int result = pool.invoke(new SubtreeTask(iteration,
+                                                           source.copy(),
+                                                           new int[0],
+                                                           estimate,
+                                                           -1));
+            final int[] solution = iteration.solution.get();
+
+            if (solution != null) {
+                return IDAStarSearch.buildPath(source,
+                                               solution,
+                                               solution.length);
+            }
+
+            checkLimits();
+
+            bound = result;
+        }
+    }
+}
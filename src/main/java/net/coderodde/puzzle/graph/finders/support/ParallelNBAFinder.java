@@ -0,0 +1,374 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.ObjectIntHashMap;
+
+/**
+ * This class implements a parallel NBA*, in which the forward search runs in
+ * the calling thread and the backward search in another one. The two share
+ * a concurrent closed set, the distance and parent maps, which each side
+ * writes only for its own direction, and the best path found so far, which
+ * is updated atomically.
+ * <p>
+ * Each side reads the values the other side publishes (its least
+ * <tt>f</tt>-value and its distances) without waiting for it. The least
+ * <tt>f</tt>-value only grows, so a stale value only makes the pruning less
+ * aggressive. A meeting point is never missed, since each side records a
+ * distance before looking up the distance of the other side. The search ends
+ * as soon as either side runs out of the nodes worth expanding, as in
+ * {@link NBAFinder}. A node whose priority reaches the length of the best path
+ * found so far would be rejected anyway, so it is never put in OPEN.
+ * <p>
+ * Each side checks the cancellation token, the time limit and the memory
+ * limit every {@link #EXPANSIONS_PER_LIMIT_CHECK} expansions, and both sides
+ * give up once one of them is reached. The forward side, which runs in the
+ * calling thread, updates the lower bound on the length of a shortest path.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class ParallelNBAFinder<T extends AbstractGraphNode<T>>
+extends AbstractPathFinder<T> {
+
+    /**
+     * The amount of expansions of a side between two checks of the limits.
+     * Must be a power of two.
+     */
+    private static final int EXPANSIONS_PER_LIMIT_CHECK = 256;
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+    private final IntegerPriorityQueue<?, T> queue;
+
+    /**
+     * The state shared by the two sides of a single search.
+     */
+    private final class Search {
+
+        final Set<T> CLOSED =
+                Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+
+        /**
+         * Set when either side is done, or fails.
+         */
+        volatile boolean done;
+
+        volatile int bestPathLength = Integer.MAX_VALUE;
+
+        /**
+         * The node where the best path found so far is split between the
+         * two sides. Guarded by this search.
+         */
+        T touchNode;
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        synchronized void updateBestPath(final T node, final int pathLength) {
+            if (bestPathLength > pathLength) {
+                bestPathLength = pathLength;
+                touchNode = node;
+            }
+        }
+
+        synchronized T getTouchNode() {
+            return touchNode;
+        }
+    }
+
+    /**
+     * One direction of the search.
+     */
+    private final class Side implements Runnable {
+
+        final Search search;
+        final boolean forward;
+        final IntegerPriorityQueue<?, T> OPEN;
+
+        /**
+         * The distances in the direction of this side, written only by this
+         * side.
+         */
+        final Map<T, Integer> DISTANCE = new ConcurrentHashMap<>();
+
+        /**
+         * The parents in the direction of this side. The root has no entry.
+         */
+        final Map<T, T> PARENTS = new ConcurrentHashMap<>();
+
+        /**
+         * The estimates of the opposite direction; the estimates of this
+         * direction are recovered from the priorities in OPEN.
+         */
+        final ObjectIntHashMap<T> ESTIMATES = new ObjectIntHashMap<>();
+
+        /**
+         * The heuristic function estimating the distance to the root of the
+         * opposite side.
+         */
+        final AbstractHeuristicFunction<T> heuristicFunction;
+
+        /**
+         * The heuristic function estimating the distance to the root of this
+         * side.
+         */
+        final AbstractHeuristicFunction<T> heuristicFunctionRev;
+
+        /**
+         * The least priority in OPEN.
+         */
+        volatile int f;
+
+        Side opposite;
+
+        Side(final Search search,
+             final boolean forward,
+             final IntegerPriorityQueue<?, T> OPEN,
+             final AbstractHeuristicFunction<T> heuristicFunction,
+             final AbstractHeuristicFunction<T> heuristicFunctionRev) {
+            this.search = search;
+            this.forward = forward;
+            this.OPEN = OPEN;
+            this.heuristicFunction = heuristicFunction;
+            this.heuristicFunctionRev = heuristicFunctionRev;
+        }
+
+        void init(final T root) {
+            final int estimate = heuristicFunction.estimate(root);
+            OPEN.insert(root, estimate);
+            DISTANCE.put(root, 0);
+            ESTIMATES.put(root, heuristicFunctionRev.estimate(root));
+            f = estimate;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int expansions = 0;
+
+                while (!search.done && !OPEN.isEmpty()) {
+                    if (forward) {
+                        // A path shorter than the best one found must pass
+                        // through nodes in both OPEN lists. A stale 'f' of
+                        // the other side is only less.
+                        updateLowerBound(
+                                Math.min(search.bestPathLength,
+                                         Math.max(f, opposite.f)));
+                    }
+
+                    expand();
+
+                    if ((++expansions & (EXPANSIONS_PER_LIMIT_CHECK - 1)) == 0
+                            && isLimitReached()) {
+                        break;
+                    }
+                }
+            } catch (final Throwable t) {
+                search.failure.compareAndSet(null, t);
+            } finally {
+                search.done = true;
+            }
+        }
+
+        private void expand() {
+            final int priority = OPEN.minPriority();
+            final T currentNode = OPEN.extractMinimum();
+
+            if (!search.CLOSED.add(currentNode)) {
+                // Closed by either side already.
+                return;
+            }
+
+            final int currentDistance = DISTANCE.get(currentNode);
+            final int currentEstimate = priority - currentDistance;
+            final int currentEstimateRev = ESTIMATES.get(currentNode, 0);
+
+            if (priority >= search.bestPathLength
+                    || currentDistance
+                       + opposite.f
+                       - currentEstimateRev
+                       >= search.bestPathLength) {
+                // Reject the 'currentNode'.
+            } else {
+                // Stabilize the 'currentNode'.
+                final Iterable<T> neighbors = forward ?
+                                              currentNode :
+                                              currentNode.parents();
+
+                for (final T neighbor : neighbors) {
+                    final int tentativeDistance = currentDistance + 1;
+
+                    if (search.CLOSED.contains(neighbor)) {
+                        // The other side may have claimed the 'neighbor'
+                        // while this side claimed the 'currentNode', in which
+                        // case neither side sees the edge between them.
+                        meetClosed(neighbor, currentNode, tentativeDistance);
+                        continue;
+                    }
+
+                    final Integer neighborDistance = DISTANCE.get(neighbor);
+
+                    if (neighborDistance != null
+                            && neighborDistance <= tentativeDistance) {
+                        continue;
+                    }
+
+                    DISTANCE.put(neighbor, tentativeDistance);
+                    PARENTS.put(neighbor, currentNode);
+
+                    final int bestPathLength = search.bestPathLength;
+                    final int neighborPriority =
+                            tentativeDistance
+                            + heuristicFunction.estimate(
+                                    neighbor,
+                                    currentNode,
+                                    currentEstimate,
+                                    bestPathLength - tentativeDistance);
+
+                    // Only the nodes put in OPEN have an estimate. A node
+                    // left out keeps its distance, so that the other side
+                    // still meets it, and is put in OPEN once reached by a
+                    // path making it worth expanding.
+                    if (neighborPriority >= bestPathLength) {
+                        // Rejected anyway.
+                    } else if (ESTIMATES.containsKey(neighbor)) {
+                        OPEN.decreasePriority(neighbor, neighborPriority);
+                    } else {
+                        OPEN.insert(neighbor, neighborPriority);
+                        ESTIMATES.put(neighbor,
+                                      heuristicFunctionRev.estimate(
+                                              neighbor,
+                                              currentNode,
+                                              currentEstimateRev));
+                    }
+
+                    // Read only after writing 'DISTANCE', so that at least
+                    // one side sees both distances.
+                    final Integer oppositeDistance =
+                            opposite.DISTANCE.get(neighbor);
+
+                    if (oppositeDistance != null) {
+                        search.updateBestPath(
+                                neighbor,
+                                tentativeDistance + oppositeDistance);
+                    }
+                }
+            }
+
+            if (!OPEN.isEmpty()) {
+                f = OPEN.minPriority();
+            }
+        }
+
+        private void meetClosed(final T node,
+                                final T parent,
+                                final int distance) {
+            final Integer oppositeDistance = opposite.DISTANCE.get(node);
+
+            if (oppositeDistance == null
+                    || distance + oppositeDistance >= search.bestPathLength) {
+                return;
+            }
+
+            final Integer nodeDistance = DISTANCE.get(node);
+
+            if (nodeDistance != null && nodeDistance <= distance) {
+                return;
+            }
+
+            // The 'node' is never inserted into OPEN; the distance and the
+            // parent only serve to trace back the path.
+            DISTANCE.put(node, distance);
+            PARENTS.put(node, parent);
+            search.updateBestPath(node, distance + oppositeDistance);
+        }
+    }
+
+    public ParallelNBAFinder(
+            final AbstractHeuristicFunction<T> heuristicFunction,
+            final IntegerPriorityQueue<?, T> queue) {
+        this.heuristicFunction = heuristicFunction;
+        this.queue = queue;
+    }
+
+    public ParallelNBAFinder(
+            final AbstractHeuristicFunction<T> heuristicFunction) {
+        this(heuristicFunction, new DaryHeap<T>());
+    }
+
+    @Override
+    public ParallelNBAFinder<T> spawn() {
+        return new ParallelNBAFinder<>(heuristicFunction.spawn(),
+                                       queue.spawn());
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        if (source.equals(target)) {
+            final List<T> path = new ArrayList<>(1);
+            path.add(source);
+            return path;
+        }
+
+        final Search search = new Search();
+        final Side forwardSide = new Side(search,
+                                          true,
+                                          queue.spawn(),
+                                          spawn(target),
+                                          spawn(source));
+        final Side backwardSide = new Side(search,
+                                           false,
+                                           queue.spawn(),
+                                           spawn(source),
+                                           spawn(target));
+        forwardSide.opposite = backwardSide;
+        backwardSide.opposite = forwardSide;
+        forwardSide.init(source);
+        backwardSide.init(target);
+
+        final Thread backwardThread = new Thread(backwardSide);
+        backwardThread.start();
+        forwardSide.run();
+
+        try {
+            backwardThread.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            search.failure.compareAndSet(null, ex);
+        }
+
+        final Throwable failure = search.failure.get();
+
+        if (failure != null) {
+            throw new IllegalStateException("The search failed.", failure);
+        }
+
+        checkLimits();
+
+        final T touchNode = search.getTouchNode();
+
+        if (touchNode == null) {
+            return null;
+        }
+
+        return tracebackPath(touchNode,
+                             forwardSide.PARENTS,
+                             backwardSide.PARENTS);
+    }
+
+    private AbstractHeuristicFunction<T> spawn(final T target) {
+        final AbstractHeuristicFunction<T> spawned = heuristicFunction.spawn();
+        spawned.setTarget(target);
+        return spawned;
+    }
+}
@@ -0,0 +1,485 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class implements a single pattern database table. A pattern is a set of
+ * cells of the target node; the table maps the positions of the cells that
+ * the target places in the pattern cells to the least amount of moves of
+ * those cells (moves of other cells are free) needed to bring them all home.
+ * Since the moves counted by distinct patterns are disjoint, the values of
+ * disjoint patterns may be summed.
+ * <p>
+ * The table depends only on the degree, the pattern cells and the empty cell
+ * of the target, and not on the cell numbers, so a table is built once per
+ * such combination, written into a file, and memory-mapped on later runs.
+ * Mapped tables are shared by all the heuristic functions within a JVM, and
+ * through the page cache, by all the JVMs using the same directory.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+final class PatternDatabase {
+
+    /**
+     * The magic number starting each table file.
+     */
+    private static final int MAGIC = 0x50444231; // "PDB1"
+
+    /**
+     * The value of a table entry not computed yet.
+     */
+    private static final int UNKNOWN = 0xff;
+
+    /**
+     * Caches the tables already loaded by this JVM.
+     */
+    private static final Map<String, PatternDatabase> CACHE = new HashMap<>();
+
+    /**
+     * The amount of cells in the puzzle.
+     */
+    private final int cells;
+
+    /**
+     * The amount of cells in the pattern.
+     */
+    private final int size;
+
+    /**
+     * The table. The entry at index <code>rank(positions)</code> is the
+     * distance of the pattern state.
+     */
+    private final ByteBuffer table;
+
+    private PatternDatabase(final int cells,
+                            final int size,
+                            final ByteBuffer table) {
+        this.cells = cells;
+        this.size = size;
+        this.table = table;
+    }
+
+    /**
+     * Returns the table for the input pattern, loading it from
+     * <code>directory</code>, or building it and saving it into
+     * <code>directory</code> if there is no such table yet.
+     *
+     * @param  directory  the directory holding the table files.
+     * @param  degree     the degree of the puzzle.
+     * @param  emptyIndex the index of the empty cell in the target node.
+     * @param  pattern    the indices of the pattern cells.
+     * @return the table.
+     */
+    static synchronized PatternDatabase get(final File directory,
+                                            final int degree,
+                                            final int emptyIndex,
+                                            final int[] pattern) {
+        final StringBuilder sb = new StringBuilder("pdb-")
+                .append(degree).append('-')
+                .append(emptyIndex);
+
+        for (final int cell : pattern) {
+            sb.append('-').append(cell);
+        }
+
+        final String name = sb.append(".bin").toString();
+        final File file = new File(directory, name);
+        final String key = file.getAbsolutePath();
+        PatternDatabase database = CACHE.get(key);
+
+        if (database != null) {
+            return database;
+        }
+
+        try {
+            if (!file.exists()) {
+                write(file, degree, emptyIndex, pattern,
+                      build(degree, emptyIndex, pattern));
+            }
+
+            database = map(file, degree, emptyIndex, pattern);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                    "Could not load the pattern database " + file, ex);
+        }
+
+        CACHE.put(key, database);
+        return database;
+    }
+
+    /**
+     * Drops all the tables cached by this JVM.
+     */
+    static synchronized void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the least amount of moves of the pattern cells needed to
+     * bring them to their target positions.
+     *
+     * @param  positions <code>positions[i]</code> is the current index of the
+     *                   cell that the target places at the <code>i</code>th
+     *                   pattern cell.
+     * @return the distance.
+     */
+    int get(final int[] positions) {
+        return table.get(rank(positions, size, cells)) & 0xff;
+    }
+
+    /**
+     * Ranks the pattern positions into the range
+     * <tt>[0, n! / (n - k)!)</tt>, where <tt>n</tt> is the amount of cells and
+     * <tt>k</tt> is the size of the pattern.
+     *
+     * @param  positions the distinct positions of the pattern cells.
+     * @param  size      the size of the pattern.
+     * @param  cells     the amount of cells.
+     * @return the rank.
+     */
+    static int rank(final int[] positions, final int size, final int cells) {
+        int rank = 0;
+
+        for (int i = 0; i < size; ++i) {
+            int digit = positions[i];
+
+            for (int j = 0; j < i; ++j) {
+                if (positions[j] < positions[i]) {
+                    --digit;
+                }
+            }
+
+            rank = rank * (cells - i) + digit;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Inverts {@link #rank(int[], int, int)}.
+     *
+     * @param rank      the rank.
+     * @param size      the size of the pattern.
+     * @param cells     the amount of cells.
+     * @param positions the array for the positions.
+     * @param used      the scratch array of length <code>cells</code>.
+     */
+    static void unrank(int rank,
+                       final int size,
+                       final int cells,
+                       final int[] positions,
+                       final boolean[] used) {
+        for (int i = size - 1; i >= 0; --i) {
+            positions[i] = rank % (cells - i);
+            rank /= cells - i;
+        }
+
+        for (int i = 0; i < cells; ++i) {
+            used[i] = false;
+        }
+
+        for (int i = 0; i < size; ++i) {
+            int digit = positions[i];
+            int position = 0;
+
+            while (used[position] || digit > 0) {
+                if (!used[position]) {
+                    --digit;
+                }
+
+                ++position;
+            }
+
+            used[position] = true;
+            positions[i] = position;
+        }
+    }
+
+    /**
+     * Returns the amount of entries in a table.
+     *
+     * @param  size  the size of the pattern.
+     * @param  cells the amount of cells.
+     * @return the amount of entries.
+     */
+    static long tableSize(final int size, final int cells) {
+        long entries = 1L;
+
+        for (int i = 0; i < size; ++i) {
+            entries *= cells - i;
+        }
+
+        return entries;
+    }
+
+    /**
+     * Builds the table by breadth-first search backwards from the target. A
+     * search state is the positions of the pattern cells together with the
+     * position of the empty cell. Moves of the empty cell that do not move a
+     * pattern cell cost nothing, so each layer is first closed under such
+     * moves before the moves of the pattern cells generate the next layer.
+     *
+     * @param  degree     the degree of the puzzle.
+     * @param  emptyIndex the index of the empty cell in the target.
+     * @param  pattern    the indices of the pattern cells.
+     * @return the table.
+     */
+    private static byte[] build(final int degree,
+                                final int emptyIndex,
+                                final int[] pattern) {
+        final int cells = degree * degree;
+        final int size = pattern.length;
+        final int entries = (int) tableSize(size, cells);
+        final long states = (long) entries * cells;
+        final int words = (int)((states + 63) >>> 6);
+
+        final byte[] table = new byte[entries];
+        final long[] visited = new long[words];
+        final long[] current = new long[words];
+        final long[] next = new long[words];
+
+        final int[] neighbors = new int[4 * cells];
+        final int[] neighborCounts = new int[cells];
+
+        for (int i = 0; i < cells; ++i) {
+            final int x = i % degree;
+            final int y = i / degree;
+
+            if (y > 0) {
+                neighbors[4 * i + neighborCounts[i]++] = i - degree;
+            }
+
+            if (x < degree - 1) {
+                neighbors[4 * i + neighborCounts[i]++] = i + 1;
+            }
+
+            if (y < degree - 1) {
+                neighbors[4 * i + neighborCounts[i]++] = i + degree;
+            }
+
+            if (x > 0) {
+                neighbors[4 * i + neighborCounts[i]++] = i - 1;
+            }
+        }
+
+        final int[] positions = new int[size];
+        final int[] owner = new int[cells];
+        final boolean[] used = new boolean[cells];
+        final int[] stack = new int[cells];
+
+        Arrays.fill(table, (byte) UNKNOWN);
+
+        final long start = (long) rank(pattern, size, cells) * cells
+                           + emptyIndex;
+        set(visited, start);
+        set(current, start);
+
+        long[] layer = current;
+        long[] nextLayer = next;
+        boolean nonEmpty = true;
+
+        for (int cost = 0; nonEmpty; ++cost) {
+            nonEmpty = false;
+
+            for (int word = 0; word < words; ++word) {
+                while (layer[word] != 0L) {
+                    final long bit = Long.lowestOneBit(layer[word]);
+                    final long seed = ((long) word << 6)
+                                      + Long.numberOfTrailingZeros(bit);
+                    layer[word] ^= bit;
+
+                    final int rank = (int)(seed / cells);
+                    unrank(rank, size, cells, positions, used);
+                    Arrays.fill(owner, -1);
+
+                    for (int i = 0; i < size; ++i) {
+                        owner[positions[i]] = i;
+                    }
+
+                    if ((table[rank] & 0xff) == UNKNOWN) {
+                        table[rank] = (byte) cost;
+                    }
+
+                    // Flood the free moves of the empty cell.
+                    final long base = (long) rank * cells;
+                    int stackSize = 0;
+                    stack[stackSize++] = (int)(seed - base);
+
+                    while (stackSize > 0) {
+                        final int empty = stack[--stackSize];
+
+                        for (int n = 0; n < neighborCounts[empty]; ++n) {
+                            final int cell = neighbors[4 * empty + n];
+                            final int i = owner[cell];
+
+                            if (i >= 0) {
+                                // Moving a pattern cell costs one move.
+                                positions[i] = empty;
+                                final long child =
+                                        (long) rank(positions, size, cells)
+                                        * cells + cell;
+                                positions[i] = cell;
+
+                                if (!isSet(visited, child)) {
+                                    set(visited, child);
+                                    set(nextLayer, child);
+                                    nonEmpty = true;
+                                }
+                            } else {
+                                final long child = base + cell;
+
+                                if (!isSet(visited, child)) {
+                                    set(visited, child);
+                                    stack[stackSize++] = cell;
+                                } else if (isSet(nextLayer, child)) {
+                                    // Reached more cheaply than thought.
+                                    clear(nextLayer, child);
+                                    stack[stackSize++] = cell;
+                                } else if (isSet(layer, child)) {
+                                    // Process it now, within this flood.
+                                    clear(layer, child);
+                                    stack[stackSize++] = cell;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            final long[] tmp = layer;
+            layer = nextLayer;
+            nextLayer = tmp;
+        }
+
+        return table;
+    }
+
+    private static boolean isSet(final long[] bits, final long index) {
+        return (bits[(int)(index >>> 6)] & (1L << index)) != 0L;
+    }
+
+    private static void set(final long[] bits, final long index) {
+        bits[(int)(index >>> 6)] |= 1L << index;
+    }
+
+    private static void clear(final long[] bits, final long index) {
+        bits[(int)(index >>> 6)] &= ~(1L << index);
+    }
+
+    /**
+     * Returns the length of the file header.
+     *
+     * @param  size the size of the pattern.
+     * @return the length of the header in bytes.
+     */
+    private static int headerLength(final int size) {
+        return 4 * (4 + size);
+    }
+
+    /**
+     * Writes the table into a temporary file and then renames it to
+     * <code>file</code>, so that other processes never observe a partial
+     * table.
+     */
+    private static void write(final File file,
+                              final int degree,
+                              final int emptyIndex,
+                              final int[] pattern,
+                              final byte[] table) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        final Path tmp = Files.createTempFile(directory.toPath(),
+                                              file.getName(),
+                                              ".tmp");
+
+        final ByteBuffer header = ByteBuffer.allocate(
+                headerLength(pattern.length)).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC)
+              .putInt(degree)
+              .putInt(emptyIndex)
+              .putInt(pattern.length);
+
+        for (final int cell : pattern) {
+            header.putInt(cell);
+        }
+
+        header.flip();
+
+        try (final FileChannel channel =
+                FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            final ByteBuffer body = ByteBuffer.wrap(table);
+
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+
+            channel.force(true);
+        }
+
+        Files.move(tmp,
+                   file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Memory-maps the table in <code>file</code>.
+     */
+    private static PatternDatabase map(final File file,
+                                       final int degree,
+                                       final int emptyIndex,
+                                       final int[] pattern)
+    throws IOException {
+        final int cells = degree * degree;
+        final int headerLength = headerLength(pattern.length);
+        final long entries = tableSize(pattern.length, cells);
+
+        try (final FileChannel channel =
+                FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() != headerLength + entries) {
+                throw new IOException("Unexpected size of " + file + ": " +
+                                      channel.size());
+            }
+
+            final MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY,
+                                0L,
+                                channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            boolean valid = buffer.getInt(0) == MAGIC
+                         && buffer.getInt(4) == degree
+                         && buffer.getInt(8) == emptyIndex
+                         && buffer.getInt(12) == pattern.length;
+
+            for (int i = 0; valid && i < pattern.length; ++i) {
+                valid = buffer.getInt(16 + 4 * i) == pattern[i];
+            }
+
+            if (!valid) {
+                throw new IOException("Unexpected header in " + file);
+            }
+
+            // The mapping stays valid after the channel is closed.
+            buffer.position(headerLength);
+            return new PatternDatabase(cells, pattern.length, buffer.slice());
+        }
+    }
+}
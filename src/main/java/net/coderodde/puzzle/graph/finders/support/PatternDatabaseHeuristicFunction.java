@@ -0,0 +1,406 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.File;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements the disjoint additive pattern database heuristic. The
+ * cells other than the empty one are partitioned into patterns, each pattern
+ * has its own table of exact distances in the abstraction where only the
+ * moves of the pattern cells are counted, and the estimate is the sum of the
+ * table entries.
+ * <p>
+ * The partition is given in terms of the cell indices of the target node and
+ * must leave out exactly one cell. If the empty cell of the target is
+ * elsewhere, the empty cell and the left-out cell swap their roles. The
+ * tables are built on first use, saved into the table directory and
+ * memory-mapped on subsequent runs; see {@link PatternDatabase}.
+ * <p>
+ * The cell indices of the last parent node seen, identified by reference and
+ * {@link PuzzleGraphNode#longHashCode()}, are kept along with the distances
+ * of its patterns, so that deriving the estimate of a child only patches the
+ * index of the moved cell and looks up its pattern.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class PatternDatabaseHeuristicFunction
+extends AbstractHeuristicFunction<PuzzleGraphNode> {
+
+    /**
+     * The default partition for <tt>3 x 3</tt> puzzles.
+     */
+    private static final int[][] DEFAULT_PARTITION_3 = {
+        { 0, 1, 3, 4 },
+        { 2, 5, 6, 7 }
+    };
+
+    /**
+     * The default 6-6-3 partition for <tt>4 x 4</tt> puzzles.
+     */
+    private static final int[][] DEFAULT_PARTITION_4 = {
+        { 0, 4, 5, 8, 9, 12 },
+        { 6, 7, 10, 11, 13, 14 },
+        { 1, 2, 3 }
+    };
+
+    /**
+     * The default directory for the table files.
+     */
+    private static final File DEFAULT_DIRECTORY =
+            new File(System.getProperty("java.io.tmpdir"), "puzzle-pdb");
+
+    private final PuzzleGraphNode source;
+
+    /**
+     * The partition of the cell indices.
+     */
+    private final int[][] partition;
+
+    /**
+     * The only cell index not covered by {@link #partition}.
+     */
+    private final int uncoveredIndex;
+
+    /**
+     * The directory holding the table files.
+     */
+    private final File directory;
+
+    /**
+     * The tables of the current target, one per pattern.
+     */
+    private final PatternDatabase[] databases;
+
+    /**
+     * <code>patternCells[i][j]</code> is the cell number that the target
+     * places at the <code>j</code>th cell of the <code>i</code>th pattern.
+     */
+    private final int[][] patternCells;
+
+    /**
+     * Maps each cell number to the index of its pattern.
+     */
+    private final int[] patternOf;
+
+    /**
+     * Scratch arrays for the positions of the cells of each pattern.
+     */
+    private final int[][] positions;
+
+    /**
+     * Maps a cell number to its index in {@link #parent}.
+     */
+    private final int[] indexOf;
+
+    /**
+     * The last parent node seen, whose indices are in {@link #indexOf}.
+     */
+    private PuzzleGraphNode parent;
+
+    /**
+     * The 64-bit hash of {@link #parent} at the time it was seen.
+     */
+    private long parentHash;
+
+    /**
+     * <code>parentDistances[i]</code> is the distance of {@link #parent} in
+     * the <code>i</code>th table, if <code>parentKnown[i]</code> is set.
+     */
+    private final int[] parentDistances;
+
+    private final boolean[] parentKnown;
+
+    /**
+     * Caches the target node.
+     */
+    private PuzzleGraphNode target;
+
+    /**
+     * Constructs the heuristic function with the default partition for the
+     * degree of <code>sourceNode</code>, storing the tables into the default
+     * directory.
+     *
+     * @param sourceNode a node of the puzzle.
+     * @throws java.lang.IllegalArgumentException if there is no default
+     *                                            partition for the degree.
+     */
+    public PatternDatabaseHeuristicFunction(final PuzzleGraphNode sourceNode) {
+        this(sourceNode, DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Constructs the heuristic function with the default partition for the
+     * degree of <code>sourceNode</code>.
+     *
+     * @param sourceNode a node of the puzzle.
+     * @param directory  the directory for the table files.
+     * @throws java.lang.IllegalArgumentException if there is no default
+     *                                            partition for the degree.
+     */
+    public PatternDatabaseHeuristicFunction(final PuzzleGraphNode sourceNode,
+                                            final File directory) {
+        this(sourceNode,
+             getDefaultPartition(sourceNode.getDegree()),
+             directory);
+    }
+
+    /**
+     * Constructs the heuristic function with the given partition.
+     *
+     * @param sourceNode a node of the puzzle.
+     * @param partition  the patterns as arrays of cell indices.
+     * @param directory  the directory for the table files.
+     * @throws java.lang.IllegalArgumentException if the partition is invalid.
+     */
+    public PatternDatabaseHeuristicFunction(final PuzzleGraphNode sourceNode,
+                                            final int[][] partition,
+                                            final File directory) {
+        final int degree = sourceNode.getDegree();
+        final int cells = degree * degree;
+
+        this.source = sourceNode;
+        this.directory = directory;
+        this.partition = new int[partition.length][];
+        this.uncoveredIndex = checkPartition(partition, cells);
+        this.databases = new PatternDatabase[partition.length];
+        this.patternCells = new int[partition.length][];
+        this.positions = new int[partition.length][];
+        this.patternOf = new int[cells];
+        this.indexOf = new int[cells];
+        this.parentDistances = new int[partition.length];
+        this.parentKnown = new boolean[partition.length];
+
+        for (int i = 0; i < partition.length; ++i) {
+            this.partition[i] = partition[i].clone();
+            this.patternCells[i] = new int[partition[i].length];
+            this.positions[i] = new int[partition[i].length];
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>source</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode source) {
+        // The children of the node are likely to be estimated next.
+        loadParent(source);
+        int distance = 0;
+
+        for (int i = 0; i < databases.length; ++i) {
+            distance += getParentDistance(i);
+        }
+
+        return distance;
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * Only the table of the pattern containing the moved cell is consulted,
+     * once for <code>node</code> and, unless cached, once for
+     * <code>parent</code>.
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>node</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode node,
+                        final PuzzleGraphNode parent,
+                        final int parentEstimate) {
+        final int toX = parent.getEmptySlotX();
+        final int toY = parent.getEmptySlotY();
+        final int fromX = node.getEmptySlotX();
+        final int fromY = node.getEmptySlotY();
+        final int cell = node.get(toX, toY);
+
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) != 1
+                || parent.get(fromX, fromY) != cell) {
+            // Not neighbors.
+            return estimate(node);
+        }
+
+        final int pattern = patternOf[cell];
+        loadParent(parent);
+        final int before = getParentDistance(pattern);
+        final int parentIndex = indexOf[cell];
+        indexOf[cell] = toY * node.getDegree() + toX;
+        final int after = lookup(pattern);
+        indexOf[cell] = parentIndex;
+        return parentEstimate - before + after;
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * Loads or builds the tables for the target, which may take a while the
+     * first time a combination of partition and empty cell is used.
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final PuzzleGraphNode target) {
+        final int degree = target.getDegree();
+        final int emptyIndex = target.getEmptySlotY() * degree +
+                               target.getEmptySlotX();
+
+        for (int i = 0; i < partition.length; ++i) {
+            final int[] pattern = partition[i].clone();
+
+            for (int j = 0; j < pattern.length; ++j) {
+                if (pattern[j] == emptyIndex) {
+                    pattern[j] = uncoveredIndex;
+                }
+
+                patternCells[i][j] = target.get(pattern[j]);
+                patternOf[patternCells[i][j]] = i;
+            }
+
+            databases[i] = PatternDatabase.get(directory,
+                                               degree,
+                                               emptyIndex,
+                                               pattern);
+        }
+
+        this.target = target;
+        // The cached distances depend on the target.
+        this.parent = null;
+    }
+
+    @Override
+    public AbstractHeuristicFunction<PuzzleGraphNode> spawn() {
+        return new PatternDatabaseHeuristicFunction(source,
+                                                    partition,
+                                                    directory);
+    }
+
+    /**
+     * Records the index of each cell number of <code>node</code> into
+     * {@link #indexOf}, unless it is the last parent seen.
+     *
+     * @param node the node.
+     */
+    private void loadParent(final PuzzleGraphNode node) {
+        final long hash = node.longHashCode();
+
+        if (node == parent && hash == parentHash) {
+            return;
+        }
+
+        for (int index = 0; index < indexOf.length; ++index) {
+            indexOf[node.get(index)] = index;
+        }
+
+        for (int i = 0; i < parentKnown.length; ++i) {
+            parentKnown[i] = false;
+        }
+
+        parent = node;
+        parentHash = hash;
+    }
+
+    /**
+     * Returns the distance of {@link #parent} in the <code>pattern</code>th
+     * table.
+     *
+     * @param  pattern the index of the pattern.
+     * @return the distance.
+     */
+    private int getParentDistance(final int pattern) {
+        if (!parentKnown[pattern]) {
+            parentDistances[pattern] = lookup(pattern);
+            parentKnown[pattern] = true;
+        }
+
+        return parentDistances[pattern];
+    }
+
+    /**
+     * Looks up the distance of the <code>pattern</code>th pattern using the
+     * indices in {@link #indexOf}.
+     *
+     * @param  pattern the index of the pattern.
+     * @return the distance.
+     */
+    private int lookup(final int pattern) {
+        final int[] cells = patternCells[pattern];
+        final int[] p = positions[pattern];
+
+        for (int i = 0; i < cells.length; ++i) {
+            p[i] = indexOf[cells[i]];
+        }
+
+        return databases[pattern].get(p);
+    }
+
+    private static int[][] getDefaultPartition(final int degree) {
+        switch (degree) {
+            case 3:
+                return DEFAULT_PARTITION_3;
+
+            case 4:
+                return DEFAULT_PARTITION_4;
+
+            default:
+                throw new IllegalArgumentException(
+                        "There is no default partition for degree " +
+                        degree + ".");
+        }
+    }
+
+    /**
+     * Checks that <code>partition</code> covers all the cells but one, and
+     * that the tables are not too large.
+     *
+     * @param  partition the partition to check.
+     * @param  cells     the amount of cells.
+     * @return the only cell index not covered.
+     * @throws java.lang.IllegalArgumentException if the partition is invalid.
+     */
+    private static int checkPartition(final int[][] partition,
+                                      final int cells) {
+        final boolean[] covered = new boolean[cells];
+        int coveredCount = 0;
+
+        for (final int[] pattern : partition) {
+            if (pattern.length == 0 ||
+                    PatternDatabase.tableSize(pattern.length, cells) * cells
+                    > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "Bad pattern size: " + pattern.length + ".");
+            }
+
+            for (final int cell : pattern) {
+                if (cell < 0 || cell >= cells || covered[cell]) {
+                    throw new IllegalArgumentException(
+                            "Bad or duplicate cell index in the partition: " +
+                            cell + ".");
+                }
+
+                covered[cell] = true;
+                ++coveredCount;
+            }
+        }
+
+        if (coveredCount != cells - 1) {
+            throw new IllegalArgumentException(
+                    "The partition must cover all the cells but one.");
+        }
+
+        for (int cell = 0; cell < cells; ++cell) {
+            if (!covered[cell]) {
+                return cell;
+            }
+        }
+
+        throw new IllegalStateException("Should not get here.");
+    }
+}
@@ -0,0 +1,700 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class implements a complete retrograde table of a sliding puzzle of
+ * <tt>width x height</tt> cells, holding the distance of every state reachable
+ * from the goal state modulo three, two bits per state. Since a move changes
+ * the distance by exactly one, the distance modulo three of a state and its
+ * neighbors is enough to descend greedily to the goal along a shortest path.
+ * <p>
+ * A state is represented by its <em>positions</em>: the <code>k</code>th
+ * entry, for <tt>k &lt; width * height - 1</tt>, is the cell of the tile
+ * <tt>k + 1</tt>, and the last entry is the cell of the empty cell; the cell
+ * at <tt>(x, y)</tt> has index <tt>y * width + x</tt>. The goal state places
+ * the tiles in increasing order, the empty cell last, so its positions are
+ * the identity permutation.
+ * <p>
+ * The positions are ranked by the linear-time ranking of Myrvold and Ruskey.
+ * The most significant digit of the rank picks the order of the first two
+ * entries, which the parity of the permutation determines for a reachable
+ * state, so dropping that digit ranks the reachable states perfectly into
+ * <tt>[0, (width * height)! / 2)</tt>.
+ * <p>
+ * The table is built by a breadth-first search from the goal state, layer by
+ * layer, by several threads claiming the states of the current layer in
+ * chunks. It is written into a file and memory-mapped, once per board size
+ * and directory, like the tables of {@link PatternDatabase}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class RetrogradeTable {
+
+    /**
+     * The magic number starting each table file.
+     */
+    private static final int MAGIC = 0x52544231; // "RTB1"
+
+    /**
+     * The length of the file header in bytes.
+     */
+    private static final int HEADER_LENGTH = 12;
+
+    /**
+     * The largest amount of cells supported.
+     */
+    private static final int MAXIMUM_CELLS = 12;
+
+    /**
+     * The value of a table entry not reached yet.
+     */
+    private static final int UNVISITED = 3;
+
+    /**
+     * The amount of words of the layer bit sets claimed by a thread at a
+     * time.
+     */
+    private static final int CHUNK_WORDS = 1024;
+
+    /**
+     * Caches the tables already loaded by this JVM.
+     */
+    private static final Map<String, RetrogradeTable> CACHE = new HashMap<>();
+
+    private final int width;
+    private final int height;
+    private final long size;
+
+    /**
+     * The table. The entry of the state ranked <tt>r</tt> occupies the bits
+     * <tt>2 * (r mod 4)</tt> and <tt>2 * (r mod 4) + 1</tt> of the byte
+     * <tt>r / 4</tt>.
+     */
+    private final ByteBuffer table;
+
+    private RetrogradeTable(final int width,
+                            final int height,
+                            final ByteBuffer table) {
+        this.width = width;
+        this.height = height;
+        this.size = stateCount(width * height);
+        this.table = table;
+    }
+
+    /**
+     * Returns the table for the input board, loading it from
+     * <code>directory</code>, or building it and saving it into
+     * <code>directory</code> if there is no such table yet.
+     *
+     * @param  directory the directory holding the table files.
+     * @param  width     the width of the board.
+     * @param  height    the height of the board.
+     * @param  threads   the amount of threads building the table.
+     * @return the table.
+     * @throws java.lang.IllegalArgumentException if the board is too small
+     *                                            or too large, or
+     *                                            <code>threads</code> is not
+     *                                            positive.
+     */
+    public static synchronized RetrogradeTable get(final File directory,
+                                                   final int width,
+                                                   final int height,
+                                                   final int threads) {
+        checkBoard(width, height);
+
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The amount of threads must be positive, is " + threads +
+                    ".");
+        }
+
+        final File file = new File(directory,
+                                   "retrograde-" + width + "x" + height +
+                                   ".bin");
+        final String key = file.getAbsolutePath();
+        RetrogradeTable table = CACHE.get(key);
+
+        if (table != null) {
+            return table;
+        }
+
+        try {
+            if (!file.exists()) {
+                write(file, width, height, build(width, height, threads));
+            }
+
+            table = map(file, width, height);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                    "Could not load the retrograde table " + file, ex);
+        }
+
+        CACHE.put(key, table);
+        return table;
+    }
+
+    /**
+     * Drops all the tables cached by this JVM.
+     */
+    static synchronized void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Builds the table for a board and saves it.
+     * <p>
+     * Usage: <tt>RetrogradeTable width height [directory [threads]]</tt>.
+     *
+     * @param args the command line arguments.
+     */
+    public static void main(final String[] args) {
+        if (args.length < 2) {
+            System.out.println(
+                    "Usage: RetrogradeTable width height " +
+                    "[directory [threads]]");
+            return;
+        }
+
+        final int width = Integer.parseInt(args[0]);
+        final int height = Integer.parseInt(args[1]);
+        final File directory =
+                new File(args.length > 2 ?
+                         args[2] :
+                         System.getProperty("java.io.tmpdir"));
+        final int threads =
+                args.length > 3 ?
+                Integer.parseInt(args[3]) :
+                Runtime.getRuntime().availableProcessors();
+
+        final long start = System.currentTimeMillis();
+        final RetrogradeTable table = get(directory, width, height, threads);
+        final long end = System.currentTimeMillis();
+
+        System.out.println("States: " + table.getSize() + ", time: " +
+                           (end - start) + " ms.");
+    }
+
+    /**
+     * Returns the width of the board.
+     *
+     * @return the width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the board.
+     *
+     * @return the height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the amount of states in this table.
+     *
+     * @return the amount of states.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the distance of the input state from the goal state modulo
+     * three.
+     *
+     * @param  positions the positions of the state.
+     * @return the distance modulo three.
+     * @throws java.lang.IllegalArgumentException if the positions are not
+     *                                            valid or the state is not
+     *                                            reachable from the goal.
+     */
+    public int getDepthMod3(final int[] positions) {
+        final int cells = width * height;
+
+        if (positions.length != cells) {
+            throw new IllegalArgumentException(
+                    "Expected " + cells + " positions, got " +
+                    positions.length + ".");
+        }
+
+        if (!isReachable(positions, width, height)) {
+            throw new IllegalArgumentException(
+                    "The state is not reachable from the goal.");
+        }
+
+        final int[] p = positions.clone();
+        final int[] q = new int[cells];
+
+        for (int i = 0; i < cells; ++i) {
+            q[p[i]] = i;
+        }
+
+        return get(table, rank(p, q, cells));
+    }
+
+    private static int get(final ByteBuffer table, final long rank) {
+        final int b = table.get((int)(rank >>> 2));
+        return (b >>> ((int)(rank & 3) << 1)) & 3;
+    }
+
+    /**
+     * Ranks the positions <code>p</code> with inverse <code>q</code> of a
+     * reachable state. Both arrays are destroyed.
+     */
+    static long rank(final int[] p, final int[] q, final int cells) {
+        long rank = 0L;
+        long multiplier = 1L;
+
+        // The digit of i = 2 is implied by the parity, so it is left out.
+        for (int i = cells; i > 2; --i) {
+            final int s = p[i - 1];
+            final int j = q[i - 1];
+            p[j] = s;
+            p[i - 1] = i - 1;
+            q[s] = j;
+            q[i - 1] = i - 1;
+            rank += s * multiplier;
+            multiplier *= i;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Writes the positions of the reachable state ranked <code>rank</code>
+     * into <code>p</code>, and their inverse into <code>q</code>.
+     */
+    static void unrank(long rank,
+                       final int[] p,
+                       final int[] q,
+                       final int width,
+                       final int height) {
+        final int cells = width * height;
+
+        for (int i = 0; i < cells; ++i) {
+            p[i] = i;
+        }
+
+        for (int i = cells; i > 1; --i) {
+            final int s = (int)(rank % i);
+            final int tmp = p[i - 1];
+            p[i - 1] = p[s];
+            p[s] = tmp;
+            rank /= i;
+        }
+
+        if (!isReachable(p, width, height)) {
+            final int tmp = p[0];
+            p[0] = p[1];
+            p[1] = tmp;
+        }
+
+        for (int i = 0; i < cells; ++i) {
+            q[p[i]] = i;
+        }
+    }
+
+    /**
+     * Checks whether the state with positions <code>p</code> is reachable
+     * from the goal state: each move is a transposition moving the empty
+     * cell by one, so the parity of the permutation must match the parity of
+     * the distance of the empty cell from its goal cell.
+     */
+    static boolean isReachable(final int[] p,
+                               final int width,
+                               final int height) {
+        final int cells = width * height;
+        int visited = 0;
+        int cycles = 0;
+
+        for (int i = 0; i < cells; ++i) {
+            if ((visited & (1 << i)) != 0) {
+                continue;
+            }
+
+            ++cycles;
+
+            for (int j = i; (visited & (1 << j)) == 0; j = p[j]) {
+                visited |= 1 << j;
+            }
+        }
+
+        final int empty = p[cells - 1];
+        final int distance = (width - 1 - empty % width)
+                           + (height - 1 - empty / width);
+        return ((cells - cycles) & 1) == (distance & 1);
+    }
+
+    private static long stateCount(final int cells) {
+        long count = 1L;
+
+        for (int i = 3; i <= cells; ++i) {
+            count *= i;
+        }
+
+        return count;
+    }
+
+    private static void checkBoard(final int width, final int height) {
+        if (width < 2 || height < 2 || width * height > MAXIMUM_CELLS) {
+            throw new IllegalArgumentException(
+                    "The board " + width + "x" + height + " is not " +
+                    "supported; both sides must be at least 2 and the " +
+                    "board must have at most " + MAXIMUM_CELLS + " cells.");
+        }
+    }
+
+    /**
+     * The state of a single build.
+     */
+    private static final class Build {
+
+        final int width;
+        final int height;
+        final long size;
+
+        /**
+         * The table, 32 entries per word; the entry of the state ranked
+         * <tt>r</tt> occupies the bits <tt>2 * (r mod 32)</tt> and
+         * <tt>2 * (r mod 32) + 1</tt> of the word <tt>r / 32</tt>.
+         */
+        final AtomicLongArray table;
+
+        /**
+         * The bit sets of the current and the next layer.
+         */
+        AtomicLongArray layer;
+        AtomicLongArray nextLayer;
+
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final AtomicLong nextLayerSize = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Build(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+            this.size = stateCount(width * height);
+            this.table = new AtomicLongArray((int)((size + 31) / 32));
+            this.layer = new AtomicLongArray((int)((size + 63) / 64));
+            this.nextLayer = new AtomicLongArray((int)((size + 63) / 64));
+
+            for (int i = 0; i < table.length(); ++i) {
+                table.set(i, -1L);
+            }
+        }
+
+        /**
+         * Sets the entry of the state ranked <code>rank</code> to
+         * <code>value</code> unless it is reached already.
+         *
+         * @return <code>true</code> if the entry was set.
+         */
+        boolean visit(final long rank, final int value) {
+            final int word = (int)(rank >>> 5);
+            final int shift = (int)(rank & 31) << 1;
+
+            for (;;) {
+                final long old = table.get(word);
+
+                if (((old >>> shift) & 3) != UNVISITED) {
+                    return false;
+                }
+
+                final long updated = (old & ~(3L << shift))
+                                   | ((long) value << shift);
+
+                if (table.compareAndSet(word, old, updated)) {
+                    return true;
+                }
+            }
+        }
+
+        static void setBit(final AtomicLongArray bits, final long index) {
+            final int word = (int)(index >>> 6);
+            final long mask = 1L << (index & 63);
+
+            for (;;) {
+                final long old = bits.get(word);
+
+                if ((old & mask) != 0L
+                        || bits.compareAndSet(word, old, old | mask)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Expands the states of the current layer at the given depth.
+         */
+        void expandLayer(final int depth) {
+            final int cells = width * height;
+            final int[] p = new int[cells];
+            final int[] q = new int[cells];
+            final int[] pp = new int[cells];
+            final int[] qq = new int[cells];
+            final int value = (depth + 1) % 3;
+            final int chunks = (layer.length() + CHUNK_WORDS - 1)
+                             / CHUNK_WORDS;
+            long count = 0L;
+            int chunk;
+
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                final int end = Math.min(layer.length(),
+                                         (chunk + 1) * CHUNK_WORDS);
+
+                for (int word = chunk * CHUNK_WORDS; word < end; ++word) {
+                    long bits = layer.get(word);
+
+                    while (bits != 0L) {
+                        final int bit = Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        unrank(((long) word << 6) | bit, p, q, width, height);
+
+                        final int empty = p[cells - 1];
+                        final int x = empty % width;
+                        final int y = empty / width;
+
+                        if (y > 0) {
+                            count += visitNeighbor(p, q, pp, qq,
+                                                   empty - width, value);
+                        }
+
+                        if (x < width - 1) {
+                            count += visitNeighbor(p, q, pp, qq,
+                                                   empty + 1, value);
+                        }
+
+                        if (y < height - 1) {
+                            count += visitNeighbor(p, q, pp, qq,
+                                                   empty + width, value);
+                        }
+
+                        if (x > 0) {
+                            count += visitNeighbor(p, q, pp, qq,
+                                                   empty - 1, value);
+                        }
+                    }
+                }
+            }
+
+            nextLayerSize.addAndGet(count);
+        }
+
+        private int visitNeighbor(final int[] p,
+                                  final int[] q,
+                                  final int[] pp,
+                                  final int[] qq,
+                                  final int cell,
+                                  final int value) {
+            final int cells = p.length;
+            System.arraycopy(p, 0, pp, 0, cells);
+            System.arraycopy(q, 0, qq, 0, cells);
+
+            // Swap the empty cell with the tile in 'cell'.
+            final int entry = qq[cell];
+            final int empty = pp[cells - 1];
+            pp[entry] = empty;
+            qq[empty] = entry;
+            pp[cells - 1] = cell;
+            qq[cell] = cells - 1;
+
+            final long rank = rank(pp, qq, cells);
+
+            if (!visit(rank, value)) {
+                return 0;
+            }
+
+            setBit(nextLayer, rank);
+            return 1;
+        }
+    }
+
+    /**
+     * Computes the table by breadth-first search from the goal state.
+     */
+    private static AtomicLongArray build(final int width,
+                                         final int height,
+                                         final int threads) {
+        final int cells = width * height;
+        final Build build = new Build(width, height);
+        final int[] p = new int[cells];
+        final int[] q = new int[cells];
+
+        for (int i = 0; i < cells; ++i) {
+            p[i] = i;
+            q[i] = i;
+        }
+
+        final long goal = rank(p, q, cells);
+        build.visit(goal, 0);
+        Build.setBit(build.layer, goal);
+        long reached = 1L;
+
+        for (int depth = 0;; ++depth) {
+            build.nextChunk.set(0);
+            build.nextLayerSize.set(0L);
+            final List<Thread> workers = new ArrayList<>(threads);
+            final int layerDepth = depth;
+
+            for (int i = 0; i < threads; ++i) {
+                final Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            build.expandLayer(layerDepth);
+                        } catch (final Throwable t) {
+                            build.failure.compareAndSet(null, t);
+                        }
+                    }
+                });
+
+                thread.start();
+                workers.add(thread);
+            }
+
+            for (final Thread thread : workers) {
+                try {
+                    thread.join();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    build.failure.compareAndSet(null, ex);
+                }
+            }
+
+            if (build.failure.get() != null) {
+                throw new IllegalStateException("A worker failed.",
+                                                build.failure.get());
+            }
+
+            if (build.nextLayerSize.get() == 0L) {
+                break;
+            }
+
+            reached += build.nextLayerSize.get();
+
+            // The next layer becomes the current one.
+            final AtomicLongArray tmp = build.layer;
+            build.layer = build.nextLayer;
+            build.nextLayer = tmp;
+
+            for (int i = 0; i < tmp.length(); ++i) {
+                tmp.set(i, 0L);
+            }
+        }
+
+        if (reached != build.size) {
+            throw new IllegalStateException(
+                    "Reached " + reached + " states out of " + build.size +
+                    ".");
+        }
+
+        return build.table;
+    }
+
+    /**
+     * Writes the header and the table into <code>file</code> via a temporary
+     * file, so that a partially written table is never mapped.
+     */
+    private static void write(final File file,
+                              final int width,
+                              final int height,
+                              final AtomicLongArray table) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        final Path tmp = Files.createTempFile(directory.toPath(),
+                                              file.getName(),
+                                              ".tmp");
+        final long bytes = (stateCount(width * height) + 3) / 4;
+        final ByteBuffer buffer =
+                ByteBuffer.allocate(1 << 16).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC)
+              .putInt(width)
+              .putInt(height);
+
+        try (final FileChannel channel =
+                FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            for (long i = 0L; i < bytes; ++i) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+
+                final long word = table.get((int)(i >>> 3));
+                buffer.put((byte)(word >>> ((int)(i & 7) << 3)));
+            }
+
+            flush(channel, buffer);
+            channel.force(true);
+        }
+
+        Files.move(tmp,
+                   file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void flush(final FileChannel channel,
+                              final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Memory-maps the table in <code>file</code>.
+     */
+    private static RetrogradeTable map(final File file,
+                                       final int width,
+                                       final int height) throws IOException {
+        final long bytes = (stateCount(width * height) + 3) / 4;
+
+        try (final FileChannel channel =
+                FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_LENGTH + bytes) {
+                throw new IOException("Unexpected size of " + file + ": " +
+                                      channel.size());
+            }
+
+            final MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY,
+                                0L,
+                                channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != width
+                    || buffer.getInt(8) != height) {
+                throw new IOException("Unexpected header in " + file);
+            }
+
+            // The mapping stays valid after the channel is closed.
+            buffer.position(HEADER_LENGTH);
+            return new RetrogradeTable(width, height, buffer.slice());
+        }
+    }
+}
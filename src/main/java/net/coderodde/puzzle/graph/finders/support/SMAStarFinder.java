@@ -0,0 +1,392 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+
+/**
+ * This class implements the simplified memory-bounded A* (SMA*). The search
+ * tree holds at most a given amount of nodes. The successors of a node are
+ * generated one at a time, and once the tree is full, the worst leaf (of the
+ * largest <tt>f</tt>, the shallowest among those) is dropped and its
+ * <tt>f</tt>-value is remembered by its parent, which is regenerated only
+ * when that value becomes the best one again. Once all the successors of a
+ * node have been generated, its <tt>f</tt>-value is backed up to the least
+ * value of its successors, and so on towards the root.
+ * <p>
+ * A node at the depth limit, which is one less than the node budget, that
+ * is not the target gets an infinite <tt>f</tt>-value. If a target is
+ * reachable by a path not longer than the depth limit, a shortest path is
+ * returned; otherwise, <code>null</code> is returned.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+public class SMAStarFinder<T extends AbstractGraphNode<T>>
+extends AbstractPathFinder<T> {
+
+    /**
+     * The <tt>f</tt>-value of the nodes that cannot lead to the target.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * The <tt>f</tt>-value of a successor slot never generated.
+     */
+    private static final int UNKNOWN = -1;
+
+    private final AbstractHeuristicFunction<T> heuristicFunction;
+    private final int maximumNodes;
+
+    /**
+     * A node of the search tree.
+     */
+    private static final class Record<T> {
+
+        final T node;
+        final Record<T> parent;
+
+        /**
+         * The index of this record among the successors of its parent.
+         */
+        final int slot;
+
+        final int g;
+        final int h;
+        final long id;
+        int f;
+
+        /**
+         * The successor nodes, or <code>null</code> before generating the
+         * first one.
+         */
+        List<T> successors;
+
+        /**
+         * The successor records in the tree, <code>null</code> for the ones
+         * not in the tree.
+         */
+        Record<T>[] children;
+
+        /**
+         * The <tt>f</tt>-values of the successors not in the tree, or
+         * {@link #UNKNOWN} for the ones never generated.
+         */
+        int[] forgottenF;
+
+        int childrenInTree;
+
+        Record(final T node,
+               final Record<T> parent,
+               final int slot,
+               final int g,
+               final int h,
+               final long id) {
+            this.node = node;
+            this.parent = parent;
+            this.slot = slot;
+            this.g = g;
+            this.h = h;
+            this.id = id;
+        }
+
+        boolean isFullyInTree() {
+            return successors != null && childrenInTree == successors.size();
+        }
+
+        boolean isFullyGenerated() {
+            if (successors == null) {
+                return false;
+            }
+
+            for (int i = 0; i < forgottenF.length; ++i) {
+                if (children[i] == null && forgottenF[i] == UNKNOWN) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Orders the records by increasing <tt>f</tt>, deeper first.
+     */
+    private static final class BestFirst implements Comparator<Record<?>> {
+
+        @Override
+        public int compare(final Record<?> a, final Record<?> b) {
+            if (a.f != b.f) {
+                return a.f < b.f ? -1 : 1;
+            }
+
+            if (a.g != b.g) {
+                return a.g > b.g ? -1 : 1;
+            }
+
+            return Long.compare(a.id, b.id);
+        }
+    }
+
+    /**
+     * Orders the records by decreasing <tt>f</tt>, shallower first.
+     */
+    private static final class WorstFirst implements Comparator<Record<?>> {
+
+        @Override
+        public int compare(final Record<?> a, final Record<?> b) {
+            if (a.f != b.f) {
+                return a.f > b.f ? -1 : 1;
+            }
+
+            if (a.g != b.g) {
+                return a.g < b.g ? -1 : 1;
+            }
+
+            return Long.compare(a.id, b.id);
+        }
+    }
+
+    /**
+     * Constructs an SMA* finder.
+     *
+     * @param heuristicFunction the heuristic function.
+     * @param maximumNodes      the maximum amount of nodes in the search
+     *                          tree.
+     * @throws java.lang.IllegalArgumentException if <code>maximumNodes</code>
+     *                                            is less than two.
+     */
+    public SMAStarFinder(final AbstractHeuristicFunction<T> heuristicFunction,
+                         final int maximumNodes) {
+        if (maximumNodes < 2) {
+            throw new IllegalArgumentException(
+                    "The node budget must be at least 2, is " +
+                    maximumNodes + ".");
+        }
+
+        this.heuristicFunction = heuristicFunction;
+        this.maximumNodes = maximumNodes;
+    }
+
+    @Override
+    public SMAStarFinder<T> spawn() {
+        return new SMAStarFinder<>(heuristicFunction.spawn(), maximumNodes);
+    }
+
+    @Override
+    protected List<T> doSearch(final T source, final T target) {
+        heuristicFunction.setTarget(target);
+
+        // The records with a successor not in the tree.
+        final TreeSet<Record<T>> OPEN = new TreeSet<>(new BestFirst());
+
+        // The records, other than the root, with no successors in the tree.
+        final TreeSet<Record<T>> LEAVES = new TreeSet<>(new WorstFirst());
+
+        final int maximumDepth = maximumNodes - 1;
+        long nextId = 0L;
+        int nodes = 1;
+
+        final int sourceEstimate = heuristicFunction.estimate(source);
+        final Record<T> root = new Record<>(source,
+                                            null,
+                                            -1,
+                                            0,
+                                            sourceEstimate,
+                                            nextId++);
+        root.f = sourceEstimate;
+        OPEN.add(root);
+
+        while (!OPEN.isEmpty()) {
+            final Record<T> best = OPEN.first();
+
+            if (best.f == INFINITY) {
+                return null;
+            }
+
+            if (best.node.equals(target)) {
+                return tracebackPath(best);
+            }
+
+            nodeExpanded();
+
+            if (best.successors == null) {
+                generateSuccessors(best);
+            }
+
+            if (best.successors.isEmpty()) {
+                OPEN.remove(best);
+                LEAVES.remove(best);
+                best.f = INFINITY;
+                OPEN.add(best);
+
+                // A dead end stays evictable, or it would hold its slot of
+                // the budget for good.
+                if (best != root) {
+                    LEAVES.add(best);
+                }
+
+                backup(best.parent, OPEN, LEAVES);
+                continue;
+            }
+
+            // Generate the successor never generated, or else the forgotten
+            // successor of the least f.
+            final int slot = selectSlot(best);
+            final T node = best.successors.get(slot);
+            nodeGenerated();
+            final int g = best.g + 1;
+            final int h = heuristicFunction.estimate(node, best.node, best.h);
+            final Record<T> child = new Record<>(node,
+                                                 best,
+                                                 slot,
+                                                 g,
+                                                 h,
+                                                 nextId++);
+
+            if (h == 0 && node.equals(target)) {
+                child.f = g;
+            } else if (g >= maximumDepth) {
+                child.f = INFINITY;
+            } else {
+                child.f = Math.max(best.f, Math.max(g + h,
+                                                    best.forgottenF[slot]));
+            }
+
+            LEAVES.remove(best);
+            best.children[slot] = child;
+            best.forgottenF[slot] = UNKNOWN;
+            best.childrenInTree++;
+            ++nodes;
+
+            if (best.isFullyInTree()) {
+                OPEN.remove(best);
+            }
+
+            OPEN.add(child);
+            LEAVES.add(child);
+
+            if (best.isFullyGenerated()) {
+                backup(best, OPEN, LEAVES);
+            }
+
+            while (nodes > maximumNodes && !LEAVES.isEmpty()) {
+                final Record<T> leaf = LEAVES.pollFirst();
+                final Record<T> parent = leaf.parent;
+                OPEN.remove(leaf);
+                --nodes;
+
+                OPEN.remove(parent);
+                parent.children[leaf.slot] = null;
+                parent.forgottenF[leaf.slot] = leaf.f;
+                parent.childrenInTree--;
+                OPEN.add(parent);
+
+                if (parent.childrenInTree == 0 && parent != root) {
+                    LEAVES.add(parent);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void generateSuccessors(final Record<T> record) {
+        final List<T> successors = new ArrayList<>();
+
+        for (final T node : record.node) {
+            if (record.parent == null || !node.equals(record.parent.node)) {
+                successors.add(node);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        final Record<T>[] children =
+                (Record<T>[]) new Record<?>[successors.size()];
+        final int[] forgottenF = new int[successors.size()];
+
+        for (int i = 0; i < forgottenF.length; ++i) {
+            forgottenF[i] = UNKNOWN;
+        }
+
+        record.successors = successors;
+        record.children = children;
+        record.forgottenF = forgottenF;
+    }
+
+    private static <T> int selectSlot(final Record<T> record) {
+        int slot = -1;
+
+        for (int i = 0; i < record.forgottenF.length; ++i) {
+            if (record.children[i] != null) {
+                continue;
+            }
+
+            if (record.forgottenF[i] == UNKNOWN) {
+                return i;
+            }
+
+            if (slot == -1 || record.forgottenF[i] < record.forgottenF[slot]) {
+                slot = i;
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * Sets the <tt>f</tt>-value of each fully generated record, starting
+     * from <code>record</code> towards the root, to the least value of its
+     * successors, as long as the values change.
+     */
+    private static <T> void backup(Record<T> record,
+                                   final TreeSet<Record<T>> OPEN,
+                                   final TreeSet<Record<T>> LEAVES) {
+        while (record != null && record.isFullyGenerated()) {
+            int f = INFINITY;
+
+            for (int i = 0; i < record.children.length; ++i) {
+                f = Math.min(f, record.children[i] != null ?
+                                record.children[i].f :
+                                record.forgottenF[i]);
+            }
+
+            if (f == record.f) {
+                return;
+            }
+
+            // Re-sort the record under its new f-value.
+            final boolean inOpen = OPEN.remove(record);
+            final boolean inLeaves = LEAVES.remove(record);
+            record.f = f;
+
+            if (inOpen) {
+                OPEN.add(record);
+            }
+
+            if (inLeaves) {
+                LEAVES.add(record);
+            }
+
+            record = record.parent;
+        }
+    }
+
+    private List<T> tracebackPath(Record<T> record) {
+        final List<T> path = new ArrayList<>();
+
+        while (record != null) {
+            path.add(record.node);
+            record = record.parent;
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+}
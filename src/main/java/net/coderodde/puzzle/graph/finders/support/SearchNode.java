@@ -0,0 +1,80 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the whole state of a single graph node in a search: the
+ * distances, parents and CLOSED flags of both search directions, and a
+ * cached estimate per direction. The unidirectional finders use only the
+ * forward (<tt>A</tt>) fields.
+ * <p>
+ * The records are kept in a {@link SearchNodeTable}, so that a finder looks
+ * up a node once per generation instead of once per map or set. The
+ * position of a node in an OPEN list is not kept here, since the priority
+ * queues are pluggable and index their elements themselves.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+final class SearchNode<T> {
+
+    /**
+     * The distance of the nodes not reached in a direction.
+     */
+    static final int UNREACHED = -1;
+
+    final T node;
+
+    /**
+     * The hash code of <code>node</code>, cached for the table.
+     */
+    final int hash;
+
+    int distanceA = UNREACHED;
+    int distanceB = UNREACHED;
+
+    SearchNode<T> parentA;
+    SearchNode<T> parentB;
+
+    boolean closedA;
+    boolean closedB;
+
+    /**
+     * The cached estimates; a finder defines which estimate each one is.
+     */
+    int estimateA;
+    int estimateB;
+
+    SearchNode(final T node, final int hash) {
+        this.node = node;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the path following the forward parents from <code>touch</code>
+     * back to the source, and then the backward parents from
+     * <code>touch</code> on to the target.
+     *
+     * @param  touch the node where the two search frontiers meet, or the
+     *               target node after a unidirectional search.
+     * @return the path.
+     */
+    static <T> List<T> tracebackPath(final SearchNode<T> touch) {
+        final List<T> path = new ArrayList<>();
+
+        for (SearchNode<T> n = touch; n != null; n = n.parentA) {
+            path.add(n.node);
+        }
+
+        Collections.reverse(path);
+
+        for (SearchNode<T> n = touch.parentB; n != null; n = n.parentB) {
+            path.add(n.node);
+        }
+
+        return path;
+    }
+}
@@ -0,0 +1,99 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import net.coderodde.puzzle.util.support.HashTables;
+
+/**
+ * This class maps graph nodes to their {@link SearchNode} records by open
+ * addressing with linear probing. The records are created on the first
+ * lookup of a node and never removed, so a single lookup gives a finder all
+ * it knows about a node.
+ * <p>
+ * The records keep no handle into OPEN, which stays behind the
+ * {@link net.coderodde.puzzle.util.IntegerPriorityQueue} interface. The
+ * queues map the nodes to their places by themselves, and a finder looks up
+ * the record of each node extracted from OPEN once more.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <T> the node type.
+ */
+final class SearchNodeTable<T> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The table is doubled once more than this fraction of it is occupied.
+     */
+    private static final float MAXIMUM_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The records. A <code>null</code> marks an empty slot. The length is a
+     * power of two.
+     */
+    private SearchNode<T>[] table;
+
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    SearchNodeTable() {
+        this.table = (SearchNode<T>[]) new SearchNode<?>[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Returns the record of <code>node</code>, creating it if there is none.
+     *
+     * @param  node the node.
+     * @return the record.
+     */
+    SearchNode<T> get(final T node) {
+        final int hash = node.hashCode();
+        final int mask = table.length - 1;
+        int index = HashTables.indexOf(hash, mask);
+        SearchNode<T> record;
+
+        while ((record = table[index]) != null) {
+            if (record.hash == hash && record.node.equals(node)) {
+                return record;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        record = new SearchNode<>(node, hash);
+        table[index] = record;
+
+        if (++size > table.length * MAXIMUM_LOAD_FACTOR) {
+            expand();
+        }
+
+        return record;
+    }
+
+    /**
+     * Returns the amount of records in this table.
+     *
+     * @return the size.
+     */
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expand() {
+        final SearchNode<T>[] oldTable = table;
+        final int mask = (oldTable.length << 1) - 1;
+        table = (SearchNode<T>[]) new SearchNode<?>[oldTable.length << 1];
+
+        for (final SearchNode<T> record : oldTable) {
+            if (record != null) {
+                int index = HashTables.indexOf(record.hash, mask);
+
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                table[index] = record;
+            }
+        }
+    }
+}
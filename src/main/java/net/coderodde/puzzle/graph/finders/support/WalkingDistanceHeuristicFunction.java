@@ -0,0 +1,263 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+
+/**
+ * This class implements the walking distance heuristic function. The
+ * estimate is the sum of the least amount of vertical moves needed to bring
+ * each cell to its target row, and the least amount of horizontal moves
+ * needed to bring each cell to its target column, where, unlike in the
+ * Manhattan distance, the cells compete for the single empty cell. The
+ * distances are read from the tables in {@link WalkingDistanceTable}.
+ * <p>
+ * A vertical move does not change the column configuration and a horizontal
+ * one the row configuration, so the estimate of a node is derived from the
+ * estimate of its neighbor by a single lookup in the table of the affected
+ * dimension. The packed configurations of the neighbor and their distances
+ * are cached for the last neighbor seen, identified by reference and
+ * {@link PuzzleGraphNode#longHashCode()}; since the finders generate all the
+ * neighbors of a node in a row, the neighbor is scanned only once for all of
+ * them. Supports the degrees up to
+ * {@link WalkingDistanceTable#MAXIMUM_DEGREE}.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class WalkingDistanceHeuristicFunction
+extends AbstractHeuristicFunction<PuzzleGraphNode> {
+
+    /**
+     * Maps a cell number to its x-coordinate in the target node.
+     */
+    private final int[] xArray;
+
+    /**
+     * Maps a cell number to its y-coordinate in the target node.
+     */
+    private final int[] yArray;
+
+    private final PuzzleGraphNode source;
+
+    /**
+     * The table of the row configurations.
+     */
+    private WalkingDistanceTable rowTable;
+
+    /**
+     * The table of the column configurations.
+     */
+    private WalkingDistanceTable columnTable;
+
+    /**
+     * Caches the target node.
+     */
+    private PuzzleGraphNode target;
+
+    /**
+     * The last parent node seen.
+     */
+    private PuzzleGraphNode parent;
+
+    /**
+     * The 64-bit hash of {@link #parent} at the time it was seen.
+     */
+    private long parentHash;
+
+    /**
+     * The packed row and column configurations of {@link #parent}.
+     */
+    private long parentRowKey;
+    private long parentColumnKey;
+
+    /**
+     * The distances of {@link #parentRowKey} and {@link #parentColumnKey}.
+     */
+    private int parentRowDistance;
+    private int parentColumnDistance;
+
+    /**
+     * Constructs the heuristic function for the puzzles of the same degree as
+     * <code>sourceNode</code>.
+     *
+     * @param sourceNode a node of the puzzle.
+     * @throws java.lang.IllegalArgumentException if the degree is too large.
+     */
+    public WalkingDistanceHeuristicFunction(final PuzzleGraphNode sourceNode) {
+        final int degree = sourceNode.getDegree();
+
+        if (degree > WalkingDistanceTable.MAXIMUM_DEGREE) {
+            throw new IllegalArgumentException(
+                    "The degree must be at most " +
+                    WalkingDistanceTable.MAXIMUM_DEGREE + ", is " +
+                    degree + ".");
+        }
+
+        this.source = sourceNode;
+        this.xArray = new int[degree * degree];
+        this.yArray = new int[degree * degree];
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  source the source node whose estimate to compute.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>source</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode source) {
+        return rowTable.get(rowKey(source)) +
+               columnTable.get(columnKey(source));
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param  node           the node whose estimate to compute.
+     * @param  parent         a neighbor of <code>node</code>.
+     * @param  parentEstimate the estimate of <code>parent</code>.
+     * @return the optimistic distance to <code>target</code> from
+     * <code>node</code>.
+     */
+    @Override
+    public int estimate(final PuzzleGraphNode node,
+                        final PuzzleGraphNode parent,
+                        final int parentEstimate) {
+        final int toX = parent.getEmptySlotX();
+        final int toY = parent.getEmptySlotY();
+        final int fromX = node.getEmptySlotX();
+        final int fromY = node.getEmptySlotY();
+        final int cell = node.get(toX, toY);
+
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) != 1
+                || parent.get(fromX, fromY) != cell) {
+            // Not neighbors.
+            return estimate(node);
+        }
+
+        final int degree = node.getDegree();
+        loadParent(parent);
+
+        if (fromX == toX) {
+            final long nodeKey = parentRowKey
+                    - WalkingDistanceTable.weight(degree, fromY, yArray[cell])
+                    + WalkingDistanceTable.weight(degree, toY, yArray[cell])
+                    - WalkingDistanceTable.emptyWeight(degree, toY)
+                    + WalkingDistanceTable.emptyWeight(degree, fromY);
+            return parentEstimate - parentRowDistance
+                                  + rowTable.get(nodeKey);
+        }
+
+        final long nodeKey = parentColumnKey
+                - WalkingDistanceTable.weight(degree, fromX, xArray[cell])
+                + WalkingDistanceTable.weight(degree, toX, xArray[cell])
+                - WalkingDistanceTable.emptyWeight(degree, toX)
+                + WalkingDistanceTable.emptyWeight(degree, fromX);
+        return parentEstimate - parentColumnDistance
+                              + columnTable.get(nodeKey);
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param target the target node.
+     */
+    @Override
+    public void setTarget(final PuzzleGraphNode target) {
+        final int degree = target.getDegree();
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = target.get(x, y);
+                xArray[currentCell] = x;
+                yArray[currentCell] = y;
+            }
+        }
+
+        rowTable = WalkingDistanceTable.get(degree, target.getEmptySlotY());
+        columnTable = WalkingDistanceTable.get(degree,
+                                               target.getEmptySlotX());
+        this.target = target;
+        // The cached configurations depend on the target.
+        this.parent = null;
+    }
+
+    @Override
+    public AbstractHeuristicFunction<PuzzleGraphNode> spawn() {
+        return new WalkingDistanceHeuristicFunction(source);
+    }
+
+    /**
+     * Caches the configurations of <code>parent</code> and their distances,
+     * unless it is the last parent seen.
+     *
+     * @param parent the parent node.
+     */
+    private void loadParent(final PuzzleGraphNode parent) {
+        final long hash = parent.longHashCode();
+
+        if (parent == this.parent && hash == parentHash) {
+            return;
+        }
+
+        this.parent = parent;
+        this.parentHash = hash;
+        this.parentRowKey = rowKey(parent);
+        this.parentColumnKey = columnKey(parent);
+        this.parentRowDistance = rowTable.get(parentRowKey);
+        this.parentColumnDistance = columnTable.get(parentColumnKey);
+    }
+
+    /**
+     * Packs the row configuration of <code>node</code>.
+     *
+     * @param  node the node.
+     * @return the packed configuration.
+     */
+    private long rowKey(final PuzzleGraphNode node) {
+        final int degree = node.getDegree();
+        long key = WalkingDistanceTable.emptyWeight(degree,
+                                                    node.getEmptySlotY());
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = node.get(x, y);
+
+                if (currentCell != 0) {
+                    key += WalkingDistanceTable.weight(degree,
+                                                       y,
+                                                       yArray[currentCell]);
+                }
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Packs the column configuration of <code>node</code>.
+     *
+     * @param  node the node.
+     * @return the packed configuration.
+     */
+    private long columnKey(final PuzzleGraphNode node) {
+        final int degree = node.getDegree();
+        long key = WalkingDistanceTable.emptyWeight(degree,
+                                                    node.getEmptySlotX());
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                final int currentCell = node.get(x, y);
+
+                if (currentCell != 0) {
+                    key += WalkingDistanceTable.weight(degree,
+                                                       x,
+                                                       xArray[currentCell]);
+                }
+            }
+        }
+
+        return key;
+    }
+}
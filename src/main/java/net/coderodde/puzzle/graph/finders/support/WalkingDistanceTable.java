@@ -0,0 +1,204 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import net.coderodde.puzzle.util.support.LongIntHashMap;
+
+/**
+ * This class implements the walking distance table of a single dimension. A
+ * configuration records, for each row <tt>r</tt> and each row <tt>g</tt>, the
+ * amount of cells residing in <tt>r</tt> whose target row is <tt>g</tt>,
+ * together with the row of the empty cell. A vertical move carries one cell
+ * into the row of the empty cell; horizontal moves leave the configuration
+ * intact. The table maps each configuration to the least amount of vertical
+ * moves bringing it to the target configuration.
+ * <p>
+ * By symmetry, the same table serves the columns when rows are read as
+ * columns. A table depends only on the degree and the target row of the empty
+ * cell, and has less than 25 000 entries for the <tt>4 x 4</tt> puzzle, so
+ * the tables are built on first use and shared within the JVM.
+ * <p>
+ * A configuration is packed into a <code>long</code>: the count of cells in
+ * row <tt>r</tt> with target row <tt>g</tt> occupies the three bits starting
+ * at <tt>3 * (r * degree + g)</tt>, and the row of the empty cell the bits
+ * starting at <tt>3 * degree * degree</tt>. The distances are kept in an
+ * open-addressing hash map, so a lookup takes constant time; a table is never
+ * modified once built, so concurrent lookups are safe.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+final class WalkingDistanceTable {
+
+    /**
+     * The largest supported degree.
+     */
+    static final int MAXIMUM_DEGREE = 4;
+
+    /**
+     * The width of a count field in bits.
+     */
+    private static final int FIELD_WIDTH = 3;
+
+    /**
+     * Caches the tables already built.
+     */
+    private static final Map<Integer, WalkingDistanceTable> CACHE =
+            new HashMap<>();
+
+    /**
+     * Maps the configurations to their distances.
+     */
+    private final LongIntHashMap distances;
+
+    private WalkingDistanceTable(final LongIntHashMap distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the table for the input degree and target row of the empty
+     * cell.
+     *
+     * @param  degree    the degree of the puzzle.
+     * @param  emptyLine the target row of the empty cell.
+     * @return the table.
+     * @throws java.lang.IllegalArgumentException if the degree is too large.
+     */
+    static synchronized WalkingDistanceTable get(final int degree,
+                                                 final int emptyLine) {
+        if (degree > MAXIMUM_DEGREE) {
+            throw new IllegalArgumentException(
+                    "The degree of the walking distance tables must be at " +
+                    "most " + MAXIMUM_DEGREE + ", is " + degree + ".");
+        }
+
+        final Integer key = degree * MAXIMUM_DEGREE + emptyLine;
+        WalkingDistanceTable table = CACHE.get(key);
+
+        if (table == null) {
+            table = build(degree, emptyLine);
+            CACHE.put(key, table);
+        }
+
+        return table;
+    }
+
+    /**
+     * Returns the one-cell increment of the count of cells residing in line
+     * <code>line</code> whose target line is <code>targetLine</code>.
+     *
+     * @param  degree     the degree of the puzzle.
+     * @param  line       the current line.
+     * @param  targetLine the target line.
+     * @return the increment of the packed configuration.
+     */
+    static long weight(final int degree,
+                       final int line,
+                       final int targetLine) {
+        return 1L << (FIELD_WIDTH * (line * degree + targetLine));
+    }
+
+    /**
+     * Returns the packed value of the empty cell residing in line
+     * <code>line</code>.
+     *
+     * @param  degree the degree of the puzzle.
+     * @param  line   the line of the empty cell.
+     * @return the packed value.
+     */
+    static long emptyWeight(final int degree, final int line) {
+        return (long) line << (FIELD_WIDTH * degree * degree);
+    }
+
+    /**
+     * Returns the distance of a packed configuration.
+     *
+     * @param  key the packed configuration.
+     * @return the distance.
+     * @throws java.lang.IllegalArgumentException if the configuration is not
+     *                                            reachable.
+     */
+    int get(final long key) {
+        final int distance = distances.get(key, -1);
+
+        if (distance < 0) {
+            throw new IllegalArgumentException(
+                    "Unreachable walking distance configuration: " + key);
+        }
+
+        return distance;
+    }
+
+    /**
+     * Returns the amount of configurations.
+     *
+     * @return the size of the table.
+     */
+    int size() {
+        return distances.size();
+    }
+
+    /**
+     * Builds the table by breadth-first search from the target
+     * configuration.
+     *
+     * @param  degree    the degree of the puzzle.
+     * @param  emptyLine the target line of the empty cell.
+     * @return the table.
+     */
+    private static WalkingDistanceTable build(final int degree,
+                                              final int emptyLine) {
+        long start = emptyWeight(degree, emptyLine);
+
+        for (int line = 0; line < degree; ++line) {
+            final int count = line == emptyLine ? degree - 1 : degree;
+            start += count * weight(degree, line, line);
+        }
+
+        final long emptyShift = FIELD_WIDTH * degree * degree;
+        final long fieldMask = (1L << FIELD_WIDTH) - 1L;
+        final LongIntHashMap DISTANCE = new LongIntHashMap();
+        final Deque<Long> QUEUE = new ArrayDeque<>();
+
+        DISTANCE.put(start, 0);
+        QUEUE.addLast(start);
+
+        while (!QUEUE.isEmpty()) {
+            final long current = QUEUE.removeFirst();
+            final int distance = DISTANCE.get(current, -1);
+            final int empty = (int)(current >>> emptyShift);
+
+            for (int line = empty - 1; line <= empty + 1; line += 2) {
+                if (line < 0 || line >= degree) {
+                    continue;
+                }
+
+                for (int g = 0; g < degree; ++g) {
+                    final long from = weight(degree, line, g);
+
+                    if (((current >>> (FIELD_WIDTH * (line * degree + g)))
+                            & fieldMask) == 0L) {
+                        continue;
+                    }
+
+                    // Move a cell with target line 'g' from 'line' into the
+                    // line of the empty cell.
+                    final long child = current
+                            - from
+                            + weight(degree, empty, g)
+                            - emptyWeight(degree, empty)
+                            + emptyWeight(degree, line);
+
+                    if (!DISTANCE.containsKey(child)) {
+                        DISTANCE.put(child, distance + 1);
+                        QUEUE.addLast(child);
+                    }
+                }
+            }
+        }
+
+        return new WalkingDistanceTable(DISTANCE);
+    }
+}
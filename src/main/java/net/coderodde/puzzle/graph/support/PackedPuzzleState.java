@@ -0,0 +1,454 @@
+package net.coderodde.puzzle.graph.support;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+
+/**
+ * This class represents a puzzle node for <tt>(n^2 - 1)</tt>-puzzle game with
+ * <tt>n</tt> at most 4. The entire state is packed into a single
+ * <code>long</code>, four bits per cell, so that the cell at index
+ * <tt>i = y * n + x</tt> occupies the bits <tt>4i, ..., 4i + 3</tt>. The
+ * empty cell is encoded by zero.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class PackedPuzzleState extends AbstractGraphNode<PackedPuzzleState> {
+
+    private static final int MINIMUM_DEGREE = 3;
+    private static final int MAXIMUM_DEGREE = 4;
+
+    /**
+     * The amount of bits per cell.
+     */
+    private static final int BITS_PER_CELL = 4;
+
+    /**
+     * The mask for extracting a single cell.
+     */
+    private static final long CELL_MASK = 0xFL;
+
+    /**
+     * The direction indices into {@link #NEIGHBORS}.
+     */
+    private static final int UP    = 0;
+    private static final int RIGHT = 1;
+    private static final int DOWN  = 2;
+    private static final int LEFT  = 3;
+
+    /**
+     * Marks a missing neighbor in {@link #NEIGHBORS}.
+     */
+    private static final int NO_NEIGHBOR = -1;
+
+    /**
+     * The move tables. <code>NEIGHBORS[degree][direction][index]</code> is the
+     * index of the cell the empty cell moves to when moved towards
+     * <code>direction</code> from the cell <code>index</code>, or
+     * {@link #NO_NEIGHBOR} if there is no such cell.
+     */
+    private static final int[][][] NEIGHBORS =
+            new int[MAXIMUM_DEGREE + 1][][];
+
+    static {
+        for (int degree = MINIMUM_DEGREE; degree <= MAXIMUM_DEGREE; ++degree) {
+            final int cells = degree * degree;
+            final int[][] table = new int[4][cells];
+
+            for (int index = 0; index < cells; ++index) {
+                final int x = index % degree;
+                final int y = index / degree;
+
+                table[UP][index]    = y > 0 ? index - degree : NO_NEIGHBOR;
+                table[RIGHT][index] = x < degree - 1 ? index + 1 : NO_NEIGHBOR;
+                table[DOWN][index]  = y < degree - 1 ? index + degree :
+                                                       NO_NEIGHBOR;
+                table[LEFT][index]  = x > 0 ? index - 1 : NO_NEIGHBOR;
+            }
+
+            NEIGHBORS[degree] = table;
+        }
+    }
+
+    /**
+     * The dimension of the puzzle node being represented.
+     */
+    private final int degree;
+
+    /**
+     * The packed cells.
+     */
+    private final long state;
+
+    /**
+     * The index of the empty cell.
+     */
+    private final int emptyIndex;
+
+    /**
+     * Creates the goal state of the puzzle graph.
+     *
+     * @param degree the degree of the node.
+     */
+    public PackedPuzzleState(final int degree) {
+        checkDegree(degree);
+        final int cells = degree * degree;
+        long s = 0L;
+
+        for (int index = 0; index < cells - 1; ++index) {
+            s |= ((long)(index + 1)) << (index * BITS_PER_CELL);
+        }
+
+        this.degree = degree;
+        this.state = s;
+        this.emptyIndex = cells - 1;
+    }
+
+    private PackedPuzzleState(final int degree,
+                              final long state,
+                              final int emptyIndex) {
+        this.degree = degree;
+        this.state = state;
+        this.emptyIndex = emptyIndex;
+    }
+
+    /**
+     * Packs the input node.
+     *
+     * @param  node the node to pack.
+     * @return the packed node.
+     * @throws java.lang.IllegalArgumentException if the degree of the input
+     *                                            node is too large.
+     */
+    public static PackedPuzzleState valueOf(final PuzzleGraphNode node) {
+        final int degree = node.getDegree();
+        checkDegree(degree);
+        long s = 0L;
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                s |= ((long) node.get(x, y))
+                        << ((y * degree + x) * BITS_PER_CELL);
+            }
+        }
+
+        return new PackedPuzzleState(degree,
+                                     s,
+                                     node.getEmptySlotY() * degree +
+                                     node.getEmptySlotX());
+    }
+
+    /**
+     * Reconstructs a node from its packed representation as returned by
+     * {@link #getState()}.
+     *
+     * @param  degree the degree of the node.
+     * @param  state  the packed cells.
+     * @return the node.
+     * @throws java.lang.IllegalArgumentException if <code>state</code> does
+     *                                            not encode a permutation of
+     *                                            the cells.
+     */
+    public static PackedPuzzleState valueOf(final int degree,
+                                            final long state) {
+        checkDegree(degree);
+        final int cells = degree * degree;
+        int seen = 0;
+        int emptyIndex = -1;
+
+        for (int index = 0; index < cells; ++index) {
+            final int cell = (int)((state >>> (index * BITS_PER_CELL))
+                                   & CELL_MASK);
+            seen |= 1 << cell;
+
+            if (cell == 0) {
+                emptyIndex = index;
+            }
+        }
+
+        if (seen != (1 << cells) - 1 ||
+                (cells < 16 && (state >>> (cells * BITS_PER_CELL)) != 0L)) {
+            throw new IllegalArgumentException(
+                    "The input state does not encode a valid node: " +
+                    Long.toHexString(state));
+        }
+
+        return new PackedPuzzleState(degree, state, emptyIndex);
+    }
+
+    /**
+     * Returns the packed cells of this node.
+     *
+     * @return the packed cells.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Returns the degree of this node.
+     *
+     * @return the degree.
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Reads the contents of the cell with coordinates <code>(x, y)</code>.
+     *
+     * @param  x the x-coordinate of the cell to read.
+     * @param  y the y-coordinate of the cell to read.
+     * @return the contents of the specified cell.
+     */
+    public int get(final int x, final int y) {
+        return get(y * degree + x);
+    }
+
+    /**
+     * Reads the contents of the cell at index <code>index</code>.
+     *
+     * @param  index the index of the cell to read.
+     * @return the contents of the specified cell.
+     */
+    public int get(final int index) {
+        return (int)((state >>> (index * BITS_PER_CELL)) & CELL_MASK);
+    }
+
+    /**
+     * Extracts the x-coordinate of the empty cell.
+     *
+     * @return the x-coordinate.
+     */
+    public int getEmptySlotX() {
+        return emptyIndex % degree;
+    }
+
+    /**
+     * Extracts the y-coordinate of the empty cell.
+     *
+     * @return the y-coordinate.
+     */
+    public int getEmptySlotY() {
+        return emptyIndex / degree;
+    }
+
+    /**
+     * Returns the index of the empty cell.
+     *
+     * @return the index of the empty cell.
+     */
+    public int getEmptySlotIndex() {
+        return emptyIndex;
+    }
+
+    /**
+     * If there is cells above the current empty cell, moves the latter one cell
+     * up.
+     *
+     * @return the new puzzle node with the empty cell moved upwards, or
+     *         <code>null</code> if it is not possible to move it up.
+     */
+    public PackedPuzzleState moveUp() {
+        return move(UP);
+    }
+
+    /**
+     * If there is cells on the right of the current empty cell, moves the
+     * latter one cell to the right.
+     *
+     * @return the new puzzle node with the empty cell moved to the right or
+     *         <code>null</code> if it is not possible to move to the right.
+     */
+    public PackedPuzzleState moveRight() {
+        return move(RIGHT);
+    }
+
+    /**
+     * If there is cells below the current empty cell, moves the latter one cell
+     * down.
+     *
+     * @return the new puzzle node with the empty cell moved downwards, or
+     *         <code>null</code> if it is not possible to move it down.
+     */
+    public PackedPuzzleState moveDown() {
+        return move(DOWN);
+    }
+
+    /**
+     * If there is cells to the left of the current empty cell, moves the
+     * latter one cell to the left.
+     *
+     * @return the new puzzle node with the empty cell moved to the left, or
+     *         <code>null</code> if it is not possible to move left anymore.
+     */
+    public PackedPuzzleState moveLeft() {
+        return move(LEFT);
+    }
+
+    @Override
+    public boolean hasChild(final PackedPuzzleState other) {
+        if (degree != other.degree) {
+            return false;
+        }
+
+        for (int direction = UP; direction <= LEFT; ++direction) {
+            final int target = NEIGHBORS[degree][direction][emptyIndex];
+
+            if (target != NO_NEIGHBOR
+                    && movedState(target) == other.state) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns an <code>Iterable</code> over this node's parent nodes.
+     *
+     * @return an <code>Iterable</code>.
+     */
+    @Override
+    public Iterable<PackedPuzzleState> parents() {
+        final List<PackedPuzzleState> list = new ArrayList<>(4);
+
+        for (int direction = UP; direction <= LEFT; ++direction) {
+            final PackedPuzzleState node = move(direction);
+
+            if (node != null) {
+                list.add(node);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Returns an iterator over this nodes neighbors.
+     *
+     * @return an iterator.
+     */
+    @Override
+    public Iterator<PackedPuzzleState> iterator() {
+        // Simply delegate to 'parents' since PackedPuzzleState models an
+        // undirected graph.
+        return parents().iterator();
+    }
+
+    /**
+     * Returns the hash code of this node.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        // Spread the nibbles over all the bits before folding.
+        long h = state * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+
+    /**
+     * Returns a 64-bit hash code of this node.
+     *
+     * @return the 64-bit hash code.
+     */
+    @Override
+    public long longHashCode() {
+        return state * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Checks whether this node and <code>o</code> encode the same node.
+     *
+     * @param  o another object.
+     * @return <code>true</code> only if the two objects are deemed to encode
+     *         the same node.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (!(o instanceof PackedPuzzleState)) {
+            return false;
+        }
+
+        final PackedPuzzleState other = (PackedPuzzleState) o;
+        return state == other.state && degree == other.degree;
+    }
+
+    /**
+     * Returns the string representation of this puzzle node.
+     *
+     * @return the string representation.
+     */
+    @Override
+    public String toString() {
+        final int totalCells = degree * degree;
+        final int numberLength = Integer.toString(totalCells - 1).length();
+        final String formatString = "%-" + numberLength + "d";
+
+        final StringBuilder sb =
+                new StringBuilder(totalCells * (numberLength + 1) + degree);
+
+        for (int y = 0; y < degree; ++y) {
+            for (int x = 0; x < degree; ++x) {
+                sb.append(String.format(formatString, get(x, y)))
+                  .append(' ');
+            }
+
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Moves the empty cell towards <code>direction</code>.
+     *
+     * @param  direction the direction.
+     * @return the new node or <code>null</code> if there is no cell to move to.
+     */
+    private PackedPuzzleState move(final int direction) {
+        final int target = NEIGHBORS[degree][direction][emptyIndex];
+
+        if (target == NO_NEIGHBOR) {
+            return null;
+        }
+
+        return new PackedPuzzleState(degree, movedState(target), target);
+    }
+
+    /**
+     * Computes the packed state resulting from swapping the empty cell with
+     * the cell at index <code>target</code>.
+     *
+     * @param  target the index of the cell to swap with the empty cell.
+     * @return the packed state after the swap.
+     */
+    private long movedState(final int target) {
+        final long tile = (state >>> (target * BITS_PER_CELL)) & CELL_MASK;
+
+        // The empty cell is all zeros, so XOR both clears the target cell and
+        // writes the tile into the former empty cell.
+        return state ^ (tile << (target * BITS_PER_CELL))
+                     ^ (tile << (emptyIndex * BITS_PER_CELL));
+    }
+
+    /**
+     * Checks the degree.
+     *
+     * @param degree the degree to check.
+     * @throws java.lang.IllegalArgumentException if the input degree
+     *                                            is invalid.
+     */
+    private static void checkDegree(final int degree) {
+        if (degree < MINIMUM_DEGREE || degree > MAXIMUM_DEGREE) {
+            throw new IllegalArgumentException(
+                    "The input degree is out of range: " + degree + " but " +
+                    "must be within [" + MINIMUM_DEGREE + ", " +
+                    MAXIMUM_DEGREE + "].");
+        }
+    }
+}
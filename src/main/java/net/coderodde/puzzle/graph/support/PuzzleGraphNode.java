@@ -1,30 +1,82 @@
 package net.coderodde.puzzle.graph.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import net.coderodde.puzzle.graph.AbstractGraphNode;
 
 /**
- * This class represents a puzzle node for <tt>(n^2 - 1)</tt>-puzzle game.
+ * This class represents a puzzle node for <tt>(n^2 - 1)</tt>-puzzle game. The
+ * cells are stored row by row in a single flat array whose component type is
+ * chosen by the degree: a <code>byte</code> array as long as every cell number
+ * fits into an unsigned byte, and a <code>short</code> array otherwise.
+ * <p>
+ * Each node caches its 64-bit Zobrist hash, the XOR of the keys of all its 
+ * (cell index, cell number) pairs. Since a move changes only two cells, the
+ * moves update the hash in constant time.
  * 
  * @author Rodion Efremov
  * @version 1.6
  */
 public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
    
+    /**
+     * The direction moving the empty cell up. The directions are numbered 
+     * clockwise, so that <code>(direction + 2) % 4</code> is the inverse of
+     * <code>direction</code>.
+     */
+    public static final int UP = 0;
+    
+    /**
+     * The direction moving the empty cell to the right.
+     */
+    public static final int RIGHT = 1;
+    
+    /**
+     * The direction moving the empty cell down.
+     */
+    public static final int DOWN = 2;
+    
+    /**
+     * The direction moving the empty cell to the left.
+     */
+    public static final int LEFT = 3;
+    
     private static final int MINIMUM_DEGREE = 3;
     
+    /**
+     * The largest degree whose cell numbers fit into an unsigned byte.
+     */
+    private static final int MAXIMUM_BYTE_DEGREE = 16;
+    
+    /**
+     * The largest degree whose cell numbers fit into an unsigned short.
+     */
+    private static final int MAXIMUM_DEGREE = 256;
+    
     /**
      * This field stores the dimension of the puzzle node being represented.
      */
     private final int degree; 
     
     /**
-     * This matrix stores the actual puzzle node cells.
+     * Stores the cells if the degree is at most {@link #MAXIMUM_BYTE_DEGREE},
+     * otherwise is <code>null</code>.
+     */
+    private final byte[] byteCells;
+    
+    /**
+     * Stores the cells if the degree is larger than 
+     * {@link #MAXIMUM_BYTE_DEGREE}, otherwise is <code>null</code>.
      */
-    private final int[][] matrix;
+    private final short[] shortCells;
+    
+    /**
+     * The Zobrist hash of this node.
+     */
+    private long zobristHash;
     
     /**
      * The X-index of the empty slot.
@@ -44,19 +96,28 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
     public PuzzleGraphNode(final int degree) {
         checkDegree(degree);
         this.degree = degree;
-        this.matrix = new int[degree][degree];
         
-        int b = 1;
+        final int cells = degree * degree;
         
-        for (int y = 0; y < degree; ++y) {
-            for (int x = 0; x < degree; ++x) {
-                matrix[y][x] = b++;
-            }
+        if (degree <= MAXIMUM_BYTE_DEGREE) {
+            this.byteCells = new byte[cells];
+            this.shortCells = null;
+        } else {
+            this.byteCells = null;
+            this.shortCells = new short[cells];
         }
         
-        matrix[degree - 1][degree - 1] = 0;
+        for (int index = 0; index < cells - 1; ++index) {
+            set(index, index + 1);
+        }
+        
+        set(cells - 1, 0);
         emptyIndexX = degree - 1;
         emptyIndexY = degree - 1;
+        
+        for (int index = 0; index < cells; ++index) {
+            zobristHash ^= zobristKey(index, get(index));
+        }
     }
     
     /**
@@ -66,16 +127,24 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
      */
     private PuzzleGraphNode(final PuzzleGraphNode copy) {
         this.degree = copy.degree;
-        this.matrix = new int[degree][degree];
         
-        for (int y = 0; y < degree; ++y) {
-            for (int x = 0; x < degree; ++x) {
-                this.matrix[y][x] = copy.matrix[y][x];
-            }
+        if (copy.byteCells != null) {
+            this.byteCells = new byte[copy.byteCells.length];
+            this.shortCells = null;
+            System.arraycopy(copy.byteCells, 0, 
+                             this.byteCells, 0, 
+                             this.byteCells.length);
+        } else {
+            this.byteCells = null;
+            this.shortCells = new short[copy.shortCells.length];
+            System.arraycopy(copy.shortCells, 0, 
+                             this.shortCells, 0, 
+                             this.shortCells.length);
         }
         
         this.emptyIndexX = copy.emptyIndexX;
         this.emptyIndexY = copy.emptyIndexY;
+        this.zobristHash = copy.zobristHash;
     }
     
     @Override
@@ -84,16 +153,15 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
             return false;
         }
         
+        final int cells = degree * degree;
         int differences = 0;
         
-        for (int y = 0; y < degree; ++y) {
-            for (int x = 0; x < degree; ++x) {
-                if (matrix[y][x] != other.matrix[y][x]) {
-                    ++differences;
-                    
-                    if (differences > 2) {
-                        return false;
-                    }
+        for (int index = 0; index < cells; ++index) {
+            if (get(index) != other.get(index)) {
+                ++differences;
+
+                if (differences > 2) {
+                    return false;
                 }
             }
         }
@@ -108,7 +176,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         int sourceY = rnd.nextInt(degree);
         
         for (;;) {
-            if (matrix[sourceY][sourceX] == 0) {
+            if (get(sourceX, sourceY) == 0) {
                 sourceX = rnd.nextInt(degree);
                 sourceY = rnd.nextInt(degree);
             } else {
@@ -146,17 +214,134 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
                 continue;
             }
             
-            if (matrix[targetY][targetX] == 0) {
+            if (get(targetX, targetY) == 0) {
                 continue;
             }
             
-            int tmp = newNode.matrix[sourceY][sourceX];
-            newNode.matrix[sourceY][sourceX] = newNode.matrix[targetY][targetX];
-            newNode.matrix[targetY][targetX] = tmp;
+            final int sourceIndex = sourceY * degree + sourceX;
+            final int targetIndex = targetY * degree + targetX;
+            final int sourceCell = newNode.get(sourceIndex);
+            final int targetCell = newNode.get(targetIndex);
+            newNode.set(sourceIndex, targetCell);
+            newNode.set(targetIndex, sourceCell);
+            newNode.zobristHash ^= zobristKey(sourceIndex, sourceCell) ^
+                                   zobristKey(sourceIndex, targetCell) ^
+                                   zobristKey(targetIndex, targetCell) ^
+                                   zobristKey(targetIndex, sourceCell);
             return newNode;
         }
     }
     
+    /**
+     * Returns a copy of this node.
+     * 
+     * @return the copy.
+     */
+    public PuzzleGraphNode copy() {
+        return new PuzzleGraphNode(this);
+    }
+    
+    /**
+     * Moves the empty cell of this very node in the direction 
+     * <code>direction</code>, if possible. This allows searching without 
+     * allocating the neighbor nodes; note that a node must not be modified 
+     * while it is stored in a hash-based collection.
+     * 
+     * @param  direction one of {@link #UP}, {@link #RIGHT}, {@link #DOWN} and
+     *                   {@link #LEFT}.
+     * @return <code>true</code> if the empty cell was moved, and 
+     *         <code>false</code> if it is at the border of the puzzle.
+     * @throws java.lang.IllegalArgumentException if the direction is invalid.
+     */
+    public boolean moveInPlace(final int direction) {
+        switch (direction) {
+            case UP:
+                if (emptyIndexY == 0) {
+                    return false;
+                }
+                
+                swapWithEmpty(emptyIndexX, emptyIndexY - 1);
+                return true;
+                
+            case RIGHT:
+                if (emptyIndexX == degree - 1) {
+                    return false;
+                }
+                
+                swapWithEmpty(emptyIndexX + 1, emptyIndexY);
+                return true;
+                
+            case DOWN:
+                if (emptyIndexY == degree - 1) {
+                    return false;
+                }
+                
+                swapWithEmpty(emptyIndexX, emptyIndexY + 1);
+                return true;
+                
+            case LEFT:
+                if (emptyIndexX == 0) {
+                    return false;
+                }
+                
+                swapWithEmpty(emptyIndexX - 1, emptyIndexY);
+                return true;
+                
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown direction: " + direction + ".");
+        }
+    }
+    
+    /**
+     * Checks whether <code>target</code> is reachable from this node. Each 
+     * move transposes two cells and moves the empty cell by one, so the 
+     * parity of the permutation taking this node to <code>target</code> must
+     * match the parity of the Manhattan distance between the empty cells. For
+     * nodes of the same degree, that condition is also sufficient.
+     * 
+     * @param  target the target node.
+     * @return <code>true</code> if and only if <code>target</code> is 
+     *         reachable.
+     */
+    public boolean isReachable(final PuzzleGraphNode target) {
+        if (degree != target.degree) {
+            return false;
+        }
+        
+        final int cells = degree * degree;
+        final int[] targetIndex = new int[cells];
+        final boolean[] visited = new boolean[cells];
+        
+        for (int index = 0; index < cells; ++index) {
+            targetIndex[target.get(index)] = index;
+        }
+        
+        // A cycle of length k is a product of k - 1 transpositions.
+        int transpositions = 0;
+        
+        for (int index = 0; index < cells; ++index) {
+            if (visited[index]) {
+                continue;
+            }
+            
+            int current = index;
+            
+            while (!visited[current]) {
+                visited[current] = true;
+                current = targetIndex[get(current)];
+                ++transpositions;
+            }
+            
+            --transpositions;
+        }
+        
+        final int emptyDistance = Math.abs(emptyIndexX - target.emptyIndexX) +
+                                  Math.abs(emptyIndexY - target.emptyIndexY);
+        
+        return ((transpositions ^ emptyDistance) & 1) == 0;
+    }
+    
     /**
      * Returns the degree of this node.
      * 
@@ -174,7 +359,20 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
      * @return the contents of the specified cell.
      */
     public int get(final int x, final int y) {
-        return matrix[y][x];
+        return get(y * degree + x);
+    }
+    
+    /**
+     * Reads the contents of the cell at index <code>index</code>, where cells
+     * are indexed row by row, so that the cell <code>(x, y)</code> has the 
+     * index <code>y * degree + x</code>.
+     * 
+     * @param  index the index of the cell to read.
+     * @return the contents of the specified cell.
+     */
+    public int get(final int index) {
+        return byteCells != null ? byteCells[index] & 0xff : 
+                                   shortCells[index] & 0xffff;
     }
     
     /**
@@ -194,10 +392,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         final int x = getEmptySlotX();
         final PuzzleGraphNode node = new PuzzleGraphNode(this);
         
-        node.matrix[y][x] = node.matrix[y - 1][x];
-        node.matrix[y - 1][x] = 0;
-        node.emptyIndexX = x;
-        node.emptyIndexY = y - 1;
+        node.swapWithEmpty(x, y - 1);
         return node;
     }
     
@@ -219,10 +414,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         final int y = getEmptySlotY();
         final PuzzleGraphNode node = new PuzzleGraphNode(this);
         
-        node.matrix[y][x] = node.matrix[y][x + 1];
-        node.matrix[y][x + 1] = 0;
-        node.emptyIndexX = x + 1;
-        node.emptyIndexY = y;
+        node.swapWithEmpty(x + 1, y);
         return node;
     }
     
@@ -244,10 +436,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         final int x = getEmptySlotX();
         final PuzzleGraphNode node = new PuzzleGraphNode(this);
         
-        node.matrix[y][x] = node.matrix[y + 1][x];
-        node.matrix[y + 1][x] = 0;
-        node.emptyIndexX = x;
-        node.emptyIndexY = y + 1;
+        node.swapWithEmpty(x, y + 1);
         return node;
     }
     
@@ -269,10 +458,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         final int y = getEmptySlotY();
         final PuzzleGraphNode node = new PuzzleGraphNode(this);
         
-        node.matrix[y][x] = node.matrix[y][x - 1];
-        node.matrix[y][x - 1] = 0;
-        node.emptyIndexX = x - 1;
-        node.emptyIndexY = y;
+        node.swapWithEmpty(x - 1, y);
         return node;
     }
     
@@ -284,8 +470,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
     @Override
     public String toString() {
         final int totalCells = degree * degree;
-        final byte maxNumber = (byte)(totalCells - 1);
-        final int numberLength = Byte.toString(maxNumber).length();
+        final int numberLength = Integer.toString(totalCells - 1).length();
         final String formatString = "%-" + numberLength + "d";
         
         final StringBuilder sb = 
@@ -293,7 +478,7 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         
         for (int y = 0; y < degree; ++y) {
             for (int x = 0; x < degree; ++x) {
-                sb.append(String.format(formatString, matrix[y][x]))
+                sb.append(String.format(formatString, get(x, y)))
                   .append(' ');
             }
             
@@ -345,16 +530,17 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
      */
     @Override
     public int hashCode() {
-        int hash = 0;
-        int factor = 1;
-        
-        for (final int[] row : matrix) {
-            for (int b : row) {
-                hash += b * factor++;
-            }
-        }
-        
-        return hash;
+        return (int)(zobristHash ^ (zobristHash >>> 32));
+    }
+    
+    /**
+     * Returns the Zobrist hash of this node.
+     * 
+     * @return the 64-bit hash code.
+     */
+    @Override
+    public long longHashCode() {
+        return zobristHash;
     }
 
     /**
@@ -372,19 +558,18 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         
         final PuzzleGraphNode other = (PuzzleGraphNode) o;
         
-        if (degree != other.degree) {
+        if (zobristHash != other.zobristHash || degree != other.degree) {
             return false;
         }
         
-        for (int y = 0; y < degree; ++y) {
-            for (int x = 0; x < degree; ++x) {
-                if (matrix[y][x] != other.matrix[y][x]) {
-                    return false;
-                }
-            }
+        if (emptyIndexX != other.emptyIndexX 
+                || emptyIndexY != other.emptyIndexY) {
+            return false;
         }
         
-        return true;
+        return byteCells != null ? 
+               Arrays.equals(byteCells, other.byteCells) :
+               Arrays.equals(shortCells, other.shortCells);
     }
 
     /**
@@ -417,6 +602,58 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
         return emptyIndexY;
     }
     
+    /**
+     * Writes <code>value</code> to the cell at index <code>index</code>.
+     * 
+     * @param index the index of the cell to write.
+     * @param value the value to write.
+     */
+    private void set(final int index, final int value) {
+        if (byteCells != null) {
+            byteCells[index] = (byte) value;
+        } else {
+            shortCells[index] = (short) value;
+        }
+    }
+    
+    /**
+     * Moves the cell at <code>(x, y)</code> to the empty cell, and makes the 
+     * former the new empty cell.
+     * 
+     * @param x the x-coordinate of the cell to move.
+     * @param y the y-coordinate of the cell to move.
+     */
+    private void swapWithEmpty(final int x, final int y) {
+        final int index = y * degree + x;
+        final int emptyIndex = emptyIndexY * degree + emptyIndexX;
+        final int cell = get(index);
+        set(emptyIndex, cell);
+        set(index, 0);
+        zobristHash ^= zobristKey(emptyIndex, 0) ^
+                       zobristKey(emptyIndex, cell) ^
+                       zobristKey(index, cell) ^
+                       zobristKey(index, 0);
+        emptyIndexX = x;
+        emptyIndexY = y;
+    }
+    
+    /**
+     * Returns the Zobrist key of the cell number <code>cell</code> residing at
+     * the cell index <code>index</code>. Instead of storing a random table of
+     * <code>degree^4</code> keys, the keys are derived from the pair by the 
+     * SplitMix64 finalizer, which is cheap and well-distributed.
+     * 
+     * @param  index the cell index.
+     * @param  cell  the cell number.
+     * @return the Zobrist key.
+     */
+    private static long zobristKey(final int index, final int cell) {
+        long z = ((((long) index) << 32) | cell) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
     /**
      * Checks the degree.
      * 
@@ -430,5 +667,11 @@ public class PuzzleGraphNode extends AbstractGraphNode<PuzzleGraphNode> {
                     "The input degree is too small: " + degree + " but must " +
                     "be at least " + MINIMUM_DEGREE + ".");
         }
+        
+        if (degree > MAXIMUM_DEGREE) {
+            throw new IllegalArgumentException(
+                    "The input degree is too large: " + degree + " but must " +
+                    "be at most " + MAXIMUM_DEGREE + ".");
+        }
     }
 }
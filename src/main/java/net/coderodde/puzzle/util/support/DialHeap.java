@@ -146,6 +146,8 @@ public class DialHeap<E> implements IntegerPriorityQueue<DialHeap<E>, E> {
         }
         
         node.priority = priority;
+        node.prev = null;
+        node.next = null;
         
         if (storage[priority] != null) {
             storage[priority].prev = node;
@@ -0,0 +1,40 @@
+package net.coderodde.puzzle.util.support;
+
+/**
+ * This class holds the slot computation shared by the open-addressing tables.
+ * The hash is multiplied by a golden-ratio constant and its high half folded
+ * into the low one, since the hash codes of the keys may differ only in their
+ * high bits, while a table of a power-of-two length looks only at the low
+ * ones.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public final class HashTables {
+
+    private HashTables() {}
+
+    /**
+     * Returns the slot of a key of hash code <code>hash</code>.
+     *
+     * @param  hash the hash code of the key.
+     * @param  mask the length of the table minus one.
+     * @return the slot of the key.
+     */
+    public static int indexOf(final int hash, final int mask) {
+        final int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot of a <code>long</code> key.
+     *
+     * @param  key  the key.
+     * @param  mask the length of the table minus one.
+     * @return the slot of the key.
+     */
+    public static int indexOf(final long key, final int mask) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+}
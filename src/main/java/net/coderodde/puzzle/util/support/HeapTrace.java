@@ -0,0 +1,309 @@
+package net.coderodde.puzzle.util.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+
+/**
+ * This class holds a log of the operations on a set of priority queues, as
+ * recorded by {@link RecordingPriorityQueue}. The elements are replaced by
+ * integer identifiers, assigned in the order the elements are first seen, and
+ * the queues by their indices in the order they are created.
+ * <p>
+ * A trace may be saved to a file, loaded back, and replayed on another
+ * queue implementation. The replay follows the recorded operations, not the
+ * search that produced them: a queue breaking the ties between equal
+ * priorities differently may extract other elements than the recorded one,
+ * after which an insertion may find its element already present, a priority
+ * decrease may find it absent, and an extraction may find the queue empty.
+ * The queues ignore the former two, and the replay skips the last.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class HeapTrace {
+
+    public static final int INSERT = 0;
+    public static final int DECREASE_PRIORITY = 1;
+    public static final int EXTRACT_MINIMUM = 2;
+    public static final int MIN = 3;
+    public static final int MIN_PRIORITY = 4;
+    public static final int CLEAR = 5;
+
+    /**
+     * Identifies the trace files.
+     */
+    private static final int MAGIC = 0x48545243;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private byte[] operations = new byte[DEFAULT_CAPACITY];
+    private int[] queues = new int[DEFAULT_CAPACITY];
+    private int[] elements = new int[DEFAULT_CAPACITY];
+    private int[] priorities = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    private int queueCount;
+    private int elementCount;
+
+    /**
+     * Maps the elements seen while recording to their identifiers.
+     */
+    private final Map<Object, Integer> ELEMENT_IDS = new HashMap<>();
+
+    /**
+     * Returns the amount of operations in this trace.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the amount of queues the operations are on.
+     *
+     * @return the amount of queues.
+     */
+    public int getQueueCount() {
+        return queueCount;
+    }
+
+    /**
+     * Returns the amount of distinct elements in the operations.
+     *
+     * @return the amount of elements.
+     */
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Returns the type of the operation at index <code>index</code>; one of
+     * {@link #INSERT}, {@link #DECREASE_PRIORITY}, {@link #EXTRACT_MINIMUM},
+     * {@link #MIN}, {@link #MIN_PRIORITY} and {@link #CLEAR}.
+     *
+     * @param  index the index of the operation.
+     * @return the operation type.
+     */
+    public int getOperation(final int index) {
+        return operations[index];
+    }
+
+    /**
+     * Returns the index of the queue operated on.
+     *
+     * @param  index the index of the operation.
+     * @return the queue index.
+     */
+    public int getQueue(final int index) {
+        return queues[index];
+    }
+
+    /**
+     * Returns the identifier of the element inserted, decreased, or
+     * extracted by the operation at index <code>index</code>, or -1 for the
+     * other operations.
+     *
+     * @param  index the index of the operation.
+     * @return the element identifier.
+     */
+    public int getElement(final int index) {
+        return elements[index];
+    }
+
+    /**
+     * Returns the priority given by an insertion or a priority decrease, or
+     * zero for the other operations.
+     *
+     * @param  index the index of the operation.
+     * @return the priority.
+     */
+    public int getPriority(final int index) {
+        return priorities[index];
+    }
+
+    /**
+     * Replays the operations of this trace on queues spawned from
+     * <code>queue</code>, one per recorded queue, using the element
+     * identifiers as the elements.
+     *
+     * @param  queue the queue to spawn the queues from.
+     * @return a checksum of the extracted elements and the minimum
+     *         priorities read.
+     */
+    public long replay(final IntegerPriorityQueue<?, Integer> queue) {
+        @SuppressWarnings("unchecked")
+        final IntegerPriorityQueue<?, Integer>[] QUEUES =
+                (IntegerPriorityQueue<?, Integer>[])
+                new IntegerPriorityQueue<?, ?>[queueCount];
+        final Integer[] boxes = new Integer[elementCount];
+
+        for (int i = 0; i < QUEUES.length; ++i) {
+            QUEUES[i] = queue.spawn();
+        }
+
+        for (int i = 0; i < boxes.length; ++i) {
+            boxes[i] = i;
+        }
+
+        long checksum = 0L;
+
+        for (int i = 0; i < size; ++i) {
+            final IntegerPriorityQueue<?, Integer> q = QUEUES[queues[i]];
+
+            switch (operations[i]) {
+                case INSERT:
+                    q.insert(boxes[elements[i]], priorities[i]);
+                    break;
+
+                case DECREASE_PRIORITY:
+                    q.decreasePriority(boxes[elements[i]], priorities[i]);
+                    break;
+
+                case EXTRACT_MINIMUM:
+                    if (!q.isEmpty()) {
+                        checksum += q.extractMinimum();
+                    }
+
+                    break;
+
+                case MIN:
+                    if (!q.isEmpty()) {
+                        checksum += q.min();
+                    }
+
+                    break;
+
+                case MIN_PRIORITY:
+                    if (!q.isEmpty()) {
+                        checksum += q.minPriority();
+                    }
+
+                    break;
+
+                case CLEAR:
+                    q.clear();
+                    break;
+            }
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Writes this trace into <code>file</code>.
+     *
+     * @param  file the file to write.
+     * @throws java.io.IOException if writing fails.
+     */
+    public synchronized void write(final File file) throws IOException {
+        try (final DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(queueCount);
+            out.writeInt(elementCount);
+
+            for (int i = 0; i < size; ++i) {
+                out.writeByte(operations[i]);
+                out.writeInt(queues[i]);
+                out.writeInt(elements[i]);
+                out.writeInt(priorities[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a trace written by {@link #write(java.io.File)}.
+     *
+     * @param  file the file to read.
+     * @return the trace.
+     * @throws java.io.IOException if reading fails or the file is not a
+     *                             trace.
+     */
+    public static HeapTrace read(final File file) throws IOException {
+        try (final DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(
+                                new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(
+                        "The file " + file + " is not a heap trace.");
+            }
+
+            final HeapTrace trace = new HeapTrace();
+            final int size = in.readInt();
+            trace.queueCount = in.readInt();
+            trace.elementCount = in.readInt();
+            trace.ensureCapacity(size);
+
+            for (int i = 0; i < size; ++i) {
+                trace.operations[i] = in.readByte();
+                trace.queues[i] = in.readInt();
+                trace.elements[i] = in.readInt();
+                trace.priorities[i] = in.readInt();
+            }
+
+            trace.size = size;
+            return trace;
+        }
+    }
+
+    /**
+     * Returns the index of a new queue.
+     */
+    synchronized int addQueue() {
+        return queueCount++;
+    }
+
+    /**
+     * Appends an operation. The element may be <code>null</code> for the
+     * operations taking none.
+     */
+    synchronized void record(final int operation,
+                             final int queue,
+                             final Object element,
+                             final int priority) {
+        ensureCapacity(size + 1);
+        operations[size] = (byte) operation;
+        queues[size] = queue;
+        elements[size] = element == null ? -1 : getElementId(element);
+        priorities[size] = priority;
+        ++size;
+    }
+
+    private int getElementId(final Object element) {
+        Integer id = ELEMENT_IDS.get(element);
+
+        if (id == null) {
+            id = elementCount++;
+            ELEMENT_IDS.put(element, id);
+        }
+
+        return id;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= operations.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(capacity, 2 * operations.length);
+        operations = Arrays.copyOf(operations, newCapacity);
+        queues = Arrays.copyOf(queues, newCapacity);
+        elements = Arrays.copyOf(elements, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+    }
+}
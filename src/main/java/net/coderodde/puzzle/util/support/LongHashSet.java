@@ -0,0 +1,150 @@
+package net.coderodde.puzzle.util.support;
+
+/**
+ * This class implements a set of <code>long</code> values by open addressing
+ * with linear probing over a single array, without boxing. The value zero
+ * marks an empty slot, so it is kept by a separate flag.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class LongHashSet {
+
+    /**
+     * The default capacity of the table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The table is doubled once more than this fraction of it is occupied.
+     */
+    private static final float MAXIMUM_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The table. Its length is a power of two.
+     */
+    private long[] table;
+
+    /**
+     * The amount of non-zero values in the table.
+     */
+    private int size;
+
+    /**
+     * Whether zero is in this set.
+     */
+    private boolean hasZero;
+
+    public LongHashSet(final int initialCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+
+        while (capacity * MAXIMUM_LOAD_FACTOR < initialCapacity) {
+            capacity <<= 1;
+        }
+
+        this.table = new long[capacity];
+    }
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds <code>value</code> to this set.
+     *
+     * @param  value the value to add.
+     * @return <code>true</code> if <code>value</code> was not in this set.
+     */
+    public boolean add(final long value) {
+        if (value == 0L) {
+            final boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+
+        final int mask = table.length - 1;
+        int index = HashTables.indexOf(value, mask);
+
+        while (table[index] != 0L) {
+            if (table[index] == value) {
+                return false;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        table[index] = value;
+
+        if (++size > table.length * MAXIMUM_LOAD_FACTOR) {
+            expand();
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether <code>value</code> is in this set.
+     *
+     * @param  value the value to look up.
+     * @return <code>true</code> if <code>value</code> is in this set.
+     */
+    public boolean contains(final long value) {
+        if (value == 0L) {
+            return hasZero;
+        }
+
+        final int mask = table.length - 1;
+        int index = HashTables.indexOf(value, mask);
+
+        while (table[index] != 0L) {
+            if (table[index] == value) {
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the amount of values in this set.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    /**
+     * Removes all the values from this set, keeping the capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < table.length; ++i) {
+                table[i] = 0L;
+            }
+        }
+
+        size = 0;
+        hasZero = false;
+    }
+
+    private void expand() {
+        final long[] oldTable = table;
+        final int mask = (oldTable.length << 1) - 1;
+        table = new long[oldTable.length << 1];
+
+        for (final long value : oldTable) {
+            if (value != 0L) {
+                int index = HashTables.indexOf(value, mask);
+
+                while (table[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+
+                table[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package net.coderodde.puzzle.util.support;
+
+/**
+ * This class implements a map from <code>long</code> keys to <code>int</code>
+ * values by open addressing with linear probing over two parallel arrays,
+ * without boxing. The key zero marks an empty slot, so its value is kept
+ * separately. Mappings may not be removed, other than all at once.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ */
+public class LongIntHashMap {
+
+    /**
+     * The default capacity of the table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The table is doubled once more than this fraction of it is occupied.
+     */
+    private static final float MAXIMUM_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The keys. The length is a power of two.
+     */
+    private long[] keys;
+
+    /**
+     * The value of the key in the same slot.
+     */
+    private int[] values;
+
+    /**
+     * The amount of non-zero keys in the table.
+     */
+    private int size;
+
+    /**
+     * Whether zero is in this map, and its value.
+     */
+    private boolean hasZero;
+    private int zeroValue;
+
+    public LongIntHashMap(final int initialCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+
+        while (capacity * MAXIMUM_LOAD_FACTOR < initialCapacity) {
+            capacity <<= 1;
+        }
+
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Maps <code>key</code> to <code>value</code>.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(final long key, final int value) {
+        if (key == 0L) {
+            hasZero = true;
+            zeroValue = value;
+            return;
+        }
+
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key, mask);
+
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > keys.length * MAXIMUM_LOAD_FACTOR) {
+            expand();
+        }
+    }
+
+    /**
+     * Returns the value of <code>key</code>, or <code>defaultValue</code> if
+     * <code>key</code> is not in this map.
+     *
+     * @param  key          the key to look up.
+     * @param  defaultValue the value to return for a missing key.
+     * @return the value of the key.
+     */
+    public int get(final long key, final int defaultValue) {
+        if (key == 0L) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key, mask);
+
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether <code>key</code> is in this map.
+     *
+     * @param  key the key to look up.
+     * @return <code>true</code> if <code>key</code> is in this map.
+     */
+    public boolean containsKey(final long key) {
+        if (key == 0L) {
+            return hasZero;
+        }
+
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key, mask);
+
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the keys of this map, in no particular order.
+     *
+     * @return a new array of the keys.
+     */
+    public long[] keys() {
+        final long[] result = new long[size()];
+        int i = 0;
+
+        if (hasZero) {
+            result[i++] = 0L;
+        }
+
+        for (final long key : keys) {
+            if (key != 0L) {
+                result[i++] = key;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the amount of keys in this map.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    /**
+     * Removes all the mappings, keeping the capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = 0L;
+            }
+        }
+
+        size = 0;
+        hasZero = false;
+    }
+
+    private void expand() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        final int mask = (oldKeys.length << 1) - 1;
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != 0L) {
+                int index = HashTables.indexOf(oldKeys[i], mask);
+
+                while (keys[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package net.coderodde.puzzle.util.support;
+
+/**
+ * This class implements a map from objects to <code>int</code> values by open
+ * addressing with linear probing over two parallel arrays, so that neither
+ * the values are boxed nor an entry object is allocated per mapping. The keys
+ * may not be <code>null</code>, and mappings may not be removed, other than
+ * all at once.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <K> the key type.
+ */
+public class ObjectIntHashMap<K> {
+
+    /**
+     * The default capacity of the table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The table is doubled once more than this fraction of it is occupied.
+     */
+    private static final float MAXIMUM_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The keys. A <code>null</code> marks an empty slot. The length is a
+     * power of two.
+     */
+    private Object[] keys;
+
+    /**
+     * The value of the key in the same slot.
+     */
+    private int[] values;
+
+    /**
+     * The amount of keys in the table.
+     */
+    private int size;
+
+    public ObjectIntHashMap(final int initialCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+
+        while (capacity * MAXIMUM_LOAD_FACTOR < initialCapacity) {
+            capacity <<= 1;
+        }
+
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+    }
+
+    public ObjectIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Maps <code>key</code> to <code>value</code>.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(final K key, final int value) {
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key.hashCode(), mask);
+
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                values[index] = value;
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > keys.length * MAXIMUM_LOAD_FACTOR) {
+            expand();
+        }
+    }
+
+    /**
+     * Returns the value of <code>key</code>, or <code>defaultValue</code> if
+     * <code>key</code> is not in this map.
+     *
+     * @param  key          the key to look up.
+     * @param  defaultValue the value to return for a missing key.
+     * @return the value of the key.
+     */
+    public int get(final K key, final int defaultValue) {
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key.hashCode(), mask);
+
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return values[index];
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether <code>key</code> is in this map.
+     *
+     * @param  key the key to look up.
+     * @return <code>true</code> if <code>key</code> is in this map.
+     */
+    public boolean containsKey(final K key) {
+        final int mask = keys.length - 1;
+        int index = HashTables.indexOf(key.hashCode(), mask);
+
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the amount of keys in this map.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the mappings, keeping the capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = null;
+            }
+        }
+
+        size = 0;
+    }
+
+    private void expand() {
+        final Object[] oldKeys = keys;
+        final int[] oldValues = values;
+        final int mask = (oldKeys.length << 1) - 1;
+        keys = new Object[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                int index = HashTables.indexOf(oldKeys[i].hashCode(), mask);
+
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
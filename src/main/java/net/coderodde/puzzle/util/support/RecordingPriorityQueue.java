@@ -0,0 +1,111 @@
+package net.coderodde.puzzle.util.support;
+
+import net.coderodde.puzzle.util.IntegerPriorityQueue;
+
+/**
+ * This class decorates a priority queue, recording the operations on it into
+ * a {@link HeapTrace}. The queues spawned from a recording queue record into
+ * the same trace, each under its own queue index, so passing a recording
+ * queue to a finder records all the OPEN lists of its searches.
+ * <p>
+ * The queries {@link #isEmpty()} and {@link #size()} are not recorded. The
+ * trace is synchronized, so the queues may be used by different threads.
+ *
+ * @author Rodion Efremov
+ * @version 1.6
+ * @param <E> the type of elements stored in this queue.
+ */
+public class RecordingPriorityQueue<E>
+implements IntegerPriorityQueue<RecordingPriorityQueue<E>, E> {
+
+    private final IntegerPriorityQueue<?, E> queue;
+    private final HeapTrace trace;
+
+    /**
+     * The index of this queue in the trace.
+     */
+    private final int index;
+
+    /**
+     * Constructs a queue recording the operations on <code>queue</code>
+     * into <code>trace</code>.
+     *
+     * @param queue the queue to decorate.
+     * @param trace the trace to record into.
+     */
+    public RecordingPriorityQueue(final IntegerPriorityQueue<?, E> queue,
+                                  final HeapTrace trace) {
+        this.queue = queue;
+        this.trace = trace;
+        this.index = trace.addQueue();
+    }
+
+    /**
+     * Returns the trace this queue records into.
+     *
+     * @return the trace.
+     */
+    public HeapTrace getTrace() {
+        return trace;
+    }
+
+    @Override
+    public void insert(final E element, final int priority) {
+        queue.insert(element, priority);
+        trace.record(HeapTrace.INSERT, index, element, priority);
+    }
+
+    @Override
+    public void decreasePriority(final E element, final int priority) {
+        queue.decreasePriority(element, priority);
+        trace.record(HeapTrace.DECREASE_PRIORITY, index, element, priority);
+    }
+
+    @Override
+    public E extractMinimum() {
+        final E element = queue.extractMinimum();
+        trace.record(HeapTrace.EXTRACT_MINIMUM, index, element, 0);
+        return element;
+    }
+
+    @Override
+    public E min() {
+        final E element = queue.min();
+        trace.record(HeapTrace.MIN, index, null, 0);
+        return element;
+    }
+
+    @Override
+    public int minPriority() {
+        final int priority = queue.minPriority();
+        trace.record(HeapTrace.MIN_PRIORITY, index, null, 0);
+        return priority;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        trace.record(HeapTrace.CLEAR, index, null, 0);
+    }
+
+    /**
+     * Returns an empty queue decorating a queue spawned from the decorated
+     * one, and recording into the same trace.
+     *
+     * @return a new empty queue.
+     */
+    @Override
+    public RecordingPriorityQueue<E> spawn() {
+        return new RecordingPriorityQueue<E>(queue.spawn(), trace);
+    }
+}
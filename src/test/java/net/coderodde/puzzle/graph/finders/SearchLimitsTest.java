@@ -0,0 +1,321 @@
+package net.coderodde.puzzle.graph.finders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.finders.support.ARAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.BFSFinder;
+import net.coderodde.puzzle.graph.finders.support.BidirectionalBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.BidirectionalHeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.FinderTestSupport;
+import net.coderodde.puzzle.graph.finders.support.HDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.HeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.IDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.support.NBAFinder;
+import net.coderodde.puzzle.graph.finders.support.ParallelIDAStarFinder;
+import net.coderodde.puzzle.graph.finders.support.ParallelNBAFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class SearchLimitsTest {
+
+    /**
+     * Returns a 4x4 node from which <code>target</code> is unreachable, so
+     * that the uninformed finders would run practically forever.
+     */
+    private static PuzzleGraphNode unreachableFrom(
+            final PuzzleGraphNode target) {
+        return target.randomSwap(new Random(20L));
+    }
+
+    @Test
+    public void testExpandedNodesLimit() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final SearchResult<PuzzleGraphNode> result =
+                new BFSFinder<PuzzleGraphNode>().search(
+                        unreachableFrom(target),
+                        target,
+                        SearchLimits.NONE.withMaximumExpandedNodes(10000));
+
+        assertEquals(SearchResult.Status.EXPANDED_NODES_LIMIT,
+                     result.getStatus());
+        assertTrue(result.isLimitReached());
+        assertNull(result.getPath());
+        // The BFS went past the depth of 5 within 10000 expansions.
+        assertTrue(result.getLowerBound() > 5);
+    }
+
+    @Test
+    public void testGeneratedNodesLimit() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source = unreachableFrom(target);
+        final SearchResult<PuzzleGraphNode> result =
+                new HeuristicBFSFinder<>(
+                        new ManhattanHeuristicFunction(source))
+                        .search(source,
+                                target,
+                                SearchLimits.NONE
+                                            .withMaximumGeneratedNodes(5000));
+
+        assertEquals(SearchResult.Status.GENERATED_NODES_LIMIT,
+                     result.getStatus());
+        assertTrue(result.getLowerBound() > 0);
+    }
+
+    @Test
+    public void testTimeLimit() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final long start = System.currentTimeMillis();
+        final SearchResult<PuzzleGraphNode> result =
+                new BidirectionalBFSFinder<PuzzleGraphNode>().search(
+                        unreachableFrom(target),
+                        target,
+                        SearchLimits.NONE.withTimeLimit(200L));
+
+        assertEquals(SearchResult.Status.TIME_LIMIT, result.getStatus());
+        assertTrue(System.currentTimeMillis() - start < 10000L);
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+
+        assertEquals(SearchResult.Status.MEMORY_LIMIT,
+                     new BFSFinder<PuzzleGraphNode>().search(
+                             unreachableFrom(target),
+                             target,
+                             SearchLimits.NONE.withMaximumMemory(0L))
+                             .getStatus());
+    }
+
+    @Test
+    public void testCancellation() throws InterruptedException {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        // A cancelled token stops the search before it starts.
+        assertEquals(SearchResult.Status.CANCELLED,
+                     new BFSFinder<PuzzleGraphNode>().search(
+                             target,
+                             target,
+                             SearchLimits.NONE.withCancellationToken(token))
+                             .getStatus());
+
+        final CancellationToken token2 = new CancellationToken();
+        final Thread canceller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100L);
+                } catch (final InterruptedException ex) {
+                    // Cancel right away.
+                }
+
+                token2.cancel();
+            }
+        });
+
+        canceller.start();
+
+        assertEquals(SearchResult.Status.CANCELLED,
+                     new BidirectionalBFSFinder<PuzzleGraphNode>().search(
+                             unreachableFrom(target),
+                             target,
+                             SearchLimits.NONE.withCancellationToken(token2))
+                             .getStatus());
+        canceller.join();
+    }
+
+    @Test
+    public void testParallelFindersStopOnTimeLimit() {
+        final PuzzleGraphNode target4 = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source4 = unreachableFrom(target4);
+        final PuzzleGraphNode target5 = new PuzzleGraphNode(5);
+        // Far too hard to solve within the limit.
+        final PuzzleGraphNode source5 =
+                FinderTestSupport.scramble(target5, 500, new Random(24L));
+
+        final List<SearchResult<PuzzleGraphNode>> results = new ArrayList<>();
+        final long start = System.currentTimeMillis();
+
+        results.add(new HDAStarFinder<>(
+                            new ManhattanHeuristicFunction(source5),
+                            new DaryHeap<PuzzleGraphNode>(),
+                            2).search(source5,
+                                      target5,
+                                      SearchLimits.NONE.withTimeLimit(200L)));
+        results.add(new ParallelNBAFinder<>(
+                            new ManhattanHeuristicFunction(source4))
+                            .search(source4,
+                                    target4,
+                                    SearchLimits.NONE.withTimeLimit(200L)));
+        results.add(new ParallelIDAStarFinder(
+                            new ManhattanHeuristicFunction(source5))
+                            .search(source5,
+                                    target5,
+                                    SearchLimits.NONE.withTimeLimit(200L)));
+
+        for (final SearchResult<PuzzleGraphNode> result : results) {
+            assertEquals(SearchResult.Status.TIME_LIMIT, result.getStatus());
+            assertNull(result.getPath());
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 10000L);
+
+        final ManhattanHeuristicFunction mhf =
+                new ManhattanHeuristicFunction(source4);
+        mhf.setTarget(target4);
+
+        // The parallel NBA* reports the bound of its forward side.
+        assertTrue(results.get(1).getLowerBound() >= mhf.estimate(source4));
+    }
+
+    @Test
+    public void testParallelFinderCancellation() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(5);
+        // HDA* returns right away on an unreachable target, so give it one
+        // far too hard to solve.
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 500, new Random(25L));
+        final CancellationToken token = new CancellationToken();
+        final Thread canceller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100L);
+                } catch (final InterruptedException ex) {
+                    // Cancel right away.
+                }
+
+                token.cancel();
+            }
+        });
+
+        canceller.start();
+
+        assertEquals(SearchResult.Status.CANCELLED,
+                     new HDAStarFinder<>(
+                             new ManhattanHeuristicFunction(source),
+                             new DaryHeap<PuzzleGraphNode>(),
+                             2).search(
+                                     source,
+                                     target,
+                                     SearchLimits.NONE
+                                                 .withCancellationToken(token))
+                                     .getStatus());
+    }
+
+    @Test
+    public void testLowerBoundsAreValid() {
+        final Random rnd = new Random(21L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+
+        for (int i = 0; i != 10; ++i) {
+            final PuzzleGraphNode source =
+                    FinderTestSupport.scramble(target, 16, rnd);
+            final int length =
+                    new NBAFinder<>(new ManhattanHeuristicFunction(source))
+                            .search(source, target).size() - 1;
+            final ManhattanHeuristicFunction mhf =
+                    new ManhattanHeuristicFunction(source);
+            final List<AbstractPathFinder<PuzzleGraphNode>> finders =
+                    new ArrayList<>();
+
+            finders.add(new BFSFinder<PuzzleGraphNode>());
+            finders.add(new BidirectionalBFSFinder<PuzzleGraphNode>());
+            finders.add(new HeuristicBFSFinder<>(mhf));
+            finders.add(new BidirectionalHeuristicBFSFinder<>(mhf));
+            finders.add(new NBAFinder<>(mhf));
+            finders.add(new IDAStarFinder(mhf));
+            finders.add(new ARAStarFinder<>(mhf));
+
+            for (final AbstractPathFinder<PuzzleGraphNode> finder : finders) {
+                final String name = finder.getClass().getSimpleName();
+                final SearchResult<PuzzleGraphNode> stopped =
+                        finder.search(source,
+                                      target,
+                                      SearchLimits.NONE
+                                                  .withMaximumExpandedNodes(
+                                                          200));
+
+                assertTrue(name, stopped.getLowerBound() <= length);
+
+                final SearchResult<PuzzleGraphNode> completed =
+                        finder.search(source, target, SearchLimits.NONE);
+
+                assertEquals(name,
+                             SearchResult.Status.FOUND,
+                             completed.getStatus());
+                assertEquals(name, length + 1, completed.getPath().size());
+                assertTrue(name, completed.getLowerBound() <= length);
+            }
+        }
+    }
+
+    @Test
+    public void testStoppedNBALowerBoundIsPositive() {
+        final Random rnd = new Random(23L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+
+        for (int i = 0; i != 5; ++i) {
+            final PuzzleGraphNode source =
+                    FinderTestSupport.scramble(target, 60, rnd);
+            final ManhattanHeuristicFunction mhf =
+                    new ManhattanHeuristicFunction(source);
+            final int length =
+                    new NBAFinder<>(mhf).search(source, target).size() - 1;
+            final SearchResult<PuzzleGraphNode> stopped =
+                    new NBAFinder<>(mhf).search(
+                            source,
+                            target,
+                            SearchLimits.NONE.withMaximumExpandedNodes(20));
+
+            assertEquals(SearchResult.Status.EXPANDED_NODES_LIMIT,
+                         stopped.getStatus());
+            assertTrue(stopped.getLowerBound() >= mhf.estimate(source));
+            assertTrue(stopped.getLowerBound() <= length);
+        }
+    }
+
+    @Test
+    public void testBFSLowerBoundIsExactOnCompletion() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 30, new Random(22L));
+        final SearchResult<PuzzleGraphNode> result =
+                new BFSFinder<PuzzleGraphNode>().search(source,
+                                                        target,
+                                                        SearchLimits.NONE);
+
+        assertEquals(result.getPath().size() - 1, result.getLowerBound());
+    }
+
+    @Test
+    public void testFinderIsReusableAfterStop() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 30, new Random(23L));
+        final BFSFinder<PuzzleGraphNode> finder = new BFSFinder<>();
+
+        assertEquals(SearchResult.Status.EXPANDED_NODES_LIMIT,
+                     finder.search(source,
+                                   target,
+                                   SearchLimits.NONE
+                                               .withMaximumExpandedNodes(1))
+                           .getStatus());
+        assertTrue(source.isValidPath(source,
+                                      target,
+                                      finder.search(source, target)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNegativeLimit() {
+        SearchLimits.NONE.withTimeLimit(-1L);
+    }
+}
@@ -0,0 +1,115 @@
+package net.coderodde.puzzle.graph.finders;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.finders.support.BFSFinder;
+import net.coderodde.puzzle.graph.finders.support.FinderTestSupport;
+import net.coderodde.puzzle.graph.finders.support.HeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class SearchStatisticsTest {
+
+    /**
+     * The amount of 3x3 nodes reachable from any 3x3 node.
+     */
+    private static final int COMPONENT_SIZE = 181440;
+
+    @Test
+    public void testExhaustiveBFSCounts() {
+        // The BFS exhausts the component of the source, reaching each node
+        // once through each of its edges: the blank has two moves in the
+        // four corners, three on the four edges and four in the center, and
+        // is in each cell in the same amount of nodes.
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final BFSFinder<PuzzleGraphNode> finder = new BFSFinder<>();
+
+        assertNull(finder.search(target.randomSwap(new Random(1L)), target));
+
+        final SearchStatistics statistics = finder.getStatistics();
+        final long edges = COMPONENT_SIZE / 9 * (4 * 2 + 4 * 3 + 4);
+
+        assertEquals(COMPONENT_SIZE, statistics.getExpandedNodes());
+        assertEquals(COMPONENT_SIZE - 1, statistics.getGeneratedNodes());
+        assertEquals(edges, statistics.getGeneratedNodes() +
+                            statistics.getDuplicateNodes());
+        assertEquals(0L, statistics.getReopenedNodes());
+        assertEquals(2L * COMPONENT_SIZE - 1,
+                     statistics.getQueueOperations());
+        assertEquals(COMPONENT_SIZE, statistics.getPeakClosedSize());
+        assertTrue(statistics.getPeakOpenSize() > 0);
+        assertTrue(statistics.getPeakOpenSize() < COMPONENT_SIZE);
+    }
+
+    @Test
+    public void testEachSearchStartsFromZero() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 30, new Random(2L));
+        final HeuristicBFSFinder<PuzzleGraphNode> finder =
+                new HeuristicBFSFinder<>(
+                        new ManhattanHeuristicFunction(source));
+
+        final List<PuzzleGraphNode> path1 = finder.search(source, target);
+        final SearchStatistics statistics1 = finder.getStatistics();
+        final List<PuzzleGraphNode> path2 = finder.search(source, target);
+        final SearchStatistics statistics2 = finder.getStatistics();
+
+        assertEquals(path1.size(), path2.size());
+        assertFalse(statistics1 == statistics2);
+        assertTrue(statistics1.getExpandedNodes() > 0);
+        assertEquals(statistics1.getExpandedNodes(),
+                     statistics2.getExpandedNodes());
+        assertEquals(statistics1.getGeneratedNodes(),
+                     statistics2.getGeneratedNodes());
+        assertEquals(statistics1.getDuplicateNodes(),
+                     statistics2.getDuplicateNodes());
+        assertEquals(statistics1.getQueueOperations(),
+                     statistics2.getQueueOperations());
+        assertTrue(statistics2.getElapsedNanos() > 0L);
+    }
+
+    @Test
+    public void testResultCarriesStatistics() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final BFSFinder<PuzzleGraphNode> finder = new BFSFinder<>();
+        final SearchResult<PuzzleGraphNode> result =
+                finder.search(target.randomSwap(new Random(3L)),
+                              target,
+                              SearchLimits.NONE
+                                          .withMaximumExpandedNodes(1000));
+
+        assertEquals(SearchResult.Status.EXPANDED_NODES_LIMIT,
+                     result.getStatus());
+        assertTrue(result.getStatistics() == finder.getStatistics());
+        assertEquals(1000L, result.getStatistics().getExpandedNodes());
+    }
+
+    @Test
+    public void testEffectiveBranchingFactor() {
+        final SearchStatistics statistics = new SearchStatistics();
+        // 2 + 4 + 8 nodes below the root of a binary tree of depth 3.
+        statistics.generatedNodes = 14L;
+
+        assertEquals(2.0, statistics.getEffectiveBranchingFactor(3), 1e-9);
+        assertEquals(14.0, statistics.getEffectiveBranchingFactor(1), 1e-9);
+        assertEquals(0.0, statistics.getEffectiveBranchingFactor(0), 0.0);
+    }
+
+    @Test
+    public void testNodesPerSecond() {
+        final SearchStatistics statistics = new SearchStatistics();
+
+        assertEquals(0.0, statistics.getNodesPerSecond(), 0.0);
+
+        statistics.expandedNodes = 500L;
+        statistics.elapsedNanos = 250000000L;
+
+        assertEquals(2000.0, statistics.getNodesPerSecond(), 1e-9);
+    }
+}
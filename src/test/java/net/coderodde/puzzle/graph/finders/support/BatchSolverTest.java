@@ -0,0 +1,193 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchSolverTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    private static List<BatchSolver.Instance<PuzzleGraphNode>>
+        getInstances(final int count, final Random rnd) {
+        final List<BatchSolver.Instance<PuzzleGraphNode>> instances =
+                new ArrayList<>(count);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+
+        for (int i = 0; i != count; ++i) {
+            instances.add(new BatchSolver.Instance<>(
+                    FinderTestSupport.scramble(target, 30, rnd), target));
+        }
+
+        return instances;
+    }
+
+    @Test
+    public void testReturnsPathsInInputOrder() {
+        final List<BatchSolver.Instance<PuzzleGraphNode>> instances =
+                getInstances(40, new Random(19L));
+        final PuzzleGraphNode target = instances.get(0).getTarget();
+        // An instance no path exists for.
+        instances.add(17, new BatchSolver.Instance<>(
+                target.randomSwap(new Random(20L)), target));
+
+        final List<List<PuzzleGraphNode>> paths =
+                new BatchSolver<>(
+                        new IDAStarFinder(new LinearConflictHeuristicFunction(
+                                new PuzzleGraphNode(4))),
+                        executor,
+                        4).solve(instances);
+
+        assertEquals(instances.size(), paths.size());
+        assertNull(paths.get(17));
+
+        for (int i = 0; i != instances.size(); ++i) {
+            if (i == 17) {
+                continue;
+            }
+
+            final PuzzleGraphNode source = instances.get(i).getSource();
+
+            assertTrue(source.isValidPath(source, target, paths.get(i)));
+            assertEquals(new NBAFinder<>(
+                                 new ManhattanHeuristicFunction(source))
+                                 .search(source, target).size(),
+                         paths.get(i).size());
+        }
+    }
+
+    @Test
+    public void testReadsSinglePassInputOnce() {
+        final List<BatchSolver.Instance<PuzzleGraphNode>> instances =
+                getInstances(20, new Random(23L));
+        final Iterator<BatchSolver.Instance<PuzzleGraphNode>> iterator =
+                instances.iterator();
+        // Hands out the same iterator each time, as a lazily produced input
+        // would.
+        final Iterable<BatchSolver.Instance<PuzzleGraphNode>> input =
+                new Iterable<BatchSolver.Instance<PuzzleGraphNode>>() {
+                    @Override
+                    public Iterator<BatchSolver.Instance<PuzzleGraphNode>>
+                        iterator() {
+                        return iterator;
+                    }
+                };
+
+        final List<List<PuzzleGraphNode>> paths =
+                new BatchSolver<>(
+                        new IDAStarFinder(new ManhattanHeuristicFunction(
+                                new PuzzleGraphNode(4))),
+                        executor,
+                        3).solve(input);
+
+        assertEquals(instances.size(), paths.size());
+
+        for (int i = 0; i != instances.size(); ++i) {
+            final BatchSolver.Instance<PuzzleGraphNode> instance =
+                    instances.get(i);
+
+            assertTrue(instance.getSource().isValidPath(instance.getSource(),
+                                                        instance.getTarget(),
+                                                        paths.get(i)));
+        }
+    }
+
+    @Test
+    public void testReportsEachInstanceOnce() {
+        final List<BatchSolver.Instance<PuzzleGraphNode>> instances =
+                getInstances(30, new Random(21L));
+        final AtomicIntegerArray calls = new AtomicIntegerArray(30);
+
+        new BatchSolver<>(new IDAStarFinder(new ManhattanHeuristicFunction(
+                                  new PuzzleGraphNode(4))),
+                          executor).solve(
+                instances.iterator(),
+                new BatchSolver.Listener<PuzzleGraphNode>() {
+                    @Override
+                    public void solved(
+                            final int index,
+                            final BatchSolver.Instance<PuzzleGraphNode> i,
+                            final List<PuzzleGraphNode> path) {
+                        assertTrue(i == instances.get(index));
+                        calls.incrementAndGet(index);
+                    }
+                });
+
+        for (int i = 0; i != 30; ++i) {
+            assertEquals(1, calls.get(i));
+        }
+    }
+
+    @Test
+    public void testPropagatesFailures() {
+        // The lookup finder supports no 4x4 boards.
+        final BatchSolver<PuzzleGraphNode> solver =
+                new BatchSolver<>(new LookupFinder(), executor, 2);
+
+        try {
+            solver.solve(getInstances(10, new Random(22L)));
+            fail("IllegalArgumentException expected.");
+        } catch (final IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testFailureCancelsRunningSearches() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final List<BatchSolver.Instance<PuzzleGraphNode>> instances =
+                new ArrayList<>();
+        // A* would search half of the 4x4 states for this one.
+        instances.add(new BatchSolver.Instance<>(
+                target.randomSwap(new Random(24L)), target));
+        instances.add(getInstances(1, new Random(25L)).get(0));
+
+        try {
+            new BatchSolver<>(new HeuristicBFSFinder<>(
+                                      new ManhattanHeuristicFunction(target)),
+                              executor,
+                              2)
+                    .solve(instances.iterator(),
+                           new BatchSolver.Listener<PuzzleGraphNode>() {
+                               @Override
+                               public void solved(
+                                       final int index,
+                                       final BatchSolver.Instance<
+                                               PuzzleGraphNode> instance,
+                                       final List<PuzzleGraphNode> path) {
+                                   throw new IllegalStateException();
+                               }
+                           });
+            fail("IllegalStateException expected.");
+        } catch (final IllegalStateException ex) {
+            // Expected, once the other search is cancelled.
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNonPositiveWorkers() {
+        new BatchSolver<>(new BFSFinder<PuzzleGraphNode>(), executor, 0);
+    }
+}
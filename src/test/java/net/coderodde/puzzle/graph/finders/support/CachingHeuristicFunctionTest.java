@@ -0,0 +1,136 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class CachingHeuristicFunctionTest {
+
+    private static List<PuzzleGraphNode> walk(final PuzzleGraphNode start,
+                                              final int steps,
+                                              final Random rnd) {
+        final List<PuzzleGraphNode> nodes = new ArrayList<>();
+        PuzzleGraphNode node = start;
+
+        for (int i = 0; i < steps; ++i) {
+            node = FinderTestSupport.randomNeighbor(node, rnd);
+            nodes.add(node);
+        }
+
+        return nodes;
+    }
+
+    @Test
+    public void testEstimatesAreCachedAcrossSpawnedCopies() {
+        final Random rnd = new Random(9L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final LinearConflictHeuristicFunction expected =
+                new LinearConflictHeuristicFunction(target);
+        final CachingHeuristicFunction<PuzzleGraphNode> hf =
+                new CachingHeuristicFunction<>(
+                        new LinearConflictHeuristicFunction(target), 1000);
+        final AbstractHeuristicFunction<PuzzleGraphNode> copy = hf.spawn();
+        expected.setTarget(target);
+        hf.setTarget(target);
+        copy.setTarget(target);
+
+        final List<PuzzleGraphNode> nodes = walk(target, 200, rnd);
+
+        for (final PuzzleGraphNode node : nodes) {
+            assertEquals(expected.estimate(node), hf.estimate(node));
+        }
+
+        final long misses = hf.getMisses();
+        assertTrue(misses > 0);
+        // The walk revisits some nodes.
+        assertEquals(nodes.size(), misses + hf.getHits());
+
+        for (final PuzzleGraphNode node : nodes) {
+            assertEquals(expected.estimate(node), copy.estimate(node));
+        }
+
+        assertEquals(misses, hf.getMisses());
+        assertEquals(2 * nodes.size() - misses, hf.getHits());
+
+        hf.clear();
+        assertEquals(0L, hf.getHits());
+        hf.estimate(nodes.get(0));
+        assertEquals(1L, hf.getMisses());
+    }
+
+    @Test
+    public void testCacheIsKeyedByTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode other = FinderTestSupport.scramble(
+                target, 20, new Random(10L));
+        final CachingHeuristicFunction<PuzzleGraphNode> hf =
+                new CachingHeuristicFunction<>(
+                        new ManhattanHeuristicFunction(target), 100);
+
+        hf.setTarget(target);
+        assertEquals(0, hf.estimate(target));
+        hf.setTarget(other);
+        assertEquals(0, hf.estimate(other));
+        assertTrue(hf.estimate(target) > 0);
+        hf.setTarget(target);
+        assertEquals(0, hf.estimate(target));
+        assertEquals(1L, hf.getHits());
+    }
+
+    @Test
+    public void testCapacityIsBounded() {
+        final Random rnd = new Random(11L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final CachingHeuristicFunction<PuzzleGraphNode> hf =
+                new CachingHeuristicFunction<>(
+                        new ManhattanHeuristicFunction(target), 16);
+        hf.setTarget(target);
+
+        final List<PuzzleGraphNode> nodes = new ArrayList<>();
+        PuzzleGraphNode node = target;
+
+        while (nodes.size() < 1000) {
+            node = FinderTestSupport.randomNeighbor(node, rnd);
+
+            if (!nodes.contains(node)) {
+                nodes.add(node);
+            }
+        }
+
+        for (final PuzzleGraphNode n : nodes) {
+            hf.estimate(n);
+        }
+
+        for (final PuzzleGraphNode n : nodes) {
+            hf.estimate(n);
+        }
+
+        // At most one segment's worth per segment may survive.
+        assertTrue(hf.getHits() <= 16 * 2);
+    }
+
+    @Test
+    public void testBoundedEstimatesReachingTheBoundAreNotCached() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source = FinderTestSupport.scramble(
+                target, 30, new Random(12L));
+        final CachingHeuristicFunction<PuzzleGraphNode> hf =
+                new CachingHeuristicFunction<>(
+                        new MaxHeuristicFunction<>(
+                                new ManhattanHeuristicFunction(target),
+                                new WalkingDistanceHeuristicFunction(target)),
+                        100);
+        hf.setTarget(target);
+
+        hf.estimate(source, 0);
+        hf.estimate(source, Integer.MAX_VALUE);
+        assertEquals(0L, hf.getHits());
+        hf.estimate(source, 0);
+        assertEquals(1L, hf.getHits());
+    }
+}
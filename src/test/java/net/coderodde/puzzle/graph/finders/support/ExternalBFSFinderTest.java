@@ -0,0 +1,79 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PackedPuzzleState;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalBFSFinderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSearchReturnsShortestPaths() {
+        final Random rnd = new Random(15L);
+        // Tiny runs to exercise the merging of many runs.
+        final ExternalBFSFinder finder =
+                new ExternalBFSFinder(folder.getRoot(), 100);
+
+        for (final int degree : new int[]{ 3, 4 }) {
+            final PuzzleGraphNode target = new PuzzleGraphNode(degree);
+
+            for (int i = 0; i != 5; ++i) {
+                final PuzzleGraphNode source =
+                        FinderTestSupport.scramble(target, 16, rnd);
+                final PackedPuzzleState packedSource =
+                        PackedPuzzleState.valueOf(source);
+                final PackedPuzzleState packedTarget =
+                        PackedPuzzleState.valueOf(target);
+                final List<PackedPuzzleState> path =
+                        finder.search(packedSource, packedTarget);
+
+                assertTrue(packedSource.isValidPath(packedSource,
+                                                    packedTarget,
+                                                    path));
+                assertEquals(new BFSFinder<PuzzleGraphNode>()
+                                     .search(source, target).size(),
+                             path.size());
+            }
+        }
+
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testSearchReturnsNullOnUnreachableTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = target.randomSwap(new Random(16L));
+
+        assertNull(new ExternalBFSFinder(folder.getRoot(), 10000)
+                           .search(PackedPuzzleState.valueOf(source),
+                                   PackedPuzzleState.valueOf(target)));
+    }
+
+    @Test
+    public void testEnumerateCoversReachableHalf() {
+        final List<Long> sizes =
+                new ExternalBFSFinder(folder.getRoot(), 5000)
+                        .enumerate(new PackedPuzzleState(3));
+        long total = 0L;
+
+        for (final long size : sizes) {
+            total += size;
+        }
+
+        // The 8-puzzle has 9!/2 reachable states, the farthest of which
+        // are 31 moves away.
+        assertEquals(181440L, total);
+        assertEquals(32, sizes.size());
+        assertEquals(2L, (long) sizes.get(31));
+        assertEquals(0, folder.getRoot().list().length);
+    }
+}
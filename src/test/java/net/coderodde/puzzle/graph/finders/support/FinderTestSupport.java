@@ -0,0 +1,115 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.AbstractGraphNode;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+
+/**
+ * Helpers shared by the finder tests.
+ */
+public final class FinderTestSupport {
+
+    private FinderTestSupport() {}
+
+    /**
+     * Returns a uniformly chosen neighbor of <code>node</code>.
+     */
+    public static <T extends AbstractGraphNode<T>> T randomNeighbor(
+            final T node,
+            final Random rnd) {
+        final List<T> neighbors = new ArrayList<>(4);
+
+        for (final T neighbor : node) {
+            neighbors.add(neighbor);
+        }
+
+        return neighbors.get(rnd.nextInt(neighbors.size()));
+    }
+
+    /**
+     * Walks randomly <code>steps</code> moves away from <code>node</code>.
+     */
+    public static <T extends AbstractGraphNode<T>> T scramble(
+            T node,
+            final int steps,
+            final Random rnd) {
+        for (int i = 0; i < steps; ++i) {
+            node = randomNeighbor(node, rnd);
+        }
+
+        return node;
+    }
+
+    /**
+     * A node of a small undirected graph built edge by edge.
+     */
+    static final class GraphNode extends AbstractGraphNode<GraphNode> {
+
+        private final int id;
+        private final List<GraphNode> neighbors = new ArrayList<>();
+
+        GraphNode(final int id) {
+            this.id = id;
+        }
+
+        void connect(final GraphNode other) {
+            neighbors.add(other);
+            other.neighbors.add(this);
+        }
+
+        @Override
+        public Iterable<GraphNode> parents() {
+            return Collections.unmodifiableList(neighbors);
+        }
+
+        @Override
+        public Iterator<GraphNode> iterator() {
+            return Collections.unmodifiableList(neighbors).iterator();
+        }
+
+        @Override
+        public boolean hasChild(final GraphNode other) {
+            return neighbors.contains(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof GraphNode && ((GraphNode) o).id == id;
+        }
+
+        @Override
+        public String toString() {
+            return "GraphNode(" + id + ")";
+        }
+    }
+
+    /**
+     * Returns the heuristic function estimating every node at zero.
+     */
+    static <T> AbstractHeuristicFunction<T> zeroHeuristicFunction() {
+        return new AbstractHeuristicFunction<T>() {
+
+            @Override
+            public int estimate(final T source) {
+                return 0;
+            }
+
+            @Override
+            public void setTarget(final T target) {}
+
+            @Override
+            public AbstractHeuristicFunction<T> spawn() {
+                return this;
+            }
+        };
+    }
+}
@@ -0,0 +1,320 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.puzzle.graph.finders.AbstractPathFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import net.coderodde.puzzle.util.support.DaryHeap;
+import net.coderodde.puzzle.util.support.DialHeap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class FindersTest {
+
+    private static final int INSTANCES = 20;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * Returns the finders expected to return shortest paths.
+     */
+    private static List<AbstractPathFinder<PuzzleGraphNode>> 
+        getOptimalFinders(final PuzzleGraphNode source) {
+        final List<AbstractPathFinder<PuzzleGraphNode>> finders = 
+                new ArrayList<>();
+        final ManhattanHeuristicFunction mhf = 
+                new ManhattanHeuristicFunction(source);
+
+        finders.add(new BidirectionalBFSFinder<PuzzleGraphNode>());
+        finders.add(new HeuristicBFSFinder<>(
+                mhf, new DialHeap<PuzzleGraphNode>()));
+        finders.add(new HeuristicBFSFinder<>(
+                mhf, new DaryHeap<PuzzleGraphNode>(3)));
+        finders.add(new NBAFinder<>(mhf, new DialHeap<PuzzleGraphNode>()));
+        finders.add(new NBAFinder<>(mhf, new DaryHeap<PuzzleGraphNode>(4)));
+        finders.add(new BidirectionalHeuristicBFSFinder<>(
+                mhf, new DaryHeap<PuzzleGraphNode>()));
+        finders.add(new HeuristicBFSFinder<>(
+                new LinearConflictHeuristicFunction(source)));
+        finders.add(new NBAFinder<>(
+                new LinearConflictHeuristicFunction(source)));
+        finders.add(new HeuristicBFSFinder<>(
+                new WalkingDistanceHeuristicFunction(source)));
+        finders.add(new NBAFinder<>(
+                new WalkingDistanceHeuristicFunction(source)));
+        finders.add(new IDAStarFinder(
+                new ManhattanHeuristicFunction(source)));
+        finders.add(new IDAStarFinder(
+                new LinearConflictHeuristicFunction(source)));
+        finders.add(new ParallelIDAStarFinder(
+                new LinearConflictHeuristicFunction(source), POOL, 3));
+        finders.add(new HDAStarFinder<>(
+                mhf, new DialHeap<PuzzleGraphNode>(), 3));
+        finders.add(new HDAStarFinder<>(
+                new LinearConflictHeuristicFunction(source),
+                new DaryHeap<PuzzleGraphNode>(),
+                1));
+        finders.add(new ParallelNBAFinder<>(mhf));
+        finders.add(new ParallelNBAFinder<>(
+                new LinearConflictHeuristicFunction(source),
+                new DialHeap<PuzzleGraphNode>()));
+        finders.add(new NBAFinder<>(new MaxHeuristicFunction<>(
+                new ManhattanHeuristicFunction(source),
+                new LinearConflictHeuristicFunction(source),
+                new WalkingDistanceHeuristicFunction(source))));
+        finders.add(new SMAStarFinder<>(
+                new LinearConflictHeuristicFunction(source), 100000));
+        finders.add(new SMAStarFinder<>(
+                new ManhattanHeuristicFunction(source), 500));
+        finders.add(new ARAStarFinder<>(
+                new LinearConflictHeuristicFunction(source)));
+        finders.add(new ARAStarFinder<>(mhf,
+                                        new DialHeap<PuzzleGraphNode>(),
+                                        2.0,
+                                        0.25));
+        return finders;
+    }
+
+    @Test
+    public void testOptimalFindersAgree() {
+        final Random rnd = new Random(2016L);
+
+        for (final int degree : new int[]{ 3, 4 }) {
+            final PuzzleGraphNode target = new PuzzleGraphNode(degree);
+
+            for (int i = 0; i != INSTANCES; ++i) {
+                final PuzzleGraphNode source = 
+                        FinderTestSupport.scramble(target, 24, rnd);
+                final int expected = 
+                        new BFSFinder<PuzzleGraphNode>()
+                                .search(source, target).size();
+
+                for (final AbstractPathFinder<PuzzleGraphNode> finder :
+                        getOptimalFinders(source)) {
+                    final List<PuzzleGraphNode> path = 
+                            finder.search(source, target);
+
+                    assertTrue(finder.getClass().getSimpleName(),
+                               source.isValidPath(source, target, path));
+                    assertEquals(finder.getClass().getSimpleName(),
+                                 expected, 
+                                 path.size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelNBAFinderNeverMissesMeeting() {
+        // The two sides may claim the two ends of an edge concurrently, in
+        // which case neither side sees the other one's distance through
+        // that edge; a missed meeting yields a longer path on some runs.
+        final Random rnd = new Random(2018L);
+
+        for (final int degree : new int[]{ 3, 4 }) {
+            final PuzzleGraphNode target = new PuzzleGraphNode(degree);
+
+            for (int i = 0; i != 250; ++i) {
+                final PuzzleGraphNode source =
+                        FinderTestSupport.scramble(target, 30, rnd);
+                final ManhattanHeuristicFunction mhf =
+                        new ManhattanHeuristicFunction(source);
+                final int expected =
+                        new NBAFinder<>(mhf).search(source, target).size();
+                final List<PuzzleGraphNode> path =
+                        new ParallelNBAFinder<>(mhf).search(source, target);
+
+                assertTrue(source.isValidPath(source, target, path));
+                assertEquals(expected, path.size());
+            }
+        }
+    }
+
+    @Test
+    public void testSpawnedFindersAgree() {
+        final Random rnd = new Random(2017L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+
+        for (int i = 0; i != 5; ++i) {
+            final PuzzleGraphNode source =
+                    FinderTestSupport.scramble(target, 24, rnd);
+            final int expected =
+                    new BFSFinder<PuzzleGraphNode>()
+                            .search(source, target).size();
+
+            for (final AbstractPathFinder<PuzzleGraphNode> finder :
+                    getOptimalFinders(source)) {
+                final AbstractPathFinder<PuzzleGraphNode> spawned =
+                        finder.spawn();
+
+                assertEquals(finder.getClass(), spawned.getClass());
+                assertEquals(finder.getClass().getSimpleName(),
+                             expected,
+                             spawned.search(source, target).size());
+            }
+        }
+    }
+
+    @Test
+    public void testIDAStarFinderReturnsNullOnUnreachableTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = target.randomSwap(new Random(10L));
+
+        assertNull(new IDAStarFinder(new ManhattanHeuristicFunction(source))
+                           .search(source, target));
+    }
+
+    @Test(timeout = 10000)
+    public void testHDAStarFinderReturnsNullOnUnreachableTarget() {
+        // Searching the half of the 4x4 states would run out of memory.
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source = target.randomSwap(new Random(11L));
+
+        assertNull(new HDAStarFinder<>(
+                           new ManhattanHeuristicFunction(source),
+                           new DaryHeap<PuzzleGraphNode>(),
+                           3).search(source, target));
+    }
+
+    @Test
+    public void testSMAStarFinderReturnsNullWhenBudgetTooSmall() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = 
+                FinderTestSupport.scramble(target, 24, new Random(12L));
+        final int length = new BFSFinder<PuzzleGraphNode>()
+                                   .search(source, target).size();
+
+        // A path of 'length' nodes needs a budget of at least 'length'.
+        assertNull(new SMAStarFinder<>(new ManhattanHeuristicFunction(source),
+                                       length - 1).search(source, target));
+        assertEquals(length, 
+                     new SMAStarFinder<>(
+                             new ManhattanHeuristicFunction(source),
+                             length).search(source, target).size());
+    }
+
+    @Test
+    public void testSMAStarFinderReturnsNullOnUnreachableTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = target.randomSwap(new Random(13L));
+
+        assertNull(new SMAStarFinder<>(new ManhattanHeuristicFunction(source),
+                                       16).search(source, target));
+    }
+
+    @Test(timeout = 10000)
+    public void testSMAStarFinderEvictsDeadEnds() {
+        // The source has three dead-end neighbors besides the path of four
+        // edges to the target. A budget of five nodes fits only the path, so
+        // the dead ends must be evicted once they are explored.
+        final FinderTestSupport.GraphNode[] nodes =
+                new FinderTestSupport.GraphNode[8];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new FinderTestSupport.GraphNode(i);
+        }
+
+        nodes[0].connect(nodes[1]);
+        nodes[0].connect(nodes[2]);
+        nodes[0].connect(nodes[3]);
+        nodes[0].connect(nodes[4]);
+        nodes[4].connect(nodes[5]);
+        nodes[5].connect(nodes[6]);
+        nodes[6].connect(nodes[7]);
+
+        final List<FinderTestSupport.GraphNode> path =
+                new SMAStarFinder<>(
+                        FinderTestSupport
+                                .<FinderTestSupport.GraphNode>
+                                zeroHeuristicFunction(),
+                        5).search(nodes[0], nodes[7]);
+
+        assertEquals(5, path.size());
+        assertTrue(nodes[0].isValidPath(nodes[0], nodes[7], path));
+    }
+
+    @Test
+    public void testARAStarFinderPublishesBestPath() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 40, new Random(17L));
+        final ARAStarFinder<PuzzleGraphNode> finder =
+                new ARAStarFinder<>(new ManhattanHeuristicFunction(source),
+                                    new DaryHeap<PuzzleGraphNode>(),
+                                    5.0,
+                                    1.0);
+
+        assertNull(finder.getBestPath());
+        assertEquals(Double.POSITIVE_INFINITY,
+                     finder.getSuboptimalityBound(),
+                     0.0);
+
+        final List<PuzzleGraphNode> path = finder.search(source, target);
+
+        assertTrue(path == finder.getBestPath());
+        assertEquals(1.0, finder.getSuboptimalityBound(), 0.0);
+        assertEquals(new IDAStarFinder(new ManhattanHeuristicFunction(source))
+                             .search(source, target).size(),
+                     path.size());
+    }
+
+    @Test
+    public void testARAStarFinderReturnsNullOnUnreachableTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = target.randomSwap(new Random(18L));
+        final ARAStarFinder<PuzzleGraphNode> finder =
+                new ARAStarFinder<>(new ManhattanHeuristicFunction(source));
+
+        assertNull(finder.search(source, target));
+        assertEquals(Double.POSITIVE_INFINITY,
+                     finder.getSuboptimalityBound(),
+                     0.0);
+    }
+
+    @Test
+    public void testBeamSearchFinderReturnsValidPaths() {
+        final Random rnd = new Random(19L);
+
+        // Beam search is incomplete: on mid-sized boards a narrow beam may
+        // get stuck on a plateau of the heuristic, so keep the cases easy.
+        for (final int degree : new int[]{ 4, 70 }) {
+            final PuzzleGraphNode target = new PuzzleGraphNode(degree);
+
+            for (int i = 0; i != 5; ++i) {
+                final PuzzleGraphNode source =
+                        FinderTestSupport.scramble(target, 100, rnd);
+                final List<PuzzleGraphNode> path =
+                        new BeamSearchFinder<>(
+                                new LinearConflictHeuristicFunction(source),
+                                1000).search(source, target);
+
+                assertTrue(source.isValidPath(source, target, path));
+            }
+        }
+    }
+
+    @Test
+    public void testBeamSearchFinderRespectsMaximumDepth() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source =
+                FinderTestSupport.scramble(target, 40, new Random(20L));
+        final int length = new BFSFinder<PuzzleGraphNode>()
+                                   .search(source, target).size();
+
+        // A path of 'length' nodes is 'length - 1' layers deep.
+        assertNull(new BeamSearchFinder<>(
+                           new ManhattanHeuristicFunction(source),
+                           1000000,
+                           length - 2).search(source, target));
+        // A beam wide enough to hold every layer is a plain BFS.
+        assertEquals(length,
+                     new BeamSearchFinder<>(
+                             new ManhattanHeuristicFunction(source),
+                             1000000,
+                             length - 1).search(source, target).size());
+    }
+}
@@ -0,0 +1,50 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LinearConflictHeuristicFunctionTest {
+
+    @Test
+    public void testIncrementalEstimateMatchesFullEstimate() {
+        final Random rnd = new Random(5L);
+
+        for (final int degree : new int[]{ 3, 4, 12 }) {
+            final PuzzleGraphNode target = FinderTestSupport.scramble(
+                    new PuzzleGraphNode(degree), 40, rnd);
+            final LinearConflictHeuristicFunction hf = 
+                    new LinearConflictHeuristicFunction(target);
+            final ManhattanHeuristicFunction mhf = 
+                    new ManhattanHeuristicFunction(target);
+            hf.setTarget(target);
+            mhf.setTarget(target);
+
+            PuzzleGraphNode node = new PuzzleGraphNode(degree);
+            int estimate = hf.estimate(node);
+            int conflicting = 0;
+
+            for (int i = 0; i != 500; ++i) {
+                final PuzzleGraphNode next = 
+                        FinderTestSupport.randomNeighbor(node, rnd);
+                final int nextEstimate = hf.estimate(next, node, estimate);
+
+                assertEquals(hf.estimate(next), nextEstimate);
+                // Consistency: a single move changes the estimate by one.
+                assertEquals(1, Math.abs(nextEstimate - estimate));
+                assertTrue(nextEstimate >= mhf.estimate(next));
+
+                if (nextEstimate > mhf.estimate(next)) {
+                    ++conflicting;
+                }
+
+                node = next;
+                estimate = nextEstimate;
+            }
+
+            assertTrue(conflicting > 0);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LookupFinderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void clearCache() {
+        RetrogradeTable.clearCache();
+    }
+
+    @Test
+    public void testReturnsShortestPaths() {
+        final Random rnd = new Random(16L);
+        final LookupFinder finder = new LookupFinder(folder.getRoot(), 2);
+        final PuzzleGraphNode goal = new PuzzleGraphNode(3);
+
+        for (int i = 0; i != 30; ++i) {
+            final PuzzleGraphNode source =
+                    FinderTestSupport.scramble(goal, 40, rnd);
+            // A target with the empty cell in the corner, but other tiles
+            // relabeled.
+            PuzzleGraphNode target = FinderTestSupport.scramble(goal, 30, rnd);
+
+            while (target.getEmptySlotX() != 2 || target.getEmptySlotY() != 2) {
+                target = FinderTestSupport.randomNeighbor(target, rnd);
+            }
+
+            final List<PuzzleGraphNode> path = finder.search(source, target);
+
+            assertTrue(source.isValidPath(source, target, path));
+            assertEquals(new BFSFinder<PuzzleGraphNode>()
+                                 .search(source, target).size(),
+                         path.size());
+        }
+    }
+
+    @Test
+    public void testReturnsNullOnUnreachableTarget() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = target.randomSwap(new Random(17L));
+
+        assertNull(new LookupFinder(folder.getRoot(), 1)
+                           .search(source, target));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTargetWithEmptyCellElsewhere() {
+        final PuzzleGraphNode source = new PuzzleGraphNode(3);
+
+        new LookupFinder(folder.getRoot(), 1).search(source,
+                                                     source.moveUp());
+    }
+}
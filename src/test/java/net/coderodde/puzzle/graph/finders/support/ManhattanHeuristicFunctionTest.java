@@ -0,0 +1,34 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ManhattanHeuristicFunctionTest {
+
+    @Test
+    public void testIncrementalEstimateMatchesFullEstimate() {
+        final Random rnd = new Random(11L);
+
+        for (final int degree : new int[]{ 3, 4, 20 }) {
+            final PuzzleGraphNode target = FinderTestSupport.scramble(
+                    new PuzzleGraphNode(degree), 50, rnd);
+            final ManhattanHeuristicFunction hf = 
+                    new ManhattanHeuristicFunction(target);
+            hf.setTarget(target);
+
+            PuzzleGraphNode node = new PuzzleGraphNode(degree);
+            int estimate = hf.estimate(node);
+
+            for (int i = 0; i != 500; ++i) {
+                final PuzzleGraphNode next = 
+                        FinderTestSupport.randomNeighbor(node, rnd);
+                estimate = hf.estimate(next, node, estimate);
+                node = next;
+
+                assertEquals(hf.estimate(node), estimate);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Random;
+import net.coderodde.puzzle.graph.AbstractHeuristicFunction;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class MaxHeuristicFunctionTest {
+
+    /**
+     * Counts the estimates computed by the wrapped function.
+     */
+    private static final class CountingHeuristicFunction
+    extends AbstractHeuristicFunction<PuzzleGraphNode> {
+
+        private final AbstractHeuristicFunction<PuzzleGraphNode> delegate;
+        private int count;
+
+        CountingHeuristicFunction(
+                final AbstractHeuristicFunction<PuzzleGraphNode> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int estimate(final PuzzleGraphNode source) {
+            ++count;
+            return delegate.estimate(source);
+        }
+
+        @Override
+        public int estimate(final PuzzleGraphNode node,
+                            final PuzzleGraphNode parent,
+                            final int parentEstimate) {
+            ++count;
+            return delegate.estimate(node, parent, parentEstimate);
+        }
+
+        @Override
+        public void setTarget(final PuzzleGraphNode target) {
+            delegate.setTarget(target);
+        }
+
+        @Override
+        public AbstractHeuristicFunction<PuzzleGraphNode> spawn() {
+            return new CountingHeuristicFunction(delegate.spawn());
+        }
+    }
+
+    @Test
+    public void testEstimateIsMaximum() {
+        final Random rnd = new Random(8L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final ManhattanHeuristicFunction mhf =
+                new ManhattanHeuristicFunction(target);
+        final LinearConflictHeuristicFunction lchf =
+                new LinearConflictHeuristicFunction(target);
+        final WalkingDistanceHeuristicFunction wdhf =
+                new WalkingDistanceHeuristicFunction(target);
+        final MaxHeuristicFunction<PuzzleGraphNode> hf =
+                new MaxHeuristicFunction<>(mhf, lchf, wdhf);
+        hf.setTarget(target);
+
+        PuzzleGraphNode node = target;
+        int estimate = 0;
+
+        for (int i = 0; i != 500; ++i) {
+            final PuzzleGraphNode next =
+                    FinderTestSupport.randomNeighbor(node, rnd);
+            final int expected = Math.max(mhf.estimate(next),
+                                          Math.max(lchf.estimate(next),
+                                                   wdhf.estimate(next)));
+            final int nextEstimate = hf.estimate(next, node, estimate);
+
+            assertEquals(expected, hf.estimate(next));
+            assertEquals(expected, nextEstimate);
+
+            node = next;
+            estimate = nextEstimate;
+        }
+    }
+
+    @Test
+    public void testExpensiveFunctionSkippedWhenBoundIsReached() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source = FinderTestSupport.scramble(
+                target, 30, new Random(9L));
+        final CountingHeuristicFunction cheap = new CountingHeuristicFunction(
+                new ManhattanHeuristicFunction(target));
+        final CountingHeuristicFunction expensive =
+                new CountingHeuristicFunction(
+                        new WalkingDistanceHeuristicFunction(target));
+        final MaxHeuristicFunction<PuzzleGraphNode> hf =
+                new MaxHeuristicFunction<>(cheap, expensive);
+        hf.setTarget(target);
+
+        final int manhattan = cheap.estimate(source);
+        final int exact = hf.estimate(source);
+        cheap.count = 0;
+        expensive.count = 0;
+
+        assertEquals(manhattan, hf.estimate(source, manhattan));
+        assertEquals(1, cheap.count);
+        assertEquals(0, expensive.count);
+
+        assertEquals(exact, hf.estimate(source, manhattan + 1000));
+        assertEquals(1, expensive.count);
+
+        final PuzzleGraphNode child = source.iterator().next();
+        final int bounded = hf.estimate(child, source, exact, 0);
+        assertEquals(1, expensive.count);
+        assertTrue(bounded <= hf.estimate(child));
+    }
+}
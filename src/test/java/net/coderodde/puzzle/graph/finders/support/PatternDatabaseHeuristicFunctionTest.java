@@ -0,0 +1,151 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.io.File;
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PatternDatabaseHeuristicFunctionTest {
+
+    private static final int[][] PARTITION = {
+        { 0, 1, 3, 4 },
+        { 2, 5, 6, 7 }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEstimateIsAdmissibleAndIncremental() {
+        final Random rnd = new Random(6L);
+        final File directory = folder.getRoot();
+
+        for (int i = 0; i != 10; ++i) {
+            final PuzzleGraphNode target = FinderTestSupport.scramble(
+                    new PuzzleGraphNode(3), 15, rnd);
+            final PatternDatabaseHeuristicFunction hf =
+                    new PatternDatabaseHeuristicFunction(target,
+                                                         PARTITION,
+                                                         directory);
+            final ManhattanHeuristicFunction mhf =
+                    new ManhattanHeuristicFunction(target);
+            hf.setTarget(target);
+            mhf.setTarget(target);
+            assertEquals(0, hf.estimate(target));
+
+            PuzzleGraphNode node = target;
+            int estimate = 0;
+
+            for (int j = 0; j != 30; ++j) {
+                final PuzzleGraphNode next =
+                        FinderTestSupport.randomNeighbor(node, rnd);
+                final int nextEstimate = hf.estimate(next, node, estimate);
+                final int distance = new BFSFinder<PuzzleGraphNode>()
+                        .search(next, target).size() - 1;
+
+                assertEquals(hf.estimate(next), nextEstimate);
+                assertTrue(nextEstimate <= distance);
+                assertTrue(nextEstimate >= mhf.estimate(next));
+
+                node = next;
+                estimate = nextEstimate;
+            }
+        }
+    }
+
+    @Test
+    public void testDefault4x4PartitionIsAdmissibleAndIncremental() {
+        // The default 6-6-3 partition, and a working node moved in place as
+        // in IDA*.
+        final Random rnd = new Random(9L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PatternDatabaseHeuristicFunction hf =
+                new PatternDatabaseHeuristicFunction(target,
+                                                     folder.getRoot());
+        final ManhattanHeuristicFunction mhf =
+                new ManhattanHeuristicFunction(target);
+        hf.setTarget(target);
+        mhf.setTarget(target);
+        assertEquals(0, hf.estimate(target));
+
+        final PuzzleGraphNode node = target.copy();
+        int estimate = 0;
+
+        for (int i = 0; i != 300; ++i) {
+            for (final PuzzleGraphNode child : node) {
+                assertEquals(hf.estimate(child),
+                             hf.estimate(child, node, estimate));
+            }
+
+            final PuzzleGraphNode parent = node.copy();
+
+            while (!node.moveInPlace(rnd.nextInt(4))) {
+                // Retry on the border.
+            }
+
+            estimate = hf.estimate(node, parent, estimate);
+
+            assertEquals(hf.estimate(node), estimate);
+            assertTrue(estimate >= mhf.estimate(node));
+        }
+
+        for (int i = 0; i != 5; ++i) {
+            final PuzzleGraphNode source =
+                    FinderTestSupport.scramble(target, 40, rnd);
+
+            assertTrue(hf.estimate(source) <=
+                       new NBAFinder<>(mhf).search(source, target).size() - 1);
+        }
+    }
+
+    @Test
+    public void testTablesAreReloadedFromFiles() {
+        final File directory = folder.getRoot();
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = FinderTestSupport.scramble(
+                target, 30, new Random(7L));
+
+        PatternDatabaseHeuristicFunction hf =
+                new PatternDatabaseHeuristicFunction(target,
+                                                     PARTITION,
+                                                     directory);
+        hf.setTarget(target);
+        final int expected = hf.estimate(source);
+        assertEquals(2, directory.listFiles().length);
+
+        PatternDatabase.clearCache();
+        hf = new PatternDatabaseHeuristicFunction(target,
+                                                  PARTITION,
+                                                  directory);
+        hf.setTarget(target);
+        assertEquals(expected, hf.estimate(source));
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsIncompletePartition() {
+        new PatternDatabaseHeuristicFunction(new PuzzleGraphNode(3),
+                                             new int[][]{ { 0, 1, 2 } },
+                                             folder.getRoot());
+    }
+
+    @Test
+    public void testSearchFindsShortestPath() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(3);
+        final PuzzleGraphNode source = FinderTestSupport.scramble(
+                target, 40, new Random(8L));
+        final PatternDatabaseHeuristicFunction hf =
+                new PatternDatabaseHeuristicFunction(source,
+                                                     PARTITION,
+                                                     folder.getRoot());
+
+        assertEquals(new BFSFinder<PuzzleGraphNode>()
+                             .search(source, target).size(),
+                     new HeuristicBFSFinder<>(hf)
+                             .search(source, target).size());
+    }
+}
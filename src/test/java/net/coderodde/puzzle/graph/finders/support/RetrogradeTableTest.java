@@ -0,0 +1,116 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RetrogradeTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void clearCache() {
+        RetrogradeTable.clearCache();
+    }
+
+    @Test
+    public void testRankingIsPerfect() {
+        final int width = 4;
+        final int height = 2;
+        final int cells = width * height;
+        final int[] p = new int[cells];
+        final int[] q = new int[cells];
+        // 8! / 2 states.
+        for (int rank = 0; rank < 20160; ++rank) {
+            RetrogradeTable.unrank(rank, p, q, width, height);
+            assertTrue(RetrogradeTable.isReachable(p, width, height));
+
+            final int[] pp = p.clone();
+            final int[] qq = q.clone();
+            final long r = RetrogradeTable.rank(pp, qq, cells);
+            assertEquals(rank, r);
+        }
+    }
+
+    @Test
+    public void testTableMatchesBreadthFirstSearch() {
+        for (final int[] board : new int[][]{ { 3, 2 }, { 2, 4 } }) {
+            final int width = board[0];
+            final int height = board[1];
+            final int cells = width * height;
+            final RetrogradeTable table =
+                    RetrogradeTable.get(folder.getRoot(), width, height, 3);
+            final Map<String, Integer> DISTANCE = new HashMap<>();
+            final Queue<int[]> queue = new ArrayDeque<>();
+            final int[] goal = new int[cells];
+
+            for (int i = 0; i < cells; ++i) {
+                goal[i] = i;
+            }
+
+            DISTANCE.put(Arrays.toString(goal), 0);
+            queue.add(goal);
+
+            while (!queue.isEmpty()) {
+                final int[] p = queue.remove();
+                final int distance = DISTANCE.get(Arrays.toString(p));
+                assertEquals(distance % 3, table.getDepthMod3(p));
+
+                final int empty = p[cells - 1];
+
+                for (int cell = 0; cell < cells; ++cell) {
+                    final int dx = Math.abs(cell % width - empty % width);
+                    final int dy = Math.abs(cell / width - empty / width);
+
+                    if (dx + dy != 1) {
+                        continue;
+                    }
+
+                    final int[] next = p.clone();
+
+                    for (int i = 0; i < cells - 1; ++i) {
+                        if (next[i] == cell) {
+                            next[i] = empty;
+                        }
+                    }
+
+                    next[cells - 1] = cell;
+                    final String key = Arrays.toString(next);
+
+                    if (!DISTANCE.containsKey(key)) {
+                        DISTANCE.put(key, distance + 1);
+                        queue.add(next);
+                    }
+                }
+            }
+
+            assertEquals(table.getSize(), DISTANCE.size());
+        }
+    }
+
+    @Test
+    public void testTableIsReloadedFromFile() {
+        RetrogradeTable.get(folder.getRoot(), 3, 2, 1);
+        RetrogradeTable.clearCache();
+
+        final RetrogradeTable table =
+                RetrogradeTable.get(folder.getRoot(), 3, 2, 1);
+        assertEquals(360L, table.getSize());
+        assertEquals(0, table.getDepthMod3(new int[]{ 0, 1, 2, 3, 4, 5 }));
+        assertEquals(1, table.getDepthMod3(new int[]{ 0, 1, 2, 3, 5, 4 }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsLargeBoards() {
+        RetrogradeTable.get(folder.getRoot(), 4, 4, 1);
+    }
+}
@@ -0,0 +1,55 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class SearchNodeTableTest {
+
+    @Test
+    public void testGetCreatesEachRecordOnce() {
+        final SearchNodeTable<String> table = new SearchNodeTable<>();
+
+        for (int i = 0; i != 5000; ++i) {
+            final SearchNode<String> record = table.get("node" + i);
+
+            assertEquals("node" + i, record.node);
+            assertEquals(SearchNode.UNREACHED, record.distanceA);
+            assertEquals(SearchNode.UNREACHED, record.distanceB);
+            assertFalse(record.closedA);
+            assertNull(record.parentA);
+            record.distanceA = i;
+        }
+
+        assertEquals(5000, table.size());
+
+        for (int i = 0; i != 5000; ++i) {
+            // An equal but distinct key finds the same record.
+            assertEquals(i, table.get(new String("node" + i)).distanceA);
+        }
+
+        assertEquals(5000, table.size());
+    }
+
+    @Test
+    public void testTracebackPath() {
+        final SearchNodeTable<String> table = new SearchNodeTable<>();
+        final SearchNode<String> a = table.get("a");
+        final SearchNode<String> b = table.get("b");
+        final SearchNode<String> c = table.get("c");
+        final SearchNode<String> d = table.get("d");
+
+        // a -> b found forward, d -> c found backward, touching at c.
+        b.parentA = a;
+        c.parentA = b;
+        c.parentB = d;
+
+        final List<String> path = SearchNode.tracebackPath(c);
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), path);
+        assertEquals(Arrays.asList("a"), SearchNode.tracebackPath(a));
+    }
+}
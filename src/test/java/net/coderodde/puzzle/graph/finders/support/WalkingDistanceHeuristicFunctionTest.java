@@ -0,0 +1,87 @@
+package net.coderodde.puzzle.graph.finders.support;
+
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class WalkingDistanceHeuristicFunctionTest {
+
+    @Test
+    public void testTableSize() {
+        assertEquals(24964, WalkingDistanceTable.get(4, 3).size());
+    }
+
+    @Test
+    public void testIncrementalEstimateMatchesFullEstimate() {
+        final Random rnd = new Random(7L);
+
+        for (final int degree : new int[]{ 3, 4 }) {
+            final PuzzleGraphNode target = FinderTestSupport.scramble(
+                    new PuzzleGraphNode(degree), 40, rnd);
+            final WalkingDistanceHeuristicFunction hf =
+                    new WalkingDistanceHeuristicFunction(target);
+            final ManhattanHeuristicFunction mhf =
+                    new ManhattanHeuristicFunction(target);
+            hf.setTarget(target);
+            mhf.setTarget(target);
+            assertEquals(0, hf.estimate(target));
+
+            PuzzleGraphNode node = target;
+            int estimate = 0;
+            int stronger = 0;
+
+            for (int i = 0; i != 500; ++i) {
+                final PuzzleGraphNode next =
+                        FinderTestSupport.randomNeighbor(node, rnd);
+                final int nextEstimate = hf.estimate(next, node, estimate);
+
+                assertEquals(hf.estimate(next), nextEstimate);
+                assertEquals(1, Math.abs(nextEstimate - estimate));
+                assertTrue(nextEstimate >= mhf.estimate(next));
+
+                if (nextEstimate > mhf.estimate(next)) {
+                    ++stronger;
+                }
+
+                node = next;
+                estimate = nextEstimate;
+            }
+
+            assertTrue(stronger > 0);
+        }
+    }
+
+    @Test
+    public void testCachedParentFollowsInPlaceMoves() {
+        // IDA* moves a single working node in place, so the same reference
+        // stands for a different parent after each move.
+        final Random rnd = new Random(8L);
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final WalkingDistanceHeuristicFunction hf =
+                new WalkingDistanceHeuristicFunction(target);
+        hf.setTarget(target);
+
+        final PuzzleGraphNode parent =
+                FinderTestSupport.scramble(target, 60, rnd);
+
+        for (int i = 0; i != 200; ++i) {
+            final int parentEstimate = hf.estimate(parent);
+
+            for (final PuzzleGraphNode child : parent) {
+                assertEquals(hf.estimate(child),
+                             hf.estimate(child, parent, parentEstimate));
+            }
+
+            while (!parent.moveInPlace(rnd.nextInt(4))) {
+                // Retry on the border.
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsLargeDegree() {
+        new WalkingDistanceHeuristicFunction(new PuzzleGraphNode(5));
+    }
+}
@@ -0,0 +1,120 @@
+package net.coderodde.puzzle.graph.support;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.graph.finders.support.HeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.support.PackedManhattanHeuristicFunction;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PackedPuzzleStateTest {
+
+    @Test
+    public void testGoal() {
+        for (int degree = 3; degree <= 4; ++degree) {
+            final PackedPuzzleState goal = new PackedPuzzleState(degree);
+
+            assertEquals(goal,
+                         PackedPuzzleState.valueOf(
+                                 new PuzzleGraphNode(degree)));
+            assertEquals(degree - 1, goal.getEmptySlotX());
+            assertEquals(degree - 1, goal.getEmptySlotY());
+            assertNull(goal.moveDown());
+            assertNull(goal.moveRight());
+        }
+    }
+
+    @Test
+    public void testMovesAgreeWithPuzzleGraphNode() {
+        final Random rnd = new Random(13L);
+        PuzzleGraphNode node = new PuzzleGraphNode(4);
+        PackedPuzzleState packed = new PackedPuzzleState(4);
+
+        for (int i = 0; i != 1000; ++i) {
+            final PuzzleGraphNode nextNode;
+            final PackedPuzzleState nextPacked;
+
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    nextNode = node.moveUp();
+                    nextPacked = packed.moveUp();
+                    break;
+
+                case 1:
+                    nextNode = node.moveRight();
+                    nextPacked = packed.moveRight();
+                    break;
+
+                case 2:
+                    nextNode = node.moveDown();
+                    nextPacked = packed.moveDown();
+                    break;
+
+                default:
+                    nextNode = node.moveLeft();
+                    nextPacked = packed.moveLeft();
+                    break;
+            }
+
+            if (nextNode == null) {
+                assertNull(nextPacked);
+                continue;
+            }
+
+            assertTrue(packed.hasChild(nextPacked));
+            node = nextNode;
+            packed = nextPacked;
+
+            assertEquals(PackedPuzzleState.valueOf(node), packed);
+            assertEquals(packed,
+                         PackedPuzzleState.valueOf(4, packed.getState()));
+            assertEquals(node.getEmptySlotX(), packed.getEmptySlotX());
+            assertEquals(node.getEmptySlotY(), packed.getEmptySlotY());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidState() {
+        PackedPuzzleState.valueOf(3, 0L);
+    }
+
+    @Test
+    public void testSearch() {
+        final Random rnd = new Random(7L);
+        PuzzleGraphNode source = new PuzzleGraphNode(4);
+
+        for (int i = 0; i != 30; ++i) {
+            for (final PuzzleGraphNode child : source) {
+                if (rnd.nextBoolean()) {
+                    source = child;
+                    break;
+                }
+            }
+        }
+
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PackedPuzzleState packedSource =
+                PackedPuzzleState.valueOf(source);
+        final PackedPuzzleState packedTarget =
+                PackedPuzzleState.valueOf(target);
+
+        final List<PuzzleGraphNode> path =
+                new HeuristicBFSFinder<>(
+                        new ManhattanHeuristicFunction(source))
+                        .search(source, target);
+        final List<PackedPuzzleState> packedPath =
+                new HeuristicBFSFinder<>(
+                        new PackedManhattanHeuristicFunction())
+                        .search(packedSource, packedTarget);
+
+        assertEquals(path.size(), packedPath.size());
+        assertTrue(packedSource.isValidPath(packedSource,
+                                            packedTarget,
+                                            packedPath));
+        assertFalse(packedSource.hasChild(packedSource));
+    }
+}
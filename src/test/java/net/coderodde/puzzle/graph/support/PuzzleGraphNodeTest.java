@@ -0,0 +1,110 @@
+package net.coderodde.puzzle.graph.support;
+
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PuzzleGraphNodeTest {
+
+    @Test
+    public void testHashFollowsMoves() {
+        for (final int degree : new int[]{ 3, 16, 17, 70 }) {
+            final PuzzleGraphNode goal = new PuzzleGraphNode(degree);
+            final PuzzleGraphNode node = goal.moveUp()
+                                             .moveLeft()
+                                             .moveDown()
+                                             .moveRight();
+
+            assertFalse(goal.equals(node));
+            assertTrue(goal.longHashCode() != node.longHashCode());
+
+            final PuzzleGraphNode back = node.moveUp()
+                                             .moveLeft()
+                                             .moveDown()
+                                             .moveRight()
+                                             .moveUp()
+                                             .moveLeft()
+                                             .moveDown()
+                                             .moveRight();
+
+            assertEquals(goal, back);
+            assertEquals(goal.hashCode(), back.hashCode());
+            assertEquals(goal.longHashCode(), back.longHashCode());
+        }
+    }
+
+    @Test
+    public void testRandomSwapKeepsHashConsistent() {
+        final Random rnd = new Random(3L);
+        final PuzzleGraphNode goal = new PuzzleGraphNode(20);
+        final PuzzleGraphNode swapped = goal.randomSwap(rnd);
+
+        assertFalse(goal.equals(swapped));
+
+        int differences = 0;
+
+        for (int index = 0; index < 400; ++index) {
+            if (goal.get(index) != swapped.get(index)) {
+                ++differences;
+            }
+        }
+
+        assertEquals(2, differences);
+        assertTrue(goal.longHashCode() != swapped.longHashCode());
+    }
+
+    @Test
+    public void testLargeCellNumbers() {
+        final PuzzleGraphNode goal = new PuzzleGraphNode(17);
+
+        assertEquals(17 * 17 - 1, goal.get(15, 16));
+        assertEquals(0, goal.get(16, 16));
+        assertTrue(goal.hasChild(goal.moveLeft()));
+    }
+
+    @Test
+    public void testMoveInPlace() {
+        final PuzzleGraphNode goal = new PuzzleGraphNode(4);
+        final PuzzleGraphNode node = goal.copy();
+
+        assertFalse(node.moveInPlace(PuzzleGraphNode.DOWN));
+        assertFalse(node.moveInPlace(PuzzleGraphNode.RIGHT));
+        assertEquals(goal, node);
+
+        assertTrue(node.moveInPlace(PuzzleGraphNode.UP));
+        assertEquals(goal.moveUp(), node);
+        assertTrue(node.moveInPlace(PuzzleGraphNode.LEFT));
+        assertEquals(goal.moveUp().moveLeft(), node);
+        assertEquals(goal.moveUp().moveLeft().longHashCode(),
+                     node.longHashCode());
+
+        assertTrue(node.moveInPlace(PuzzleGraphNode.RIGHT));
+        assertTrue(node.moveInPlace(PuzzleGraphNode.DOWN));
+        assertEquals(goal, node);
+        assertEquals(goal.longHashCode(), node.longHashCode());
+    }
+
+    @Test
+    public void testIsReachable() {
+        final Random rnd = new Random(4L);
+
+        for (final int degree : new int[]{ 3, 4, 5 }) {
+            final PuzzleGraphNode goal = new PuzzleGraphNode(degree);
+            PuzzleGraphNode node = goal;
+
+            for (int i = 0; i != 100; ++i) {
+                node = node.copy();
+                node.moveInPlace(rnd.nextInt(4));
+
+                assertTrue(node.isReachable(goal));
+                assertTrue(goal.isReachable(node));
+                assertFalse(node.randomSwap(rnd).isReachable(goal));
+            }
+        }
+
+        assertFalse(new PuzzleGraphNode(3).isReachable(
+                    new PuzzleGraphNode(4)));
+    }
+}
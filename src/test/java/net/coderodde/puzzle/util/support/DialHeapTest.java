@@ -63,6 +63,22 @@ public class DialHeapTest {
         assertEquals(0, heap.size());
     }
 
+    @Test
+    public void testDecreasePriorityIntoEmptyBucket() {
+        heap.insert(1, 5);
+        heap.insert(2, 5);
+        heap.insert(3, 7);
+        
+        // 2 is at the head of its bucket and moves to an empty one.
+        heap.decreasePriority(2, 3);
+        
+        assertEquals((Integer) 2, heap.extractMinimum());
+        assertEquals(5, heap.minPriority());
+        assertEquals((Integer) 1, heap.extractMinimum());
+        assertEquals((Integer) 3, heap.extractMinimum());
+        assertEquals(0, heap.size());
+    }
+
     @Test
     public void testSize() {
         for (int i = 0; i != 1000; ++i) {
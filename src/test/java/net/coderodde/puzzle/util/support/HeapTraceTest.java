@@ -0,0 +1,101 @@
+package net.coderodde.puzzle.util.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class HeapTraceTest {
+
+    /**
+     * Records random operations on two queues. The priorities are distinct,
+     * so that every queue extracts the same elements. There are
+     * less than 4096 operations.
+     */
+    private static HeapTrace record(final long seed) {
+        final Random rnd = new Random(seed);
+        final HeapTrace trace = new HeapTrace();
+        final RecordingPriorityQueue<Integer> heap1 =
+                new RecordingPriorityQueue<>(new DaryHeap<Integer>(), trace);
+        final RecordingPriorityQueue<Integer> heap2 = heap1.spawn();
+        int counter = 0;
+
+        for (int i = 0; i < 2000; ++i) {
+            final RecordingPriorityQueue<Integer> heap =
+                    rnd.nextBoolean() ? heap1 : heap2;
+
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    if (!heap.isEmpty()) {
+                        heap.extractMinimum();
+                    }
+
+                    break;
+
+                case 1:
+                    heap.decreasePriority(rnd.nextInt(500),
+                                          4096 * rnd.nextInt(100) + counter++);
+                    break;
+
+                default:
+                    heap.insert(rnd.nextInt(500),
+                                4096 * rnd.nextInt(100) + counter++);
+                    break;
+            }
+        }
+
+        return trace;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final HeapTrace trace = record(1L);
+        final File file = File.createTempFile("heaptrace", ".bin");
+
+        try {
+            trace.write(file);
+            final HeapTrace copy = HeapTrace.read(file);
+
+            assertEquals(trace.size(), copy.size());
+            assertEquals(trace.getQueueCount(), copy.getQueueCount());
+            assertEquals(trace.getElementCount(), copy.getElementCount());
+
+            for (int i = 0; i < trace.size(); ++i) {
+                assertEquals(trace.getOperation(i), copy.getOperation(i));
+                assertEquals(trace.getQueue(i), copy.getQueue(i));
+                assertEquals(trace.getElement(i), copy.getElement(i));
+                assertEquals(trace.getPriority(i), copy.getPriority(i));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsOtherFiles() throws IOException {
+        final File file = File.createTempFile("heaptrace", ".bin");
+
+        try {
+            HeapTrace.read(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testReplayAgreesOverQueues() {
+        final HeapTrace trace = record(2L);
+        long expected = 0L;
+
+        for (int i = 0; i < trace.size(); ++i) {
+            if (trace.getOperation(i) == HeapTrace.EXTRACT_MINIMUM) {
+                expected += trace.getElement(i);
+            }
+        }
+
+        assertEquals(expected, trace.replay(new DaryHeap<Integer>(2)));
+        assertEquals(expected, trace.replay(new DaryHeap<Integer>(4)));
+        assertEquals(expected, trace.replay(new DialHeap<Integer>()));
+    }
+}
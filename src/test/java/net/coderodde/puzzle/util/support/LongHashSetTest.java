@@ -0,0 +1,63 @@
+package net.coderodde.puzzle.util.support;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LongHashSetTest {
+    
+    @Test
+    public void testAddAndContains() {
+        final LongHashSet set = new LongHashSet();
+        final Set<Long> reference = new HashSet<>();
+        final Random rnd = new Random(18L);
+        
+        for (int i = 0; i != 10000; ++i) {
+            // Draw from a small range to get duplicates.
+            final long value = rnd.nextInt(5000) * 0x100000000L - 1000;
+            
+            assertEquals(reference.add(value), set.add(value));
+            assertEquals(reference.size(), set.size());
+        }
+        
+        for (long value = -2000; value != 2000; ++value) {
+            assertEquals(reference.contains(value), set.contains(value));
+        }
+        
+        for (final long value : reference) {
+            assertTrue(set.contains(value));
+        }
+    }
+    
+    @Test
+    public void testZero() {
+        final LongHashSet set = new LongHashSet(1);
+        
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.contains(0L));
+        assertEquals(1, set.size());
+    }
+    
+    @Test
+    public void testClear() {
+        final LongHashSet set = new LongHashSet();
+        
+        for (long value = 0; value != 100; ++value) {
+            set.add(value);
+        }
+        
+        set.clear();
+        
+        assertEquals(0, set.size());
+        
+        for (long value = 0; value != 100; ++value) {
+            assertFalse(set.contains(value));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.coderodde.puzzle.util.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+    
+    @Test
+    public void testPutAndGet() {
+        final LongIntHashMap map = new LongIntHashMap();
+        final Map<Long, Integer> reference = new HashMap<>();
+        final Random rnd = new Random(25L);
+        
+        for (int i = 0; i != 10000; ++i) {
+            // Draw from a small range to overwrite values.
+            final long key = rnd.nextInt(5000) * 0x100000000L - 1000;
+            final int value = rnd.nextInt();
+            
+            map.put(key, value);
+            reference.put(key, value);
+            assertEquals(reference.size(), map.size());
+        }
+        
+        for (long key = -2000; key != 2000; ++key) {
+            assertEquals(reference.containsKey(key), map.containsKey(key));
+        }
+        
+        for (final Map.Entry<Long, Integer> e : reference.entrySet()) {
+            assertEquals((int) e.getValue(), map.get(e.getKey(), -1));
+        }
+        
+        assertEquals(-1, map.get(12345L, -1));
+    }
+    
+    @Test
+    public void testZero() {
+        final LongIntHashMap map = new LongIntHashMap(1);
+        
+        assertFalse(map.containsKey(0L));
+        assertEquals(7, map.get(0L, 7));
+        
+        map.put(0L, 3);
+        map.put(0L, 4);
+        
+        assertTrue(map.containsKey(0L));
+        assertEquals(4, map.get(0L, 7));
+        assertEquals(1, map.size());
+    }
+    
+    @Test
+    public void testKeys() {
+        final LongIntHashMap map = new LongIntHashMap();
+        
+        for (long key = 0; key != 100; ++key) {
+            map.put(key * key, (int) key);
+        }
+        
+        final long[] keys = map.keys();
+        final long[] expected = new long[100];
+        
+        for (int i = 0; i != 100; ++i) {
+            expected[i] = (long) i * i;
+        }
+        
+        Arrays.sort(keys);
+        assertArrayEquals(expected, keys);
+    }
+    
+    @Test
+    public void testClear() {
+        final LongIntHashMap map = new LongIntHashMap();
+        
+        for (long key = 0; key != 100; ++key) {
+            map.put(key, 1);
+        }
+        
+        map.clear();
+        
+        assertEquals(0, map.size());
+        assertEquals(0, map.keys().length);
+        
+        for (long key = 0; key != 100; ++key) {
+            assertFalse(map.containsKey(key));
+        }
+    }
+}
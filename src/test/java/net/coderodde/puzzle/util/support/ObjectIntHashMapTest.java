@@ -0,0 +1,85 @@
+package net.coderodde.puzzle.util.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ObjectIntHashMapTest {
+    
+    @Test
+    public void testPutAndGet() {
+        final ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        final Map<String, Integer> reference = new HashMap<>();
+        final Random rnd = new Random(24L);
+        
+        for (int i = 0; i != 10000; ++i) {
+            // Draw from a small range to overwrite values.
+            final String key = "key" + rnd.nextInt(5000);
+            final int value = rnd.nextInt();
+            
+            map.put(key, value);
+            reference.put(key, value);
+            assertEquals(reference.size(), map.size());
+        }
+        
+        for (int i = 0; i != 6000; ++i) {
+            final String key = "key" + i;
+            
+            assertEquals(reference.containsKey(key), map.containsKey(key));
+            
+            if (reference.containsKey(key)) {
+                assertEquals((int) reference.get(key), map.get(key, -1));
+            } else {
+                assertEquals(-1, map.get(key, -1));
+            }
+        }
+    }
+    
+    @Test
+    public void testNodeKeys() {
+        final ObjectIntHashMap<PuzzleGraphNode> map =
+                new ObjectIntHashMap<>(1);
+        PuzzleGraphNode node = new PuzzleGraphNode(4);
+        map.put(node, 0);
+        
+        // Walk along a line of moves, away from the solved node.
+        for (int i = 1; i != 4; ++i) {
+            node = node.moveUp();
+            map.put(node, i);
+        }
+        
+        for (int i = 1; i != 4; ++i) {
+            node = node.moveLeft();
+            map.put(node, 3 + i);
+        }
+        
+        assertEquals(7, map.size());
+        assertEquals(6, map.get(node, -1));
+        assertEquals(0, map.get(new PuzzleGraphNode(4), -1));
+        assertTrue(map.containsKey(new PuzzleGraphNode(4).moveUp()));
+        assertFalse(map.containsKey(new PuzzleGraphNode(4).moveLeft()));
+    }
+    
+    @Test
+    public void testClear() {
+        final ObjectIntHashMap<Integer> map = new ObjectIntHashMap<>();
+        
+        for (int key = 0; key != 100; ++key) {
+            map.put(key, key);
+        }
+        
+        map.clear();
+        
+        assertEquals(0, map.size());
+        
+        for (int key = 0; key != 100; ++key) {
+            assertFalse(map.containsKey(key));
+            assertEquals(-1, map.get(key, -1));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.coderodde.puzzle.util.support;
+
+import java.util.List;
+import java.util.Random;
+import net.coderodde.puzzle.App;
+import net.coderodde.puzzle.graph.finders.support.HeuristicBFSFinder;
+import net.coderodde.puzzle.graph.finders.support.ManhattanHeuristicFunction;
+import net.coderodde.puzzle.graph.finders.support.NBAFinder;
+import net.coderodde.puzzle.graph.support.PuzzleGraphNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class RecordingPriorityQueueTest {
+
+    @Test
+    public void testRecordsOperations() {
+        final HeapTrace trace = new HeapTrace();
+        final RecordingPriorityQueue<String> heap =
+                new RecordingPriorityQueue<>(new DaryHeap<String>(), trace);
+
+        heap.insert("a", 5);
+        heap.insert("b", 3);
+        heap.decreasePriority("a", 1);
+        assertEquals(1, heap.minPriority());
+        assertEquals("a", heap.extractMinimum());
+        assertEquals(1, heap.size());
+        heap.clear();
+
+        assertEquals(6, trace.size());
+        assertEquals(1, trace.getQueueCount());
+        assertEquals(2, trace.getElementCount());
+
+        assertEquals(HeapTrace.INSERT, trace.getOperation(0));
+        assertEquals(0, trace.getElement(0));
+        assertEquals(5, trace.getPriority(0));
+        assertEquals(HeapTrace.INSERT, trace.getOperation(1));
+        assertEquals(1, trace.getElement(1));
+        assertEquals(HeapTrace.DECREASE_PRIORITY, trace.getOperation(2));
+        assertEquals(0, trace.getElement(2));
+        assertEquals(1, trace.getPriority(2));
+        assertEquals(HeapTrace.MIN_PRIORITY, trace.getOperation(3));
+        assertEquals(-1, trace.getElement(3));
+        assertEquals(HeapTrace.EXTRACT_MINIMUM, trace.getOperation(4));
+        assertEquals(0, trace.getElement(4));
+        assertEquals(HeapTrace.CLEAR, trace.getOperation(5));
+    }
+
+    @Test
+    public void testSpawnedQueuesShareTrace() {
+        final HeapTrace trace = new HeapTrace();
+        final RecordingPriorityQueue<Integer> heap =
+                new RecordingPriorityQueue<>(new DialHeap<Integer>(), trace);
+        final RecordingPriorityQueue<Integer> spawned = heap.spawn();
+
+        assertTrue(spawned.getTrace() == trace);
+
+        heap.insert(1, 1);
+        spawned.insert(1, 2);
+
+        assertEquals(2, trace.getQueueCount());
+        assertEquals(0, trace.getQueue(0));
+        assertEquals(1, trace.getQueue(1));
+        // The same element has the same identifier in both queues.
+        assertEquals(trace.getElement(0), trace.getElement(1));
+    }
+
+    @Test
+    public void testRecordingDoesNotChangeSearch() {
+        final PuzzleGraphNode target = new PuzzleGraphNode(4);
+        final PuzzleGraphNode source =
+                App.getSource(40, 4, new Random(23L));
+        final HeapTrace trace = new HeapTrace();
+
+        final List<PuzzleGraphNode> path1 =
+                new NBAFinder<>(new ManhattanHeuristicFunction(source),
+                                new RecordingPriorityQueue<>(
+                                        new DaryHeap<PuzzleGraphNode>(),
+                                        trace)).search(source, target);
+        final List<PuzzleGraphNode> path2 =
+                new HeuristicBFSFinder<>(new ManhattanHeuristicFunction(source))
+                        .search(source, target);
+
+        assertEquals(path2.size(), path1.size());
+        // The prototype and the two OPEN lists.
+        assertEquals(3, trace.getQueueCount());
+        assertTrue(trace.size() > 0);
+    }
+}